@@ -1,7 +1,13 @@
 package com.apicatalog.did;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.function.IntPredicate;
 
@@ -39,7 +45,7 @@ import java.util.function.IntPredicate;
  * not decoded.</li>
  * </ul>
  */
-public class Did implements Serializable {
+public class Did implements Serializable, Comparable<Did> {
 
     private static final long serialVersionUID = -2933853082203788425L;
 
@@ -77,6 +83,13 @@ public class Did implements Serializable {
     /** Raw (pct-encoded) method-specific-id, preserved as provided. */
     protected final String methodSpecificId;
 
+    /** Cached {@link #hashCode()}, {@code 0} if not computed yet. */
+    private transient int hash;
+    /** Cached {@link #toString()}, {@code null} if not rendered yet. */
+    private transient String string;
+    /** Cached {@link #toNormalizedString()}, {@code null} if not rendered yet. */
+    private transient String normalized;
+
     /**
      * Creates a DID with already-validated components.
      *
@@ -338,6 +351,82 @@ public class Did implements Serializable {
         return lastSegHasIdChar;
     }
 
+    /**
+     * Reads a {@code Did} or {@link DidUrl} in the compact binary encoding
+     * written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source (must not be {@code null})
+     * @return a new {@code Did}, or a {@link DidUrl} if a DID URL was encoded
+     * @throws IOException              if an I/O error occurs or the input ends
+     *                                  prematurely
+     * @throws IllegalArgumentException if the encoding or the decoded DID is
+     *                                  invalid
+     */
+    public static Did readFrom(final DataInput in) throws IOException {
+        Objects.requireNonNull(in);
+        return DidBinary.read(in);
+    }
+
+    /**
+     * Reads a {@code Did} or {@link DidUrl} in the compact binary encoding
+     * written by {@link #writeTo(ByteBuffer)}, advancing the buffer position.
+     *
+     * @param buffer source (must not be {@code null})
+     * @return a new {@code Did}, or a {@link DidUrl} if a DID URL was encoded
+     * @throws BufferUnderflowException if the buffer ends prematurely
+     * @throws IllegalArgumentException if the encoding or the decoded DID is
+     *                                  invalid
+     */
+    public static Did readFrom(final ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        return DidBinary.read(buffer);
+    }
+
+    /**
+     * Writes this instance in a compact binary encoding: a flags byte marking a
+     * DID URL and the presence of path, query, and fragment, followed by each
+     * present component as a varint length and UTF-8 bytes.
+     * <p>
+     * The encoding carries no class descriptors and is the recommended way to
+     * ship DIDs through caches and between services. Java serialization is kept
+     * as is for compatibility.
+     * </p>
+     *
+     * @param out target (must not be {@code null})
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        Objects.requireNonNull(out);
+        DidBinary.write(this, out);
+    }
+
+    /**
+     * Writes this instance in the compact binary encoding, see
+     * {@link #writeTo(DataOutput)}, advancing the buffer position.
+     *
+     * @param buffer target (must not be {@code null})
+     * @return the given buffer
+     * @throws BufferOverflowException if the buffer has less than
+     *                                 {@link #binarySize()} bytes remaining
+     */
+    public ByteBuffer writeTo(final ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        if (buffer.remaining() < binarySize()) {
+            throw new BufferOverflowException();
+        }
+        DidBinary.write(this, buffer);
+        return buffer;
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(DataOutput)}.
+     *
+     * @return the encoded size in bytes
+     */
+    public int binarySize() {
+        return DidBinary.size(this);
+    }
+
     /**
      * Returns the DID method name (lowercase ASCII).
      *
@@ -400,16 +489,26 @@ public class Did implements Serializable {
      */
     @Override
     public String toString() {
-        return new StringBuilder()
-                .append(SCHEME).append(':')
-                .append(methodName).append(':')
-                .append(methodSpecificId)
-                .toString();
+        String result = string;
+        if (result == null) {
+            result = new StringBuilder(SCHEME.length() + methodName.length() + methodSpecificId.length() + 2)
+                    .append(SCHEME).append(':')
+                    .append(methodName).append(':')
+                    .append(methodSpecificId)
+                    .toString();
+            string = result;
+        }
+        return result;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(methodName, methodSpecificId);
+        int result = hash;
+        if (result == 0) {
+            result = 31 * (31 + methodName.hashCode()) + methodSpecificId.hashCode();
+            hash = result;
+        }
+        return result;
     }
 
     @Override
@@ -428,6 +527,287 @@ public class Did implements Serializable {
 
     }
 
+    /**
+     * Compares by method name, method-specific-id, and then, for DID URLs, by
+     * path, query, and fragment. Strings are compared by Unicode code points,
+     * absent components sort first, and a bare DID sorts before its DID URLs.
+     * <p>
+     * The order is consistent with {@link #equals(Object)} and with unsigned
+     * byte comparison of {@link #toSortKey()}.
+     * </p>
+     *
+     * @param other the identifier to compare to (must not be {@code null})
+     * @return a negative integer, zero, or a positive integer as this identifier
+     *         is less than, equal to, or greater than the other
+     */
+    @Override
+    public int compareTo(final Did other) {
+
+        if (this == other) {
+            return 0;
+        }
+
+        int result = compare(methodName, other.methodName);
+
+        if (result != 0) {
+            return result;
+        }
+
+        result = compare(methodSpecificId, other.methodSpecificId);
+
+        if (result != 0 || !isDidUrl() && !other.isDidUrl()) {
+            return result;
+        }
+
+        if (!isDidUrl()) {
+            return -1;
+        }
+        if (!other.isDidUrl()) {
+            return 1;
+        }
+
+        final DidUrl a = asDidUrl();
+        final DidUrl b = other.asDidUrl();
+
+        result = compare(a.path, b.path);
+        if (result != 0) {
+            return result;
+        }
+        result = compare(a.query, b.query);
+        if (result != 0) {
+            return result;
+        }
+        return compare(a.fragment, b.fragment);
+    }
+
+    /**
+     * Returns an order-preserving binary key. Keys compared as unsigned bytes,
+     * see {@link #compareSortKeys(byte[], byte[])}, sort in the
+     * {@link #compareTo(Did)} order.
+     * <p>
+     * Components are UTF-8 encoded, with {@code 0x00} escaped, and terminated
+     * by {@code 0x00 0x01}. The key of a bare DID is a prefix of the keys of its
+     * DID URLs; see {@link #sortKeyPrefix(String, String)} for range scans.
+     * </p>
+     *
+     * @return a new key
+     */
+    public byte[] toSortKey() {
+        return DidSortKey.encode(this);
+    }
+
+    /**
+     * Decodes a key created by {@link #toSortKey()}.
+     *
+     * @param key the key (must not be {@code null})
+     * @return a new {@code Did}, or a {@link DidUrl} if a DID URL was encoded
+     * @throws IllegalArgumentException if the key or the decoded DID is invalid
+     */
+    public static Did fromSortKey(final byte[] key) {
+        Objects.requireNonNull(key);
+        return DidSortKey.decode(key);
+    }
+
+    /**
+     * Returns the prefix shared by the sort keys of all DIDs and DID URLs with
+     * the given method.
+     *
+     * @param methodName a method name (must not be {@code null})
+     * @return a new key prefix
+     */
+    public static byte[] sortKeyPrefix(final String methodName) {
+        Objects.requireNonNull(methodName);
+        return DidSortKey.prefix(methodName, null);
+    }
+
+    /**
+     * Returns the prefix shared by the sort keys of all DIDs and DID URLs with
+     * the given method and a method-specific-id starting with the given prefix.
+     *
+     * @param methodName             a method name (must not be {@code null})
+     * @param methodSpecificIdPrefix a raw method-specific-id prefix, may be
+     *                               empty (must not be {@code null})
+     * @return a new key prefix
+     */
+    public static byte[] sortKeyPrefix(final String methodName, final String methodSpecificIdPrefix) {
+        Objects.requireNonNull(methodName);
+        Objects.requireNonNull(methodSpecificIdPrefix);
+        return DidSortKey.prefix(methodName, methodSpecificIdPrefix);
+    }
+
+    /**
+     * Compares sort keys, or key prefixes, as unsigned bytes.
+     *
+     * @param a a key (must not be {@code null})
+     * @param b a key (must not be {@code null})
+     * @return a negative integer, zero, or a positive integer as {@code a} is
+     *         less than, equal to, or greater than {@code b}
+     */
+    public static int compareSortKeys(final byte[] a, final byte[] b) {
+        Objects.requireNonNull(a);
+        Objects.requireNonNull(b);
+        return DidSortKey.compare(a, b);
+    }
+
+    /**
+     * Compares by Unicode code points, {@code null} sorts first.
+     */
+    static final int compare(final String a, final String b) {
+
+        if (a == b) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+
+        final int length = Math.min(a.length(), b.length());
+
+        for (int i = 0; i < length; i++) {
+
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+
+            if (x != y) {
+                // move surrogates above the rest of the BMP
+                if (x >= Character.MIN_SURROGATE && y >= Character.MIN_SURROGATE) {
+                    x += x < 0xE000 ? 0x2000 : -0x800;
+                    y += y < 0xE000 ? 0x2000 : -0x800;
+                }
+                return x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Renders the normalized form used by {@link #equalsNormalized(Did)}.
+     * Percent-encoded octets are rendered with uppercase hex digits, e.g.
+     * {@code did:ex:a%3a} becomes {@code did:ex:a%3A}. A {@link DidUrl} also
+     * decodes percent-encoded unreserved characters in the path, query, and
+     * fragment.
+     * <p>
+     * The form is computed once; if the identifier is already normalized
+     * {@link #toString()} is returned.
+     * </p>
+     *
+     * @return the normalized string form
+     */
+    public String toNormalizedString() {
+        String result = normalized;
+        if (result == null) {
+            result = renderNormalized();
+            normalized = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns this identifier in the normalized form, see
+     * {@link #toNormalizedString()}. Can be used as a cache key so that
+     * differently encoded identifiers share an entry.
+     *
+     * @return {@code this} if already normalized, otherwise a new instance
+     */
+    public Did normalized() {
+        final String normalizedId = normalize(methodSpecificId, false);
+        return normalizedId == methodSpecificId
+                ? this
+                : new Did(methodName, normalizedId);
+    }
+
+    /**
+     * Compares normalized forms, see {@link #toNormalizedString()}.
+     *
+     * @param other an identifier to compare, may be {@code null}
+     * @return {@code true} if both identifiers have the same normalized form
+     */
+    public boolean equalsNormalized(final Did other) {
+        return other != null
+                && (this == other || toNormalizedString().equals(other.toNormalizedString()));
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equalsNormalized(Did)}.
+     *
+     * @return the hash code of the normalized form
+     */
+    public int normalizedHash() {
+        return toNormalizedString().hashCode();
+    }
+
+    String renderNormalized() {
+        final String normalizedId = normalize(methodSpecificId, false);
+        return normalizedId == methodSpecificId
+                ? toString()
+                : SCHEME + ':' + methodName + ':' + normalizedId;
+    }
+
+    /**
+     * Uppercases hex digits of percent-encoded octets and optionally decodes
+     * percent-encoded unreserved characters ({@code ALPHA / DIGIT / "-" / "." /
+     * "_" / "~"}).
+     *
+     * @return the given value if already normalized, {@code null} if the value is
+     *         {@code null}
+     */
+    static final String normalize(final String value, final boolean decodeUnreserved) {
+
+        if (value == null) {
+            return null;
+        }
+
+        int index = value.indexOf('%');
+
+        if (index == -1) {
+            return value;
+        }
+
+        StringBuilder builder = null;
+        int copied = 0;
+
+        while (index != -1 && index + 2 < value.length()) {
+
+            final char high = value.charAt(index + 1);
+            final char low = value.charAt(index + 2);
+
+            if (!HEXDIG.test(high) || !HEXDIG.test(low)) {
+                index = value.indexOf('%', index + 1);
+                continue;
+            }
+
+            final int octet = (Character.digit(high, 16) << 4) | Character.digit(low, 16);
+
+            if (decodeUnreserved && (ID_CHAR.test(octet) || octet == '~')) {
+                if (builder == null) {
+                    builder = new StringBuilder(value.length());
+                }
+                builder.append(value, copied, index).append((char) octet);
+                copied = index + 3;
+
+            } else if (Character.isLowerCase(high) || Character.isLowerCase(low)) {
+                if (builder == null) {
+                    builder = new StringBuilder(value.length());
+                }
+                builder.append(value, copied, index)
+                        .append('%')
+                        .append(Character.toUpperCase(high))
+                        .append(Character.toUpperCase(low));
+                copied = index + 3;
+            }
+
+            index = value.indexOf('%', index + 3);
+        }
+
+        if (builder == null) {
+            return value;
+        }
+        return builder.append(value, copied, value.length()).toString();
+    }
+
     /**
      * @return {@code true} if the value is non-null and not blank after
      *         {@code trim()}
@@ -0,0 +1,291 @@
+package com.apicatalog.did;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of {@link Did} and {@link DidUrl}.
+ *
+ * <pre>{@code
+ * encoding  = flags method method-specific-id [path] [query] [fragment]
+ * flags     = 1 byte ; bit 0: DID URL, bit 1: path, bit 2: query, bit 3: fragment
+ * component = varint(length) UTF-8 bytes
+ * }</pre>
+ *
+ * Lengths are unsigned LEB128 varints.
+ */
+final class DidBinary {
+
+    static final int URL = 0x01;
+    static final int PATH = 0x02;
+    static final int QUERY = 0x04;
+    static final int FRAGMENT = 0x08;
+
+    /** The maximum length of a single encoded component. */
+    static final int MAX_LENGTH = 1 << 24;
+
+    private DidBinary() {
+        /* protected */
+    }
+
+    static final int flags(final Did did) {
+
+        if (!did.isDidUrl()) {
+            return 0;
+        }
+
+        final DidUrl url = (DidUrl) did;
+
+        return URL
+                | (url.path != null ? PATH : 0)
+                | (url.query != null ? QUERY : 0)
+                | (url.fragment != null ? FRAGMENT : 0);
+    }
+
+    static final int size(final Did did) {
+
+        int size = 1 + size(did.methodName) + size(did.methodSpecificId);
+
+        if (did.isDidUrl()) {
+            final DidUrl url = (DidUrl) did;
+            size += size(url.path) + size(url.query) + size(url.fragment);
+        }
+        return size;
+    }
+
+    static final void write(final Did did, final DataOutput out) throws IOException {
+
+        final int flags = flags(did);
+
+        out.writeByte(flags);
+        writeString(did.methodName, out);
+        writeString(did.methodSpecificId, out);
+
+        if ((flags & URL) != 0) {
+            final DidUrl url = (DidUrl) did;
+            writeString(url.path, out);
+            writeString(url.query, out);
+            writeString(url.fragment, out);
+        }
+    }
+
+    static final void write(final Did did, final ByteBuffer buffer) {
+
+        final int flags = flags(did);
+
+        buffer.put((byte) flags);
+        writeString(did.methodName, buffer);
+        writeString(did.methodSpecificId, buffer);
+
+        if ((flags & URL) != 0) {
+            final DidUrl url = (DidUrl) did;
+            writeString(url.path, buffer);
+            writeString(url.query, buffer);
+            writeString(url.fragment, buffer);
+        }
+    }
+
+    static final Did read(final DataInput in) throws IOException {
+
+        final int flags = in.readUnsignedByte();
+
+        if ((flags & ~(URL | PATH | QUERY | FRAGMENT)) != 0 || ((flags & URL) == 0 && flags != 0)) {
+            throw new IllegalArgumentException("Invalid DID encoding, unknown flags [0x" + Integer.toHexString(flags) + "].");
+        }
+
+        final String methodName = readString(in);
+        final String methodSpecificId = readString(in);
+
+        Did.validate(methodName, methodSpecificId);
+
+        if (flags == 0) {
+            return new Did(methodName, methodSpecificId);
+        }
+
+        return new DidUrl(
+                methodName,
+                methodSpecificId,
+                (flags & PATH) != 0 ? readString(in) : null,
+                (flags & QUERY) != 0 ? readString(in) : null,
+                (flags & FRAGMENT) != 0 ? readString(in) : null);
+    }
+
+    static final Did read(final ByteBuffer buffer) {
+
+        final int flags = buffer.get() & 0xFF;
+
+        if ((flags & ~(URL | PATH | QUERY | FRAGMENT)) != 0 || ((flags & URL) == 0 && flags != 0)) {
+            throw new IllegalArgumentException("Invalid DID encoding, unknown flags [0x" + Integer.toHexString(flags) + "].");
+        }
+
+        final String methodName = readString(buffer);
+        final String methodSpecificId = readString(buffer);
+
+        Did.validate(methodName, methodSpecificId);
+
+        if (flags == 0) {
+            return new Did(methodName, methodSpecificId);
+        }
+
+        return new DidUrl(
+                methodName,
+                methodSpecificId,
+                (flags & PATH) != 0 ? readString(buffer) : null,
+                (flags & QUERY) != 0 ? readString(buffer) : null,
+                (flags & FRAGMENT) != 0 ? readString(buffer) : null);
+    }
+
+    /**
+     * Returns the encoded size of an optional component, {@code 0} if absent.
+     */
+    static final int size(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        final int length = utf8Length(value);
+        return varintSize(length) + length;
+    }
+
+    static final void writeString(final String value, final DataOutput out) throws IOException {
+
+        if (value == null) {
+            return;
+        }
+
+        final int length = utf8Length(value);
+
+        writeVarint(length, out);
+
+        if (length == value.length()) {
+            for (int i = 0; i < length; i++) {
+                out.writeByte(value.charAt(i));
+            }
+        } else {
+            out.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static final void writeString(final String value, final ByteBuffer buffer) {
+
+        if (value == null) {
+            return;
+        }
+
+        final int length = utf8Length(value);
+
+        writeVarint(length, buffer);
+
+        if (length == value.length()) {
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static final String readString(final DataInput in) throws IOException {
+        final byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    static final String readString(final ByteBuffer buffer) {
+
+        final int length = readLength(buffer);
+
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid DID encoding, component length " + length + " exceeds the remaining " + buffer.remaining() + " bytes.");
+        }
+
+        if (buffer.hasArray()) {
+            final String value = decode(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return decode(bytes, 0, length);
+    }
+
+    static final String decode(final byte[] bytes, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0) {
+                return new String(bytes, offset, length, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    static final int readLength(final DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 28; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return checkLength(value);
+            }
+        }
+        throw new IllegalArgumentException("Invalid DID encoding, malformed length.");
+    }
+
+    static final int readLength(final ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 28; shift += 7) {
+            final int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return checkLength(value);
+            }
+        }
+        throw new IllegalArgumentException("Invalid DID encoding, malformed length.");
+    }
+
+    static final int checkLength(final int length) {
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Invalid DID encoding, component length " + length + " exceeds " + MAX_LENGTH + " bytes.");
+        }
+        return length;
+    }
+
+    static final void writeVarint(int value, final DataOutput out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static final void writeVarint(int value, final ByteBuffer buffer) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static final int varintSize(final int value) {
+        int size = 1;
+        int rest = value >>> 7;
+        while (rest != 0) {
+            size++;
+            rest >>>= 7;
+        }
+        return size;
+    }
+
+    static final int utf8Length(final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                // slow path, only for non-ASCII path, query, or fragment values
+                return value.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,231 @@
+package com.apicatalog.did;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Order-preserving binary encoding of {@link Did} and {@link DidUrl}. Keys
+ * compared as unsigned bytes sort in the {@link Did#compareTo(Did)} order.
+ *
+ * <pre>{@code
+ * key       = component(method) component(method-specific-id) [url]
+ * url       = optional(path) optional(query) optional(fragment)
+ * optional  = %x01 / %x02 component              ; absent / present
+ * component = *( %x01-FF / %x00 %xFF ) %x00 %x01 ; UTF-8, %x00 escaped
+ * }</pre>
+ *
+ * A bare DID key is a prefix of the keys of its DID URLs, and a method or
+ * method-specific-id prefix maps to a key prefix, so sorted stores can scan
+ * ranges by prefix.
+ */
+final class DidSortKey {
+
+    static final int ABSENT = 0x01;
+    static final int PRESENT = 0x02;
+
+    static final int ESCAPE = 0x00;
+    static final int ESCAPED = 0xFF;
+    static final int TERMINATOR = 0x01;
+
+    private DidSortKey() {
+        /* protected */
+    }
+
+    static final byte[] encode(final Did did) {
+
+        int size = size(did.methodName) + size(did.methodSpecificId);
+
+        DidUrl url = null;
+
+        if (did.isDidUrl()) {
+            url = did.asDidUrl();
+            size += optionalSize(url.path) + optionalSize(url.query) + optionalSize(url.fragment);
+        }
+
+        final byte[] key = new byte[size];
+
+        int offset = write(did.methodName, key, 0, true);
+        offset = write(did.methodSpecificId, key, offset, true);
+
+        if (url != null) {
+            offset = writeOptional(url.path, key, offset);
+            offset = writeOptional(url.query, key, offset);
+            writeOptional(url.fragment, key, offset);
+        }
+        return key;
+    }
+
+    static final byte[] prefix(final String methodName, final String methodSpecificIdPrefix) {
+
+        final int size = size(methodName) + (methodSpecificIdPrefix != null ? size(methodSpecificIdPrefix) - 2 : 0);
+
+        final byte[] key = new byte[size];
+
+        final int offset = write(methodName, key, 0, true);
+
+        if (methodSpecificIdPrefix != null) {
+            write(methodSpecificIdPrefix, key, offset, false);
+        }
+        return key;
+    }
+
+    static final Did decode(final byte[] key) {
+
+        final int[] position = new int[] { 0 };
+
+        final String methodName = read(key, position);
+        final String methodSpecificId = read(key, position);
+
+        Did.validate(methodName, methodSpecificId);
+
+        if (position[0] == key.length) {
+            return new Did(methodName, methodSpecificId);
+        }
+
+        final String path = readOptional(key, position);
+        final String query = readOptional(key, position);
+        final String fragment = readOptional(key, position);
+
+        if (position[0] != key.length) {
+            throw new IllegalArgumentException("Invalid DID sort key, " + (key.length - position[0]) + " trailing bytes.");
+        }
+
+        return new DidUrl(methodName, methodSpecificId, path, query, fragment);
+    }
+
+    static final int compare(final byte[] a, final byte[] b) {
+
+        final int length = Math.min(a.length, b.length);
+
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return (a[i] & 0xFF) - (b[i] & 0xFF);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    static final int optionalSize(final String value) {
+        return value != null ? 1 + size(value) : 1;
+    }
+
+    /** The length of an escaped and terminated component. */
+    static final int size(final String value) {
+
+        int size = 2;
+
+        for (int i = 0; i < value.length(); i++) {
+
+            final char ch = value.charAt(i);
+
+            if (ch == 0) {
+                size += 2;
+
+            } else if (ch < 0x80) {
+                size++;
+
+            } else if (ch < 0x800) {
+                size += 2;
+
+            } else if (Character.isHighSurrogate(ch) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    static final int writeOptional(final String value, final byte[] key, final int offset) {
+        if (value == null) {
+            key[offset] = ABSENT;
+            return offset + 1;
+        }
+        key[offset] = PRESENT;
+        return write(value, key, offset + 1, true);
+    }
+
+    static final int write(final String value, final byte[] key, int offset, final boolean terminate) {
+
+        for (int i = 0; i < value.length(); i++) {
+
+            final char ch = value.charAt(i);
+
+            if (ch == 0) {
+                key[offset++] = ESCAPE;
+                key[offset++] = (byte) ESCAPED;
+
+            } else if (ch < 0x80) {
+                key[offset++] = (byte) ch;
+
+            } else if (ch < 0x800) {
+                key[offset++] = (byte) (0xC0 | (ch >> 6));
+                key[offset++] = (byte) (0x80 | (ch & 0x3F));
+
+            } else if (Character.isHighSurrogate(ch) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(ch, value.charAt(++i));
+                key[offset++] = (byte) (0xF0 | (cp >> 18));
+                key[offset++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                key[offset++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                key[offset++] = (byte) (0x80 | (cp & 0x3F));
+
+            } else {
+                key[offset++] = (byte) (0xE0 | (ch >> 12));
+                key[offset++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                key[offset++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+
+        if (terminate) {
+            key[offset++] = ESCAPE;
+            key[offset++] = TERMINATOR;
+        }
+        return offset;
+    }
+
+    static final String readOptional(final byte[] key, final int[] position) {
+
+        if (position[0] >= key.length) {
+            throw new IllegalArgumentException("Invalid DID sort key, unexpected end.");
+        }
+
+        final int tag = key[position[0]++];
+
+        if (tag == ABSENT) {
+            return null;
+        }
+        if (tag == PRESENT) {
+            return read(key, position);
+        }
+        throw new IllegalArgumentException("Invalid DID sort key, unknown tag [0x" + Integer.toHexString(tag & 0xFF) + "].");
+    }
+
+    static final String read(final byte[] key, final int[] position) {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int i = position[0];
+
+        while (i + 1 < key.length) {
+
+            if (key[i] != ESCAPE) {
+                bytes.write(key[i++]);
+                continue;
+            }
+
+            if (key[i + 1] == TERMINATOR) {
+                position[0] = i + 2;
+                return DidBinary.decode(bytes.toByteArray(), 0, bytes.size());
+            }
+
+            if ((key[i + 1] & 0xFF) != ESCAPED) {
+                throw new IllegalArgumentException("Invalid DID sort key, malformed escape at position " + i + ".");
+            }
+
+            bytes.write(0);
+            i += 2;
+        }
+        throw new IllegalArgumentException("Invalid DID sort key, unterminated component.");
+    }
+}
@@ -34,6 +34,15 @@ public class DidUrl extends Did {
      */
     protected final String fragment;
 
+    /** The bare DID, shared or created on first access. */
+    private transient Did base;
+    /** Cached {@link #hashCode()}, {@code 0} if not computed yet. */
+    private transient int hash;
+    /** Cached {@link #toString()}, {@code null} if not rendered yet. */
+    private transient String string;
+    /** Parsed query, built on first access. */
+    private transient volatile DidUrlParameters parameters;
+
     /**
      * Constructs a DID URL from validated DID parts.
      *
@@ -50,6 +59,20 @@ public class DidUrl extends Did {
         this.fragment = fragment;
     }
 
+    /**
+     * Constructs a DID URL sharing the given bare DID, its rendered form and hash
+     * code are reused.
+     *
+     * @param base     a bare DID
+     * @param path     optional path (may be {@code null})
+     * @param query    optional query (may be {@code null})
+     * @param fragment optional fragment (may be {@code null})
+     */
+    protected DidUrl(Did base, String path, String query, String fragment) {
+        this(base.methodName, base.methodSpecificId, path, query, fragment);
+        this.base = base;
+    }
+
     /**
      * Creates a DID URL from separated parts. Values are preserved; only minimal
      * normalization of leading {@code /}, {@code ?}, and {@code #} markers is
@@ -93,8 +116,7 @@ public class DidUrl extends Did {
     public static DidUrl of(final Did did, final String path, final String query, final String fragment) {
         Objects.requireNonNull(did);
         return new DidUrl(
-                did.methodName,
-                did.methodSpecificId,
+                did.isDidUrl() ? did.asDidUrl().toDid() : did,
                 normalizePath(path),
                 normalizeQuery(query),
                 normalizeFragment(fragment));
@@ -195,6 +217,114 @@ public class DidUrl extends Did {
         return of(did, null, null, fragment);
     }
 
+    /**
+     * Resolves a reference, e.g. {@code #key-1} or {@code ?service=files},
+     * against a base DID or DID URL as described by
+     * <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2">RFC 3986</a>.
+     * <p>
+     * Only the reference is validated; the method and method-specific-id of the
+     * base are reused as they are, and the result shares the base's bare
+     * {@link Did}, see {@link #toDid()}.
+     * </p>
+     * <ul>
+     * <li>{@code #fragment} keeps the base path and query</li>
+     * <li>{@code ?query[#fragment]} keeps the base path</li>
+     * <li>{@code /path[?query][#fragment]} replaces all</li>
+     * <li>{@code did:...} is parsed by {@link #of(String)}</li>
+     * <li>{@code .} and {@code ..} segments of a reference path are removed as
+     * in <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.4">section
+     * 5.2.4</a>, e.g. {@code /a/../b} resolves to {@code /b}</li>
+     * <li>an empty reference removes the base fragment</li>
+     * </ul>
+     * <p>
+     * Relative-path references, e.g. {@code key-1}, are rejected as DIDs have no
+     * hierarchical base path to merge with.
+     * </p>
+     *
+     * @param base the base (must not be {@code null})
+     * @param ref  the reference, percent-encoding is preserved (must not be
+     *             {@code null})
+     * @return a new {@code DidUrl}
+     * @throws IllegalArgumentException if the reference is invalid or not
+     *                                  supported
+     */
+    public static DidUrl resolveReference(final Did base, final CharSequence ref) {
+
+        Objects.requireNonNull(base);
+        Objects.requireNonNull(ref);
+
+        final Did did;
+        final String basePath;
+        final String baseQuery;
+
+        if (base.isDidUrl()) {
+            final DidUrl url = base.asDidUrl();
+            did = url.toDid();
+            basePath = url.path;
+            baseQuery = url.query;
+
+        } else {
+            did = base;
+            basePath = null;
+            baseQuery = null;
+        }
+
+        final int length = ref.length();
+
+        if (length == 0) {
+            return new DidUrl(did, basePath, baseQuery, null);
+        }
+
+        final char first = ref.charAt(0);
+
+        if (first == '#') {
+            return new DidUrl(did, basePath, baseQuery, component(ref, 1, length, true));
+        }
+
+        int fragmentIndex = indexOf(ref, '#', 0);
+        if (fragmentIndex == -1) {
+            fragmentIndex = length;
+        }
+
+        final String fragment = fragmentIndex < length
+                ? component(ref, fragmentIndex + 1, length, true)
+                : null;
+
+        if (first == '?') {
+            return new DidUrl(did, basePath, component(ref, 1, fragmentIndex, true), fragment);
+        }
+
+        if (first == '/') {
+
+            if (length > 1 && ref.charAt(1) == '/') {
+                throw new IllegalArgumentException("The reference [" + ref + "] is not valid; authority is not allowed.");
+            }
+
+            int queryIndex = indexOf(ref, '?', 0);
+            if (queryIndex == -1 || queryIndex > fragmentIndex) {
+                queryIndex = fragmentIndex;
+            }
+
+            return new DidUrl(
+                    did,
+                    removeDotSegments(component(ref, 0, queryIndex, false)),
+                    queryIndex < fragmentIndex
+                            ? component(ref, queryIndex + 1, fragmentIndex, true)
+                            : null,
+                    fragment);
+        }
+
+        if (length > 4 && ref.charAt(3) == ':' && SCHEME.contentEquals(ref.subSequence(0, 3))) {
+            final DidUrl url = of(ref.toString());
+            final String path = removeDotSegments(url.path);
+            return path != url.path
+                    ? new DidUrl(url.toDid(), path, url.query, url.fragment)
+                    : url;
+        }
+
+        throw new IllegalArgumentException("The reference [" + ref + "] is not supported; expected '#', '?', '/', or an absolute DID URL.");
+    }
+
     /** @deprecated use {@link DidUrl#of(String)} */
     @Deprecated
     public static DidUrl from(final String uri) {
@@ -300,12 +430,42 @@ public class DidUrl extends Did {
 
     /**
      * Returns the bare {@link Did} portion of this DID URL (method and
-     * method-specific-id only).
+     * method-specific-id only). A DID URL created from a {@link Did} returns that
+     * instance, otherwise a {@code Did} is created on the first call and reused.
      *
-     * @return a new {@code Did}
+     * @return the bare {@code Did}
      */
     public Did toDid() {
-        return new Did(super.methodName, super.methodSpecificId);
+        Did result = base;
+        if (result == null) {
+            result = new Did(super.methodName, super.methodSpecificId);
+            base = result;
+        }
+        return result;
+    }
+
+    @Override
+    public DidUrl normalized() {
+
+        final Did did = toDid();
+        final Did normalizedDid = did.normalized();
+
+        final String normalizedPath = normalize(path, true);
+        final String normalizedQuery = normalize(query, true);
+        final String normalizedFragment = normalize(fragment, true);
+
+        if (normalizedDid == did
+                && normalizedPath == path
+                && normalizedQuery == query
+                && normalizedFragment == fragment) {
+            return this;
+        }
+        return new DidUrl(normalizedDid, normalizedPath, normalizedQuery, normalizedFragment);
+    }
+
+    @Override
+    String renderNormalized() {
+        return normalized().toString();
     }
 
     /**
@@ -317,6 +477,20 @@ public class DidUrl extends Did {
      */
     @Override
     public String toString() {
+
+        String result = string;
+
+        if (result != null) {
+            return result;
+        }
+
+        // a fragment of a shared DID, e.g. did:example:123#key-1
+        if (base != null && path == null && query == null && fragment != null) {
+            result = base.toString().concat("#").concat(fragment);
+            string = result;
+            return result;
+        }
+
         final StringBuilder builder = new StringBuilder()
                 .append(SCHEME).append(':')
                 .append(methodName).append(':')
@@ -331,7 +505,9 @@ public class DidUrl extends Did {
             }
         }
 
-        return builder.toString();
+        result = builder.toString();
+        string = result;
+        return result;
     }
 
     /**
@@ -362,9 +538,18 @@ public class DidUrl extends Did {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = super.hashCode();
-        result = prime * result + Objects.hash(fragment, path, query);
+
+        int result = hash;
+
+        if (result == 0) {
+            // the same as Objects.hash(fragment, path, query) without varargs
+            int parts = 31 + (fragment != null ? fragment.hashCode() : 0);
+            parts = 31 * parts + (path != null ? path.hashCode() : 0);
+            parts = 31 * parts + (query != null ? query.hashCode() : 0);
+
+            result = 31 * (base != null ? base.hashCode() : super.hashCode()) + parts;
+            hash = result;
+        }
         return result;
     }
 
@@ -414,6 +599,114 @@ public class DidUrl extends Did {
         return query;
     }
 
+    /**
+     * Returns the query parameters. The query is parsed once, on the first call.
+     *
+     * @return the parameters, empty if the query is absent
+     */
+    public DidUrlParameters getParameters() {
+        DidUrlParameters result = parameters;
+        if (result == null) {
+            result = DidUrlParameters.of(query);
+            parameters = result;
+        }
+        return result;
+    }
+
+    /**
+     * Validates a path, query, or fragment of a reference.
+     *
+     * @param query {@code true} to allow {@code '?'}, i.e. a query or fragment
+     * @return the component
+     * @throws IllegalArgumentException if the component contains a character
+     *                                  that is not allowed
+     */
+    static final String component(final CharSequence ref, final int from, final int to, final boolean query) {
+
+        for (int i = from; i < to; i++) {
+
+            final char ch = ref.charAt(i);
+
+            if (ch == '%') {
+                if (i + 2 >= to || !HEXDIG.test(ref.charAt(i + 1)) || !HEXDIG.test(ref.charAt(i + 2))) {
+                    throw new IllegalArgumentException("The reference [" + ref + "] is not valid; malformed percent-encoding at position " + i + ".");
+                }
+                i += 2;
+                continue;
+            }
+
+            // pchar / "/" / "?"
+            if (!ID_CHAR.test(ch)
+                    && ch != '~' && ch != ':' && ch != '@' && ch != '/'
+                    && ch != '!' && ch != '$' && ch != '&' && ch != '\''
+                    && ch != '(' && ch != ')' && ch != '*' && ch != '+'
+                    && ch != ',' && ch != ';' && ch != '='
+                    && (!query || ch != '?')) {
+                throw new IllegalArgumentException("The reference [" + ref + "] is not valid; character '" + ch + "' at position " + i + " is not allowed.");
+            }
+        }
+        return ref.subSequence(from, to).toString();
+    }
+
+    /**
+     * Removes {@code .} and {@code ..} segments from an absolute path as in
+     * <a href="https://www.rfc-editor.org/rfc/rfc3986#section-5.2.4">RFC 3986
+     * section 5.2.4</a>.
+     *
+     * @param path an absolute path, or {@code null}
+     * @return the same instance if there is nothing to remove
+     */
+    static final String removeDotSegments(final String path) {
+
+        if (path == null || path.indexOf("/.") == -1) {
+            return path;
+        }
+
+        final StringBuilder output = new StringBuilder(path.length());
+
+        final int length = path.length();
+        int index = 0;
+
+        while (index < length) {
+
+            if (path.startsWith("/./", index)) {
+                index += 2;
+
+            } else if (index + 2 == length && path.startsWith("/.", index)) {
+                output.append('/');
+                break;
+
+            } else if (path.startsWith("/../", index)) {
+                index += 3;
+                output.setLength(Math.max(output.lastIndexOf("/"), 0));
+
+            } else if (index + 3 == length && path.startsWith("/..", index)) {
+                output.setLength(Math.max(output.lastIndexOf("/"), 0));
+                output.append('/');
+                break;
+
+            } else {
+                int next = path.indexOf('/', index + 1);
+                if (next == -1) {
+                    next = length;
+                }
+                output.append(path, index, next);
+                index = next;
+            }
+        }
+
+        return output.toString();
+    }
+
+    static final int indexOf(final CharSequence value, final char ch, final int from) {
+        for (int i = from; i < value.length(); i++) {
+            if (value.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Normalizes a path to start with {@code '/'}. An empty string remains empty
      * (renders as {@code "/"}).
@@ -0,0 +1,413 @@
+package com.apicatalog.did;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable view of the parameters of a {@link DidUrl} query.
+ * <p>
+ * The raw query is split on {@code '&'} and {@code '='} in a single pass that
+ * records offsets only. Values are percent-decoded on first access; the
+ * standard <a href="https://www.w3.org/TR/did-1.0/#did-parameters">DID
+ * parameters</a> are located during the pass and are available in constant
+ * time. Looking up an absent parameter does not allocate.
+ * </p>
+ * <p>
+ * Names are matched exactly as they appear in the query. Malformed
+ * percent-encoded sequences are kept as they are.
+ * </p>
+ *
+ * <pre>{@code
+ * DidUrlParameters parameters = DidUrl.of("did:example:123?service=files&relativeRef=%2Fa.pdf").getParameters();
+ *
+ * parameters.service();     // "files"
+ * parameters.relativeRef(); // "/a.pdf"
+ * }</pre>
+ */
+public final class DidUrlParameters {
+
+    public static final String SERVICE = "service";
+    public static final String RELATIVE_REF = "relativeRef";
+    public static final String VERSION_ID = "versionId";
+    public static final String VERSION_TIME = "versionTime";
+    public static final String HL = "hl";
+
+    static final String[] STANDARD = { SERVICE, RELATIVE_REF, VERSION_ID, VERSION_TIME, HL };
+
+    static final int NAME_END = 1;
+    static final int VALUE_END = 2;
+    static final int STRIDE = 3;
+
+    static final DidUrlParameters EMPTY = new DidUrlParameters("", new int[0], 0, new int[] { -1, -1, -1, -1, -1 });
+
+    final String query;
+
+    /**
+     * {@code [name start, name end, value end]} for each parameter, the value
+     * starts after {@code '='} at {@code name end + 1} if present.
+     */
+    final int[] offsets;
+    final int size;
+
+    /** The index of the first occurrence of each {@link #STANDARD} parameter */
+    final int[] standard;
+
+    /** Decoded values, allocated on first access. */
+    volatile String[] values;
+
+    DidUrlParameters(final String query, final int[] offsets, final int size, final int[] standard) {
+        this.query = query;
+        this.offsets = offsets;
+        this.size = size;
+        this.standard = standard;
+        this.values = null;
+    }
+
+    /**
+     * Parses the given raw query.
+     *
+     * @param query a percent-encoded query without a leading {@code '?'}, may be
+     *              {@code null}
+     * @return the parameters, empty if the query is {@code null} or empty
+     */
+    public static DidUrlParameters of(final String query) {
+
+        if (query == null || query.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] offsets = new int[STRIDE * 4];
+        int size = 0;
+
+        final int[] standard = new int[STANDARD.length];
+        Arrays.fill(standard, -1);
+
+        final int length = query.length();
+
+        int start = 0;
+
+        while (start <= length) {
+
+            int end = query.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            // skip empty pairs, e.g. a&&b
+            if (end > start) {
+
+                int nameEnd = query.indexOf('=', start);
+                if (nameEnd == -1 || nameEnd > end) {
+                    nameEnd = end;
+                }
+
+                if (offsets.length < (size + 1) * STRIDE) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+
+                offsets[size * STRIDE] = start;
+                offsets[size * STRIDE + NAME_END] = nameEnd;
+                offsets[size * STRIDE + VALUE_END] = end;
+
+                for (int i = 0; i < STANDARD.length; i++) {
+                    if (standard[i] == -1
+                            && STANDARD[i].length() == nameEnd - start
+                            && query.startsWith(STANDARD[i], start)) {
+                        standard[i] = size;
+                        break;
+                    }
+                }
+
+                size++;
+            }
+
+            start = end + 1;
+        }
+
+        return size == 0
+                ? EMPTY
+                : new DidUrlParameters(query, offsets, size, standard);
+    }
+
+    /**
+     * Returns the number of parameters, including repeated ones.
+     *
+     * @return parameters count
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the raw name of the parameter at the given position.
+     *
+     * @param index a position in the query, {@code 0 <= index < size()}
+     * @return the name
+     */
+    public String name(final int index) {
+        check(index);
+        return query.substring(offsets[index * STRIDE], offsets[index * STRIDE + NAME_END]);
+    }
+
+    /**
+     * Returns the percent-decoded value of the parameter at the given position.
+     *
+     * @param index a position in the query, {@code 0 <= index < size()}
+     * @return the value, empty if the parameter has no value
+     */
+    public String value(final int index) {
+
+        check(index);
+
+        String[] values = this.values;
+
+        if (values == null) {
+            values = new String[size];
+            this.values = values;
+
+        } else if (values[index] != null) {
+            return values[index];
+        }
+
+        final String value = decode(query, valueStart(index), offsets[index * STRIDE + VALUE_END]);
+        values[index] = value;
+        return value;
+    }
+
+    /**
+     * Returns the raw, percent-encoded, value of the parameter at the given
+     * position.
+     *
+     * @param index a position in the query, {@code 0 <= index < size()}
+     * @return the value, empty if the parameter has no value
+     */
+    public String rawValue(final int index) {
+        check(index);
+        return query.substring(valueStart(index), offsets[index * STRIDE + VALUE_END]);
+    }
+
+    /**
+     * Checks whether a parameter with the given name is present.
+     *
+     * @param name a parameter name (must not be {@code null})
+     * @return {@code true} if present
+     */
+    public boolean contains(final String name) {
+        return indexOf(name) != -1;
+    }
+
+    /**
+     * Returns the percent-decoded value of the first parameter with the given
+     * name.
+     *
+     * @param name a parameter name (must not be {@code null})
+     * @return the value, or {@code null} if absent
+     */
+    public String get(final String name) {
+        final int index = indexOf(name);
+        return index != -1 ? value(index) : null;
+    }
+
+    /**
+     * Returns the raw, percent-encoded, value of the first parameter with the
+     * given name.
+     *
+     * @param name a parameter name (must not be {@code null})
+     * @return the value, or {@code null} if absent
+     */
+    public String getRaw(final String name) {
+        final int index = indexOf(name);
+        return index != -1 ? rawValue(index) : null;
+    }
+
+    /**
+     * Returns the percent-decoded values of all parameters with the given name,
+     * in query order.
+     *
+     * @param name a parameter name (must not be {@code null})
+     * @return read-only list of values, possibly empty
+     */
+    public List<String> getAll(final String name) {
+
+        List<String> all = null;
+
+        for (int index = indexOf(name); index != -1 && index < size; index++) {
+            if (matches(index, name)) {
+                if (all == null) {
+                    all = new ArrayList<>(2);
+                }
+                all.add(value(index));
+            }
+        }
+
+        return all != null
+                ? Collections.unmodifiableList(all)
+                : Collections.emptyList();
+    }
+
+    /**
+     * Returns the {@code service} parameter.
+     *
+     * @return the decoded value, or {@code null} if absent
+     */
+    public String service() {
+        return standard(0);
+    }
+
+    /**
+     * Returns the {@code relativeRef} parameter.
+     *
+     * @return the decoded value, or {@code null} if absent
+     */
+    public String relativeRef() {
+        return standard(1);
+    }
+
+    /**
+     * Returns the {@code versionId} parameter.
+     *
+     * @return the decoded value, or {@code null} if absent
+     */
+    public String versionId() {
+        return standard(2);
+    }
+
+    /**
+     * Returns the {@code versionTime} parameter.
+     *
+     * @return the decoded value, or {@code null} if absent
+     */
+    public String versionTime() {
+        return standard(3);
+    }
+
+    /**
+     * Returns the {@code hl} parameter.
+     *
+     * @return the decoded value, or {@code null} if absent
+     */
+    public String hl() {
+        return standard(4);
+    }
+
+    /**
+     * Returns the raw query.
+     *
+     * @return the query, empty if there are no parameters
+     */
+    @Override
+    public String toString() {
+        return query;
+    }
+
+    @Override
+    public int hashCode() {
+        return query.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return query.equals(((DidUrlParameters) obj).query);
+    }
+
+    String standard(final int parameter) {
+        final int index = standard[parameter];
+        return index != -1 ? value(index) : null;
+    }
+
+    int indexOf(final String name) {
+
+        Objects.requireNonNull(name);
+
+        for (int i = 0; i < STANDARD.length; i++) {
+            if (STANDARD[i].equals(name)) {
+                return standard[i];
+            }
+        }
+
+        for (int index = 0; index < size; index++) {
+            if (matches(index, name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    boolean matches(final int index, final String name) {
+        final int start = offsets[index * STRIDE];
+        return offsets[index * STRIDE + NAME_END] - start == name.length()
+                && query.startsWith(name, start);
+    }
+
+    int valueStart(final int index) {
+        final int nameEnd = offsets[index * STRIDE + NAME_END];
+        return nameEnd < offsets[index * STRIDE + VALUE_END]
+                ? nameEnd + 1
+                : nameEnd;
+    }
+
+    void check(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " parameters.");
+        }
+    }
+
+    static final String decode(final String value, final int start, final int end) {
+
+        final int percent = value.indexOf('%', start);
+
+        if (percent == -1 || percent >= end) {
+            return value.substring(start, end);
+        }
+
+        final StringBuilder builder = new StringBuilder(end - start);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int i = start;
+
+        while (i < end) {
+
+            if (value.charAt(i) != '%') {
+                builder.append(value.charAt(i++));
+                continue;
+            }
+
+            // a run of percent-encoded octets forming UTF-8 sequences
+            bytes.reset();
+
+            while (i + 2 < end && value.charAt(i) == '%') {
+                final int high = Character.digit(value.charAt(i + 1), 16);
+                final int low = Character.digit(value.charAt(i + 2), 16);
+                if (high == -1 || low == -1) {
+                    break;
+                }
+                bytes.write((high << 4) | low);
+                i += 3;
+            }
+
+            if (bytes.size() > 0) {
+                builder.append(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+
+            } else {
+                // malformed, kept as it is
+                builder.append(value.charAt(i++));
+            }
+        }
+        return builder.toString();
+    }
+}
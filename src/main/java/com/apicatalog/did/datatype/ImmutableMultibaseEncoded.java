@@ -0,0 +1,42 @@
+package com.apicatalog.did.datatype;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+final class ImmutableMultibaseEncoded implements MultibaseEncoded {
+
+    final String baseName;
+    final byte[] debased;
+
+    ImmutableMultibaseEncoded(final String baseName, final byte[] debased) {
+        this.baseName = baseName;
+        this.debased = debased;
+    }
+
+    @Override
+    public String baseName() {
+        return baseName;
+    }
+
+    @Override
+    public byte[] debased() {
+        return debased;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(baseName) + Arrays.hashCode(debased);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MultibaseEncoded)) {
+            return false;
+        }
+        final MultibaseEncoded other = (MultibaseEncoded) obj;
+        return Objects.equals(baseName, other.baseName()) && Arrays.equals(debased, other.debased());
+    }
+}
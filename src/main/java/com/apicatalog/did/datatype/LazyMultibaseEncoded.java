@@ -0,0 +1,104 @@
+package com.apicatalog.did.datatype;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the encoded form and decodes it on the first call to
+ * {@link #debased()}.
+ */
+final class LazyMultibaseEncoded implements MultibaseEncoded {
+
+    final Multibase base;
+    final String encoded;
+
+    // benign race, decoding is idempotent
+    volatile byte[] debased;
+
+    LazyMultibaseEncoded(final Multibase base, final String encoded) {
+        this(base, encoded, null);
+    }
+
+    LazyMultibaseEncoded(final Multibase base, final String encoded, final byte[] debased) {
+        this.base = base;
+        this.encoded = encoded;
+        this.debased = debased;
+    }
+
+    @Override
+    public String baseName() {
+        return base.baseName();
+    }
+
+    @Override
+    public byte[] debased() {
+        byte[] value = debased;
+        if (value == null) {
+            value = base.decode(encoded);
+            debased = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the decoded value, or {@code null} if the encoded form is
+     * malformed.
+     */
+    byte[] debasedOrNull() {
+        try {
+            return debased();
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Never throws, a malformed value is hashed by its encoded form.
+     */
+    @Override
+    public int hashCode() {
+        final byte[] value = debasedOrNull();
+        return 31 * base.baseName().hashCode() + (value != null ? Arrays.hashCode(value) : encoded.hashCode());
+    }
+
+    /**
+     * Never throws, a malformed value equals only the same encoded form.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof LazyMultibaseEncoded) {
+            final LazyMultibaseEncoded other = (LazyMultibaseEncoded) obj;
+            if (base == other.base && encoded.equals(other.encoded)) {
+                return true;
+            }
+        }
+        if (!(obj instanceof MultibaseEncoded)) {
+            return false;
+        }
+        final MultibaseEncoded other = (MultibaseEncoded) obj;
+
+        if (!base.baseName().equals(other.baseName())) {
+            return false;
+        }
+
+        final byte[] value = debasedOrNull();
+
+        if (value == null) {
+            return false;
+        }
+
+        final byte[] otherValue = other instanceof LazyMultibaseEncoded
+                ? ((LazyMultibaseEncoded) other).debasedOrNull()
+                : other.debased();
+
+        return otherValue != null && Arrays.equals(value, otherValue);
+    }
+
+    @Override
+    public String toString() {
+        return encoded;
+    }
+}
@@ -0,0 +1,460 @@
+package com.apicatalog.did.datatype;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Built-in <a href=
+ * "https://datatracker.ietf.org/doc/html/draft-multiformats-multibase">Multibase</a>
+ * encodings.
+ * <p>
+ * Decoders are table driven and can write into a caller-supplied array or
+ * {@link ByteBuffer}, so decoding a key does not need to allocate.
+ * </p>
+ *
+ * <pre>{@code
+ * byte[] key = Multibase.Base58Btc.decode("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+ * }</pre>
+ */
+public enum Multibase {
+
+    /** Bitcoin base58, prefix {@code z}. */
+    Base58Btc('z', "base58btc", "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz") {
+
+        @Override
+        public int maxDecodedLength(final CharSequence encoded) {
+            final int length = encoded.length();
+
+            // leading '1' characters are leading zero bytes
+            int zeros = 0;
+            while (zeros + 1 < length && encoded.charAt(zeros + 1) == '1') {
+                zeros++;
+            }
+
+            final int digits = length - 1 - zeros;
+
+            // log(58) / log(256) ~ 0.7322
+            return digits == 0
+                    ? zeros
+                    : zeros + (int) (digits * 733L / 1000) + 1;
+        }
+
+        @Override
+        int decode(final CharSequence encoded, final byte[] dst, final int offset, final int limit) {
+
+            final int length = encoded.length();
+
+            int index = 1;
+
+            // leading '1' characters are leading zero bytes
+            while (index < length && encoded.charAt(index) == '1') {
+                if (offset + index - 1 >= limit) {
+                    throw overflow();
+                }
+                dst[offset + index - 1] = 0;
+                index++;
+            }
+
+            final int start = offset + index - 1;
+
+            // accumulate the number little-endian at dst[start, start + size)
+            int size = 0;
+
+            while (index < length) {
+
+                // consume up to 5 digits at once, 58^5 fits into an int
+                long group = 0;
+                long multiplier = 1;
+
+                for (int i = 0; i < 5 && index < length; i++, index++) {
+                    group = group * 58 + digit(encoded.charAt(index), index);
+                    multiplier *= 58;
+                }
+
+                long carry = group;
+
+                for (int i = start; i < start + size; i++) {
+                    carry += (dst[i] & 0xFFL) * multiplier;
+                    dst[i] = (byte) carry;
+                    carry >>>= 8;
+                }
+
+                while (carry != 0) {
+                    if (start + size >= limit) {
+                        throw overflow();
+                    }
+                    dst[start + size++] = (byte) carry;
+                    carry >>>= 8;
+                }
+            }
+
+            reverse(dst, start, start + size);
+
+            return start + size - offset;
+        }
+
+        @Override
+        public String encode(final byte[] data) {
+
+            int zeros = 0;
+            while (zeros < data.length && data[zeros] == 0) {
+                zeros++;
+            }
+
+            // log(256) / log(58) ~ 1.3658
+            final byte[] digits = new byte[(data.length - zeros) * 138 / 100 + 1];
+            int size = 0;
+
+            for (int i = zeros; i < data.length; i++) {
+                int carry = data[i] & 0xFF;
+                for (int j = 0; j < size; j++) {
+                    carry += (digits[j] & 0xFF) << 8;
+                    digits[j] = (byte) (carry % 58);
+                    carry /= 58;
+                }
+                while (carry != 0) {
+                    digits[size++] = (byte) (carry % 58);
+                    carry /= 58;
+                }
+            }
+
+            final char[] chars = new char[1 + zeros + size];
+            chars[0] = prefix;
+            Arrays.fill(chars, 1, 1 + zeros, alphabet[0]);
+            for (int i = 0; i < size; i++) {
+                chars[1 + zeros + i] = alphabet[digits[size - 1 - i]];
+            }
+            return new String(chars);
+        }
+    },
+
+    /** RFC 4648 base64url without padding, prefix {@code u}. */
+    Base64Url('u', "base64url", "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_") {
+
+        @Override
+        public int maxDecodedLength(final CharSequence encoded) {
+            return (encoded.length() - 1) * 3 / 4;
+        }
+
+        @Override
+        int decode(final CharSequence encoded, final byte[] dst, final int offset, final int limit) {
+            return decodeBits(encoded, 6, dst, offset, limit);
+        }
+
+        @Override
+        public String encode(final byte[] data) {
+            return encodeBits(data, 6);
+        }
+    },
+
+    /** RFC 4648 lowercase base32 without padding, prefix {@code b}. */
+    Base32('b', "base32", "abcdefghijklmnopqrstuvwxyz234567") {
+
+        @Override
+        public int maxDecodedLength(final CharSequence encoded) {
+            return (encoded.length() - 1) * 5 / 8;
+        }
+
+        @Override
+        int decode(final CharSequence encoded, final byte[] dst, final int offset, final int limit) {
+            return decodeBits(encoded, 5, dst, offset, limit);
+        }
+
+        @Override
+        public String encode(final byte[] data) {
+            return encodeBits(data, 5);
+        }
+    },
+
+    /** Lowercase hexadecimal, prefix {@code f}. */
+    Base16('f', "base16", "0123456789abcdef") {
+
+        @Override
+        public int maxDecodedLength(final CharSequence encoded) {
+            return (encoded.length() - 1) / 2;
+        }
+
+        @Override
+        int decode(final CharSequence encoded, final byte[] dst, final int offset, final int limit) {
+
+            if ((encoded.length() - 1) % 2 != 0) {
+                throw new IllegalArgumentException("Invalid base16 value, odd number of digits.");
+            }
+            if (offset + maxDecodedLength(encoded) > limit) {
+                throw overflow();
+            }
+
+            int position = offset;
+            for (int i = 1; i < encoded.length(); i += 2) {
+                dst[position++] = (byte) ((digit(encoded.charAt(i), i) << 4) | digit(encoded.charAt(i + 1), i + 1));
+            }
+            return position - offset;
+        }
+
+        @Override
+        public String encode(final byte[] data) {
+            final char[] chars = new char[1 + data.length * 2];
+            chars[0] = prefix;
+            for (int i = 0; i < data.length; i++) {
+                chars[1 + 2 * i] = alphabet[(data[i] >>> 4) & 0x0F];
+                chars[2 + 2 * i] = alphabet[data[i] & 0x0F];
+            }
+            return new String(chars);
+        }
+    },
+    ;
+
+    static final Multibase[] PREFIXES = new Multibase[128];
+
+    static {
+        for (final Multibase base : values()) {
+            PREFIXES[base.prefix] = base;
+        }
+    }
+
+    final char prefix;
+    final String baseName;
+    final char[] alphabet;
+    final byte[] digits;
+
+    Multibase(final char prefix, final String baseName, final String alphabet) {
+        this.prefix = prefix;
+        this.baseName = baseName;
+        this.alphabet = alphabet.toCharArray();
+        this.digits = new byte[128];
+
+        Arrays.fill(digits, (byte) -1);
+        for (int i = 0; i < alphabet.length(); i++) {
+            digits[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Returns the encoding identified by the first character of the given
+     * multibase value.
+     *
+     * @param encoded multibase encoded value
+     * @return the encoding, or {@code null} if empty or unsupported
+     */
+    public static Multibase of(final CharSequence encoded) {
+        if (encoded == null || encoded.length() == 0) {
+            return null;
+        }
+        return of(encoded.charAt(0));
+    }
+
+    /**
+     * Returns the encoding with the given prefix character.
+     *
+     * @param prefix multibase prefix, e.g. {@code z}
+     * @return the encoding, or {@code null} if unsupported
+     */
+    public static Multibase of(final char prefix) {
+        return prefix < PREFIXES.length
+                ? PREFIXES[prefix]
+                : null;
+    }
+
+    /**
+     * Returns the encoding with the given name.
+     *
+     * @param baseName multibase name, e.g. {@code base58btc}
+     * @return the encoding, or {@code null} if unsupported
+     */
+    public static Multibase ofName(final String baseName) {
+        for (final Multibase base : values()) {
+            if (base.baseName.equals(baseName)) {
+                return base;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the multibase prefix character.
+     *
+     * @return prefix, e.g. {@code z}
+     */
+    public char prefix() {
+        return prefix;
+    }
+
+    /**
+     * Returns the multibase name.
+     *
+     * @return name, e.g. {@code base58btc}
+     */
+    public String baseName() {
+        return baseName;
+    }
+
+    /**
+     * Returns an upper bound of the number of bytes the given value decodes to.
+     *
+     * @param encoded multibase encoded value, including the prefix
+     * @return maximum decoded length
+     */
+    public abstract int maxDecodedLength(CharSequence encoded);
+
+    /**
+     * Encodes the given bytes, prefixed with {@link #prefix()}.
+     *
+     * @param data bytes to encode (must not be {@code null})
+     * @return multibase encoded value
+     */
+    public abstract String encode(byte[] data);
+
+    /**
+     * Decodes the given multibase value.
+     *
+     * @param encoded multibase encoded value, including the prefix (must not be
+     *                {@code null})
+     * @return decoded bytes
+     * @throws IllegalArgumentException if the value is not a valid value of this
+     *                                  encoding
+     */
+    public byte[] decode(final CharSequence encoded) {
+        check(encoded);
+        final byte[] bytes = new byte[maxDecodedLength(encoded)];
+        final int length = decode(encoded, bytes, 0, bytes.length);
+        return length == bytes.length
+                ? bytes
+                : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Decodes the given multibase value into the given array.
+     *
+     * @param encoded multibase encoded value, including the prefix (must not be
+     *                {@code null})
+     * @param dst     target array (must not be {@code null})
+     * @param offset  the first index to write to
+     * @return number of bytes written
+     * @throws IllegalArgumentException if the value is not a valid value of this
+     *                                  encoding, or does not fit into the array
+     */
+    public int decode(final CharSequence encoded, final byte[] dst, final int offset) {
+        check(encoded);
+        Objects.requireNonNull(dst);
+        if (offset < 0 || offset > dst.length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " is out of bounds [0, " + dst.length + "].");
+        }
+        return decode(encoded, dst, offset, dst.length);
+    }
+
+    /**
+     * Decodes the given multibase value into the given buffer, advancing its
+     * position. Heap buffers are decoded in place; direct buffers use a
+     * temporary array.
+     *
+     * @param encoded multibase encoded value, including the prefix (must not be
+     *                {@code null})
+     * @param dst     target buffer (must not be {@code null})
+     * @return number of bytes written
+     * @throws IllegalArgumentException if the value is not a valid value of this
+     *                                  encoding, or does not fit into the buffer
+     */
+    public int decode(final CharSequence encoded, final ByteBuffer dst) {
+
+        check(encoded);
+        Objects.requireNonNull(dst);
+
+        if (dst.hasArray()) {
+            final int offset = dst.arrayOffset() + dst.position();
+            final int length = decode(encoded, dst.array(), offset, offset + dst.remaining());
+            dst.position(dst.position() + length);
+            return length;
+        }
+
+        final byte[] bytes = decode(encoded);
+        if (bytes.length > dst.remaining()) {
+            throw overflow();
+        }
+        dst.put(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Decodes into {@code dst[offset, limit)}.
+     */
+    abstract int decode(CharSequence encoded, byte[] dst, int offset, int limit);
+
+    void check(final CharSequence encoded) {
+        Objects.requireNonNull(encoded);
+        if (encoded.length() == 0 || encoded.charAt(0) != prefix) {
+            throw new IllegalArgumentException("Not a " + baseName + " multibase value, expected prefix '" + prefix + "'.");
+        }
+    }
+
+    int digit(final char ch, final int index) {
+        final int digit = ch < 128 ? digits[ch] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid " + baseName + " character '" + ch + "' at position " + index + ".");
+        }
+        return digit;
+    }
+
+    int decodeBits(final CharSequence encoded, final int bits, final byte[] dst, final int offset, final int limit) {
+
+        final int length = encoded.length();
+
+        if ((((length - 1) * bits) % 8) >= bits) {
+            throw new IllegalArgumentException("Invalid " + baseName + " value, unexpected length " + (length - 1) + ".");
+        }
+        if (offset + maxDecodedLength(encoded) > limit) {
+            throw overflow();
+        }
+
+        int position = offset;
+        int buffer = 0;
+        int buffered = 0;
+
+        for (int i = 1; i < length; i++) {
+            buffer = (buffer << bits) | digit(encoded.charAt(i), i);
+            buffered += bits;
+            if (buffered >= 8) {
+                buffered -= 8;
+                dst[position++] = (byte) (buffer >>> buffered);
+            }
+        }
+        return position - offset;
+    }
+
+    String encodeBits(final byte[] data, final int bits) {
+
+        final int mask = (1 << bits) - 1;
+        final StringBuilder builder = new StringBuilder(1 + (data.length * 8 + bits - 1) / bits);
+
+        builder.append(prefix);
+
+        int buffer = 0;
+        int buffered = 0;
+
+        for (final byte b : data) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            buffered += 8;
+            while (buffered >= bits) {
+                buffered -= bits;
+                builder.append(alphabet[(buffer >>> buffered) & mask]);
+            }
+        }
+        if (buffered > 0) {
+            builder.append(alphabet[(buffer << (bits - buffered)) & mask]);
+        }
+        return builder.toString();
+    }
+
+    static final IllegalArgumentException overflow() {
+        return new IllegalArgumentException("The decoded value does not fit into the target buffer.");
+    }
+
+    static final void reverse(final byte[] bytes, int from, int to) {
+        to--;
+        while (from < to) {
+            final byte tmp = bytes[from];
+            bytes[from++] = bytes[to];
+            bytes[to--] = tmp;
+        }
+    }
+}
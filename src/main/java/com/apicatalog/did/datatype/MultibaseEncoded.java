@@ -1,11 +1,15 @@
 package com.apicatalog.did.datatype;
 
+import java.util.Objects;
+
 /**
  * A value encoded using the <a href=
  * "https://datatracker.ietf.org/doc/html/draft-multiformats-multibase">Multibase</a>
  * format.
  * <p>
  * Provides access to the encoding base and the decoded (binary) value.
+ * Implementations are equal when they have the same base name and decoded
+ * value.
  * </p>
  */
 public interface MultibaseEncoded {
@@ -24,4 +28,59 @@ public interface MultibaseEncoded {
      * @return raw byte array
      */
     byte[] debased();
+
+    /**
+     * Creates a {@code MultibaseEncoded} value from an already decoded value.
+     *
+     * @param baseName the name of the encoding base (must not be {@code null})
+     * @param debased  the decoded binary value (must not be {@code null}), not
+     *                 copied
+     * @return a new {@code MultibaseEncoded}
+     * @throws NullPointerException if {@code baseName} or {@code debased} is
+     *                              {@code null}
+     */
+    static MultibaseEncoded of(final String baseName, final byte[] debased) {
+        Objects.requireNonNull(baseName);
+        Objects.requireNonNull(debased);
+        return new ImmutableMultibaseEncoded(baseName, debased);
+    }
+
+    /**
+     * Creates a {@code MultibaseEncoded} value from its encoded form, e.g.
+     * {@code z6Mk...}. The value is decoded once, on the first call to
+     * {@link #debased()}, and {@link Object#toString()} returns the encoded form.
+     *
+     * @param encoded multibase encoded value, including the prefix (must not be
+     *                {@code null})
+     * @return a new {@code MultibaseEncoded}
+     * @throws IllegalArgumentException if the prefix denotes an unsupported
+     *                                  {@link Multibase}
+     */
+    static MultibaseEncoded of(final String encoded) {
+        Objects.requireNonNull(encoded);
+        final Multibase base = Multibase.of(encoded);
+        if (base == null) {
+            throw new IllegalArgumentException("Unsupported multibase value [" + encoded + "].");
+        }
+        return new LazyMultibaseEncoded(base, encoded);
+    }
+
+    /**
+     * Creates a {@code MultibaseEncoded} value from its encoded form and the
+     * already decoded value, e.g. decoded while validating, so it is not decoded
+     * again. {@link Object#toString()} returns the encoded form.
+     *
+     * @param base    the encoding base (must not be {@code null})
+     * @param encoded multibase encoded value, including the prefix (must not be
+     *                {@code null})
+     * @param debased the decoded binary value of {@code encoded} (must not be
+     *                {@code null}), not copied nor checked
+     * @return a new {@code MultibaseEncoded}
+     */
+    static MultibaseEncoded of(final Multibase base, final String encoded, final byte[] debased) {
+        Objects.requireNonNull(base);
+        Objects.requireNonNull(encoded);
+        Objects.requireNonNull(debased);
+        return new LazyMultibaseEncoded(base, encoded, debased);
+    }
 }
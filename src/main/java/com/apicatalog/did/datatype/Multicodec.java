@@ -0,0 +1,146 @@
+package com.apicatalog.did.datatype;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Public key codecs from the
+ * <a href="https://github.com/multiformats/multicodec">Multicodec</a> table
+ * used by DID methods, e.g. {@code did:key}.
+ *
+ * <pre>{@code
+ * MulticodecEncoded key = MulticodecEncoded.of(MultibaseEncoded.of(msi));
+ *
+ * switch (key.codec()) {
+ * case Ed25519PublicKey:
+ *     ...
+ * }
+ * }</pre>
+ */
+public enum Multicodec {
+
+    Ed25519PublicKey(0xed, "ed25519-pub", 32),
+
+    X25519PublicKey(0xec, "x25519-pub", 32),
+
+    /** A compressed secp256k1 point. */
+    Secp256k1PublicKey(0xe7, "secp256k1-pub", 33),
+
+    Bls12381G2PublicKey(0xeb, "bls12_381-g2-pub", 96),
+
+    /** A compressed P-256 point. */
+    P256PublicKey(0x1200, "p256-pub", 33),
+
+    /** A compressed P-384 point. */
+    P384PublicKey(0x1201, "p384-pub", 49),
+
+    /** A compressed P-521 point. */
+    P521PublicKey(0x1202, "p521-pub", 67),
+
+    /** A DER encoded RSA public key, variable length. */
+    RsaPublicKey(0x1205, "rsa-pub", -1),
+    ;
+
+    static final Multicodec[] BY_CODE;
+    static final long[] CODES;
+
+    static {
+        BY_CODE = values();
+        Arrays.sort(BY_CODE, (a, b) -> Long.compare(a.code, b.code));
+
+        CODES = new long[BY_CODE.length];
+        for (int i = 0; i < BY_CODE.length; i++) {
+            CODES[i] = BY_CODE[i].code;
+        }
+    }
+
+    final long code;
+    final String codecName;
+    final int length;
+
+    Multicodec(final long code, final String codecName, final int length) {
+        this.code = code;
+        this.codecName = codecName;
+        this.length = length;
+    }
+
+    /**
+     * Returns the codec with the given code.
+     *
+     * @param code multicodec code
+     * @return the codec, or {@code null} if not supported
+     */
+    public static Multicodec of(final long code) {
+        final int index = Arrays.binarySearch(CODES, code);
+        return index >= 0
+                ? BY_CODE[index]
+                : null;
+    }
+
+    /**
+     * Returns the codec with the given name.
+     *
+     * @param codecName multicodec name, e.g. {@code ed25519-pub}
+     * @return the codec, or {@code null} if not supported
+     */
+    public static Multicodec ofName(final String codecName) {
+        for (final Multicodec codec : BY_CODE) {
+            if (codec.codecName.equals(codecName)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the numeric multicodec code.
+     *
+     * @return code, e.g. {@code 0xed}
+     */
+    public long code() {
+        return code;
+    }
+
+    /**
+     * Returns the multicodec name.
+     *
+     * @return name, e.g. {@code ed25519-pub}
+     */
+    public String codecName() {
+        return codecName;
+    }
+
+    /**
+     * Returns the expected payload length in bytes.
+     *
+     * @return length, or {@code -1} if the length is variable
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Prefixes the payload with this codec's varint code.
+     *
+     * @param payload raw value (must not be {@code null})
+     * @return multicodec encoded value
+     * @throws IllegalArgumentException if the payload length does not match
+     *                                  {@link #length()}
+     */
+    public byte[] encode(final byte[] payload) {
+
+        Objects.requireNonNull(payload);
+
+        if (length != -1 && payload.length != length) {
+            throw new IllegalArgumentException("Invalid " + codecName + " payload length " + payload.length + ", expected " + length + " bytes.");
+        }
+
+        final int size = UnsignedVarint.size(code);
+        final byte[] encoded = new byte[size + payload.length];
+
+        UnsignedVarint.write(code, encoded, 0);
+        System.arraycopy(payload, 0, encoded, size, payload.length);
+
+        return encoded;
+    }
+}
@@ -1,5 +1,8 @@
 package com.apicatalog.did.datatype;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /**
  * A value encoded using the
  * <a href="https://github.com/multiformats/multicodec">Multicodec</a> format.
@@ -22,4 +25,86 @@ public interface MulticodecEncoded {
      * @return raw byte array
      */
     byte[] decoded();
+
+    /**
+     * Returns the codec identified by {@link #codecCode()}.
+     *
+     * @return the codec, or {@code null} if not a known {@link Multicodec}
+     */
+    default Multicodec codec() {
+        return Multicodec.of(codecCode());
+    }
+
+    /**
+     * Returns a read-only view of the decoded value.
+     *
+     * @return the decoded value, positioned at its first byte
+     */
+    default ByteBuffer payload() {
+        return ByteBuffer.wrap(decoded()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Creates a {@code MulticodecEncoded} view of a varint prefixed value. The
+     * payload is not copied until {@link #decoded()} is called.
+     *
+     * @param encoded the varint code followed by the payload (must not be
+     *                {@code null}), not copied
+     * @return a new {@code MulticodecEncoded}
+     * @throws IllegalArgumentException if the code is malformed, or the payload
+     *                                  length does not match a known
+     *                                  {@link Multicodec}
+     */
+    static MulticodecEncoded of(final byte[] encoded) {
+        Objects.requireNonNull(encoded);
+        return of(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Creates a {@code MulticodecEncoded} view of a varint prefixed value stored
+     * at {@code encoded[offset, offset + length)}.
+     *
+     * @param encoded the varint code followed by the payload (must not be
+     *                {@code null}), not copied
+     * @param offset  the index of the first varint byte
+     * @param length  the total length of the code and the payload
+     * @return a new {@code MulticodecEncoded}
+     * @throws IllegalArgumentException if the code is malformed, or the payload
+     *                                  length does not match a known
+     *                                  {@link Multicodec}
+     */
+    static MulticodecEncoded of(final byte[] encoded, final int offset, final int length) {
+
+        Objects.requireNonNull(encoded);
+
+        if (offset < 0 || length < 0 || offset + length > encoded.length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") is out of bounds [0, " + encoded.length + "].");
+        }
+
+        final long code = UnsignedVarint.read(encoded, offset, offset + length);
+        final int size = UnsignedVarint.size(code);
+
+        final Multicodec codec = Multicodec.of(code);
+
+        if (codec != null && codec.length() != -1 && codec.length() != length - size) {
+            throw new IllegalArgumentException("Invalid " + codec.codecName() + " payload length " + (length - size) + ", expected " + codec.length() + " bytes.");
+        }
+
+        return new MulticodecSlice(code, encoded, offset + size, length - size);
+    }
+
+    /**
+     * Creates a {@code MulticodecEncoded} view of the decoded multibase value.
+     *
+     * @param encoded a multibase value carrying a multicodec value (must not be
+     *                {@code null})
+     * @return a new {@code MulticodecEncoded}
+     * @throws IllegalArgumentException if the code is malformed, or the payload
+     *                                  length does not match a known
+     *                                  {@link Multicodec}
+     */
+    static MulticodecEncoded of(final MultibaseEncoded encoded) {
+        Objects.requireNonNull(encoded);
+        return of(encoded.debased());
+    }
 }
@@ -0,0 +1,69 @@
+package com.apicatalog.did.datatype;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link MulticodecEncoded} payload sliced out of the encoded array without
+ * copying.
+ */
+final class MulticodecSlice implements MulticodecEncoded {
+
+    final long code;
+    final byte[] data;
+    final int offset;
+    final int length;
+
+    volatile byte[] decoded;
+
+    MulticodecSlice(final long code, final byte[] data, final int offset, final int length) {
+        this.code = code;
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.decoded = null;
+    }
+
+    @Override
+    public long codecCode() {
+        return code;
+    }
+
+    @Override
+    public byte[] decoded() {
+        byte[] value = decoded;
+        if (value == null) {
+            value = Arrays.copyOfRange(data, offset, offset + length);
+            decoded = value;
+        }
+        return value;
+    }
+
+    @Override
+    public ByteBuffer payload() {
+        return ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(code);
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MulticodecSlice)) {
+            return false;
+        }
+        final MulticodecSlice other = (MulticodecSlice) obj;
+        return code == other.code
+                && length == other.length
+                && payload().equals(other.payload());
+    }
+}
@@ -0,0 +1,158 @@
+package com.apicatalog.did.datatype;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocation-free reader and writer of the multiformats <a href=
+ * "https://github.com/multiformats/unsigned-varint">unsigned varint</a>, a
+ * little-endian base 128 encoding of up to 63 bits in at most 9 bytes.
+ * <p>
+ * Only the minimal encoding of a value is accepted, so the number of bytes a
+ * value has been read from is always {@link #size(long)}.
+ * </p>
+ */
+public final class UnsignedVarint {
+
+    /** The maximum encoded length in bytes. */
+    public static final int MAX_LENGTH = 9;
+
+    private UnsignedVarint() {
+        /* protected */
+    }
+
+    /**
+     * Reads a varint starting at the given offset.
+     *
+     * @param data   encoded bytes (must not be {@code null})
+     * @param offset the index of the first varint byte
+     * @return decoded value, the number of bytes read is {@link #size(long)}
+     * @throws IllegalArgumentException if the varint is truncated, too long, or
+     *                                  not minimally encoded
+     */
+    public static long read(final byte[] data, final int offset) {
+        return read(data, offset, data.length);
+    }
+
+    /**
+     * Reads a varint from {@code data[offset, limit)}.
+     *
+     * @param data   encoded bytes (must not be {@code null})
+     * @param offset the index of the first varint byte
+     * @param limit  the index past the last readable byte
+     * @return decoded value, the number of bytes read is {@link #size(long)}
+     * @throws IllegalArgumentException if the varint is truncated, too long, or
+     *                                  not minimally encoded
+     */
+    public static long read(final byte[] data, final int offset, final int limit) {
+
+        long value = 0;
+
+        for (int i = 0; i < MAX_LENGTH; i++) {
+
+            if (offset + i >= limit) {
+                throw new IllegalArgumentException("Invalid varint, unexpected end of input at " + (offset + i) + ".");
+            }
+
+            final int b = data[offset + i] & 0xFF;
+
+            value |= (long) (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                return check(value, b, i);
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint, exceeds " + MAX_LENGTH + " bytes.");
+    }
+
+    /**
+     * Reads a varint at the buffer position and advances the position past it.
+     *
+     * @param buffer encoded bytes (must not be {@code null})
+     * @return decoded value
+     * @throws IllegalArgumentException if the varint is truncated, too long, or
+     *                                  not minimally encoded
+     */
+    public static long read(final ByteBuffer buffer) {
+        final long value = read(buffer, buffer.position());
+        buffer.position(buffer.position() + size(value));
+        return value;
+    }
+
+    /**
+     * Reads a varint at the given absolute buffer index, the buffer position is
+     * not changed.
+     *
+     * @param buffer encoded bytes (must not be {@code null})
+     * @param index  the absolute index of the first varint byte
+     * @return decoded value, the number of bytes read is {@link #size(long)}
+     * @throws IllegalArgumentException if the varint is truncated, too long, or
+     *                                  not minimally encoded
+     */
+    public static long read(final ByteBuffer buffer, final int index) {
+
+        long value = 0;
+
+        for (int i = 0; i < MAX_LENGTH; i++) {
+
+            if (index + i >= buffer.limit()) {
+                throw new IllegalArgumentException("Invalid varint, unexpected end of input at " + (index + i) + ".");
+            }
+
+            final int b = buffer.get(index + i) & 0xFF;
+
+            value |= (long) (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                return check(value, b, i);
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint, exceeds " + MAX_LENGTH + " bytes.");
+    }
+
+    /**
+     * Writes the value starting at the given offset.
+     *
+     * @param value  a non-negative value
+     * @param data   target array (must not be {@code null})
+     * @param offset the index of the first byte to write
+     * @return the number of bytes written
+     * @throws IllegalArgumentException  if the value is negative
+     * @throws IndexOutOfBoundsException if the array is too small
+     */
+    public static int write(long value, final byte[] data, final int offset) {
+
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid varint value " + value + ", must be non-negative.");
+        }
+
+        int position = offset;
+
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+
+        return position - offset;
+    }
+
+    /**
+     * Returns the encoded length of the given value.
+     *
+     * @param value a non-negative value
+     * @return the number of bytes, {@code 1} to {@value #MAX_LENGTH}
+     */
+    public static int size(final long value) {
+        return value == 0
+                ? 1
+                : (63 - Long.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+
+    static final long check(final long value, final int last, final int index) {
+        // a trailing zero byte is a redundant, non-minimal, encoding
+        if (last == 0 && index > 0) {
+            throw new IllegalArgumentException("Invalid varint, not minimally encoded.");
+        }
+        return value;
+    }
+}
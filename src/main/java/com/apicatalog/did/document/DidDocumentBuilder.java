@@ -0,0 +1,222 @@
+package com.apicatalog.did.document;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+
+/**
+ * Builds immutable {@link DidDocument} instances.
+ *
+ * <pre>{@code
+ * DidDocument document = DidDocumentBuilder.with(did)
+ *         .verification(method)
+ *         .relationship(VerificationRelationship.Authentication, method)
+ *         .build();
+ * }</pre>
+ */
+public final class DidDocumentBuilder {
+
+    Did id;
+    final List<Did> controller;
+    final List<DidVerificationMethod> verification;
+    final List<URI> alsoKnownAs;
+    final Map<VerificationRelationship, List<DidVerificationMethod>> relationships;
+    final List<DidService> service;
+
+    DidDocumentBuilder(final Did id) {
+        this.id = id;
+        this.controller = new ArrayList<>();
+        this.verification = new ArrayList<>();
+        this.alsoKnownAs = new ArrayList<>();
+        this.relationships = new EnumMap<>(VerificationRelationship.class);
+        this.service = new ArrayList<>();
+    }
+
+    /**
+     * Starts a new document with the given {@code id}.
+     *
+     * @param id the DID subject (must not be {@code null})
+     * @return a new builder
+     * @throws NullPointerException if {@code id} is {@code null}
+     */
+    public static DidDocumentBuilder with(final Did id) {
+        Objects.requireNonNull(id);
+        return new DidDocumentBuilder(id);
+    }
+
+    /**
+     * Starts a new document initialized with all properties of the given
+     * document.
+     *
+     * @param document the document to copy (must not be {@code null})
+     * @return a new builder
+     * @throws NullPointerException if {@code document} is {@code null}
+     */
+    public static DidDocumentBuilder copyOf(final DidDocument document) {
+
+        Objects.requireNonNull(document);
+
+        final DidDocumentBuilder builder = new DidDocumentBuilder(document.id());
+
+        addAll(builder.controller, document.controller());
+        addAll(builder.verification, document.verification());
+        addAll(builder.alsoKnownAs, document.alsoKnownAs());
+        addAll(builder.service, document.service());
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            final Collection<DidVerificationMethod> methods = relationship.of(document);
+            if (!methods.isEmpty()) {
+                builder.relationships.put(relationship, new ArrayList<>(methods));
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Sets the {@code id} property.
+     *
+     * @param id the DID subject
+     * @return this builder
+     */
+    public DidDocumentBuilder id(final Did id) {
+        this.id = id;
+        return this;
+    }
+
+    /**
+     * Adds a {@code controller} value.
+     *
+     * @param controller controller DID
+     * @return this builder
+     */
+    public DidDocumentBuilder controller(final Did controller) {
+        this.controller.add(controller);
+        return this;
+    }
+
+    /**
+     * Adds a {@code verificationMethod} value.
+     *
+     * @param method verification method
+     * @return this builder
+     */
+    public DidDocumentBuilder verification(final DidVerificationMethod method) {
+        this.verification.add(method);
+        return this;
+    }
+
+    /**
+     * Adds an {@code alsoKnownAs} value.
+     *
+     * @param uri alternative identifier
+     * @return this builder
+     */
+    public DidDocumentBuilder alsoKnownAs(final URI uri) {
+        this.alsoKnownAs.add(uri);
+        return this;
+    }
+
+    /**
+     * Adds a method, embedded or referenced, to a verification relationship.
+     *
+     * @param relationship the verification relationship
+     * @param method       verification method
+     * @return this builder
+     */
+    public DidDocumentBuilder relationship(final VerificationRelationship relationship, final DidVerificationMethod method) {
+        this.relationships.computeIfAbsent(relationship, r -> new ArrayList<>()).add(method);
+        return this;
+    }
+
+    /**
+     * Adds a {@code service} value.
+     *
+     * @param service service entry
+     * @return this builder
+     */
+    public DidDocumentBuilder service(final DidService service) {
+        this.service.add(service);
+        return this;
+    }
+
+    /**
+     * Replaces all {@code verificationMethod} values.
+     *
+     * @param methods verification methods
+     * @return this builder
+     */
+    public DidDocumentBuilder verification(final Collection<DidVerificationMethod> methods) {
+        this.verification.clear();
+        addAll(this.verification, methods);
+        return this;
+    }
+
+    /**
+     * Replaces all methods of a verification relationship.
+     *
+     * @param relationship the verification relationship
+     * @param methods      verification methods
+     * @return this builder
+     */
+    public DidDocumentBuilder relationship(final VerificationRelationship relationship, final Collection<DidVerificationMethod> methods) {
+        this.relationships.remove(relationship);
+        if (methods != null && !methods.isEmpty()) {
+            this.relationships.put(relationship, new ArrayList<>(methods));
+        }
+        return this;
+    }
+
+    /**
+     * Replaces all {@code service} values.
+     *
+     * @param services service entries
+     * @return this builder
+     */
+    public DidDocumentBuilder service(final Collection<DidService> services) {
+        this.service.clear();
+        addAll(this.service, services);
+        return this;
+    }
+
+    /**
+     * Creates an immutable document. The builder can be reused afterwards.
+     *
+     * @return a new {@code DidDocument}
+     */
+    public DidDocument build() {
+        return new ImmutableDocument(
+                id,
+                copy(controller),
+                copy(verification),
+                copy(alsoKnownAs),
+                copy(relationships.get(VerificationRelationship.Authentication)),
+                copy(relationships.get(VerificationRelationship.AssertionMethod)),
+                copy(relationships.get(VerificationRelationship.KeyAgreement)),
+                copy(relationships.get(VerificationRelationship.CapabilityInvocation)),
+                copy(relationships.get(VerificationRelationship.CapabilityDelegation)),
+                copy(service));
+    }
+
+    static final <T> void addAll(final List<T> target, final Collection<T> values) {
+        if (values != null) {
+            target.addAll(values);
+        }
+    }
+
+    static final <T> Collection<T> copy(final List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        if (values.size() == 1) {
+            return Collections.singletonList(values.get(0));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
@@ -0,0 +1,360 @@
+package com.apicatalog.did.document;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+
+/**
+ * The difference between two versions of a {@link DidDocument}.
+ * <p>
+ * Reports added, removed, and changed verification methods and services,
+ * added, removed, and changed verification relationship references, and added
+ * and removed controllers. Verification methods, listed or referenced by a
+ * relationship, are matched by {@code id} and compared using
+ * {@link DidVerificationMethod#equals(DidVerificationMethod, DidVerificationMethod)},
+ * services are matched by {@code id} and compared using
+ * {@link DidService#equals(DidService, DidService)}.
+ * </p>
+ * <p>
+ * A diff is computed in a single pass over each document, in time linear in
+ * the document size, and lets derived state such as key caches and indexes be
+ * patched instead of rebuilt when a cached document is refreshed.
+ * </p>
+ */
+public final class DidDocumentDiff {
+
+    final List<DidVerificationMethod> addedMethods;
+    final List<DidVerificationMethod> removedMethods;
+    final List<DidVerificationMethod> changedMethods;
+
+    final Map<VerificationRelationship, Set<DidUrl>> addedReferences;
+    final Map<VerificationRelationship, Set<DidUrl>> removedReferences;
+    final Map<VerificationRelationship, List<DidVerificationMethod>> changedReferences;
+
+    final List<DidService> addedServices;
+    final List<DidService> removedServices;
+    final List<DidService> changedServices;
+
+    final Set<Did> addedControllers;
+    final Set<Did> removedControllers;
+
+    DidDocumentDiff(
+            final List<DidVerificationMethod> addedMethods,
+            final List<DidVerificationMethod> removedMethods,
+            final List<DidVerificationMethod> changedMethods,
+            final Map<VerificationRelationship, Set<DidUrl>> addedReferences,
+            final Map<VerificationRelationship, Set<DidUrl>> removedReferences,
+            final Map<VerificationRelationship, List<DidVerificationMethod>> changedReferences,
+            final List<DidService> addedServices,
+            final List<DidService> removedServices,
+            final List<DidService> changedServices,
+            final Set<Did> addedControllers,
+            final Set<Did> removedControllers) {
+        this.addedMethods = addedMethods;
+        this.removedMethods = removedMethods;
+        this.changedMethods = changedMethods;
+        this.addedReferences = addedReferences;
+        this.removedReferences = removedReferences;
+        this.changedReferences = changedReferences;
+        this.addedServices = addedServices;
+        this.removedServices = removedServices;
+        this.changedServices = changedServices;
+        this.addedControllers = addedControllers;
+        this.removedControllers = removedControllers;
+    }
+
+    /**
+     * Computes the difference between a source and a target document.
+     *
+     * @param source the previous version (must not be {@code null})
+     * @param target the current version (must not be {@code null})
+     * @return the difference, empty if both documents are equivalent
+     * @throws NullPointerException if {@code source} or {@code target} is
+     *                              {@code null}
+     */
+    public static DidDocumentDiff of(final DidDocument source, final DidDocument target) {
+
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(target);
+
+        final List<DidVerificationMethod> addedMethods = new ArrayList<>();
+        final List<DidVerificationMethod> removedMethods = new ArrayList<>();
+        final List<DidVerificationMethod> changedMethods = new ArrayList<>();
+
+        final Map<DidUrl, DidVerificationMethod> sourceMethods = methods(source.verification());
+
+        for (final DidVerificationMethod method : methods(target.verification()).values()) {
+            final DidVerificationMethod previous = sourceMethods.remove(method.id());
+            if (previous == null) {
+                addedMethods.add(method);
+
+            } else if (!DidVerificationMethod.equals(previous, method)) {
+                changedMethods.add(method);
+            }
+        }
+        removedMethods.addAll(sourceMethods.values());
+
+        final Map<VerificationRelationship, Set<DidUrl>> addedReferences = new EnumMap<>(VerificationRelationship.class);
+        final Map<VerificationRelationship, Set<DidUrl>> removedReferences = new EnumMap<>(VerificationRelationship.class);
+        final Map<VerificationRelationship, List<DidVerificationMethod>> changedReferences = new EnumMap<>(VerificationRelationship.class);
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+
+            final Map<DidUrl, DidVerificationMethod> sourceRefs = methods(relationship.of(source));
+            final Set<DidUrl> added = new LinkedHashSet<>();
+            final List<DidVerificationMethod> changed = new ArrayList<>();
+
+            for (final DidVerificationMethod method : methods(relationship.of(target)).values()) {
+                final DidVerificationMethod previous = sourceRefs.remove(method.id());
+                if (previous == null) {
+                    added.add(method.id());
+
+                } else if (!DidVerificationMethod.equals(previous, method)) {
+                    // e.g. an embedded method with new key material
+                    changed.add(method);
+                }
+            }
+            if (!added.isEmpty()) {
+                addedReferences.put(relationship, Collections.unmodifiableSet(added));
+            }
+            if (!sourceRefs.isEmpty()) {
+                removedReferences.put(relationship, Collections.unmodifiableSet(new LinkedHashSet<>(sourceRefs.keySet())));
+            }
+            if (!changed.isEmpty()) {
+                changedReferences.put(relationship, Collections.unmodifiableList(changed));
+            }
+        }
+
+        final List<DidService> addedServices = new ArrayList<>();
+        final List<DidService> removedServices = new ArrayList<>();
+        final List<DidService> changedServices = new ArrayList<>();
+
+        final Map<URI, DidService> sourceServices = services(source.service());
+
+        for (final DidService service : services(target.service()).values()) {
+            final DidService previous = sourceServices.remove(service.id());
+            if (previous == null) {
+                addedServices.add(service);
+
+            } else if (!DidService.equals(previous, service)) {
+                changedServices.add(service);
+            }
+        }
+        removedServices.addAll(sourceServices.values());
+
+        final Set<Did> removedControllers = controllers(source.controller());
+        final Set<Did> addedControllers = new LinkedHashSet<>();
+
+        for (final Did controller : controllers(target.controller())) {
+            if (!removedControllers.remove(controller)) {
+                addedControllers.add(controller);
+            }
+        }
+
+        return new DidDocumentDiff(
+                Collections.unmodifiableList(addedMethods),
+                Collections.unmodifiableList(removedMethods),
+                Collections.unmodifiableList(changedMethods),
+                Collections.unmodifiableMap(addedReferences),
+                Collections.unmodifiableMap(removedReferences),
+                Collections.unmodifiableMap(changedReferences),
+                Collections.unmodifiableList(addedServices),
+                Collections.unmodifiableList(removedServices),
+                Collections.unmodifiableList(changedServices),
+                Collections.unmodifiableSet(addedControllers),
+                Collections.unmodifiableSet(removedControllers));
+    }
+
+    /**
+     * Verification methods present only in the target document.
+     *
+     * @return added methods, possibly empty
+     */
+    public List<DidVerificationMethod> addedMethods() {
+        return addedMethods;
+    }
+
+    /**
+     * Verification methods present only in the source document.
+     *
+     * @return removed methods, possibly empty
+     */
+    public List<DidVerificationMethod> removedMethods() {
+        return removedMethods;
+    }
+
+    /**
+     * Verification methods present in both documents but not equal; the target
+     * versions are returned.
+     *
+     * @return changed methods, possibly empty
+     */
+    public List<DidVerificationMethod> changedMethods() {
+        return changedMethods;
+    }
+
+    /**
+     * Verification method ids newly referenced by the given relationship.
+     *
+     * @param relationship the verification relationship
+     * @return added references, possibly empty
+     */
+    public Set<DidUrl> addedReferences(final VerificationRelationship relationship) {
+        return addedReferences.getOrDefault(relationship, Collections.emptySet());
+    }
+
+    /**
+     * Verification method ids no longer referenced by the given relationship.
+     *
+     * @param relationship the verification relationship
+     * @return removed references, possibly empty
+     */
+    public Set<DidUrl> removedReferences(final VerificationRelationship relationship) {
+        return removedReferences.getOrDefault(relationship, Collections.emptySet());
+    }
+
+    /**
+     * Methods referenced by the given relationship in both documents under the
+     * same id but not equal, e.g. an embedded method whose key material
+     * changed; the target versions are returned.
+     *
+     * @param relationship the verification relationship
+     * @return changed references, possibly empty
+     */
+    public List<DidVerificationMethod> changedReferences(final VerificationRelationship relationship) {
+        return changedReferences.getOrDefault(relationship, Collections.emptyList());
+    }
+
+    /**
+     * Services present only in the target document.
+     *
+     * @return added services, possibly empty
+     */
+    public List<DidService> addedServices() {
+        return addedServices;
+    }
+
+    /**
+     * Services present only in the source document.
+     *
+     * @return removed services, possibly empty
+     */
+    public List<DidService> removedServices() {
+        return removedServices;
+    }
+
+    /**
+     * Services present in both documents but not equal; the target versions are
+     * returned.
+     *
+     * @return changed services, possibly empty
+     */
+    public List<DidService> changedServices() {
+        return changedServices;
+    }
+
+    /**
+     * Controllers present only in the target document.
+     *
+     * @return added controllers, possibly empty
+     */
+    public Set<Did> addedControllers() {
+        return addedControllers;
+    }
+
+    /**
+     * Controllers present only in the source document.
+     *
+     * @return removed controllers, possibly empty
+     */
+    public Set<Did> removedControllers() {
+        return removedControllers;
+    }
+
+    /**
+     * Indicates whether verification methods or relationships differ, i.e.
+     * whether derived key material must be updated.
+     *
+     * @return {@code true} if any method or relationship changed
+     */
+    public boolean hasMethodChanges() {
+        return !addedMethods.isEmpty()
+                || !removedMethods.isEmpty()
+                || !changedMethods.isEmpty()
+                || !addedReferences.isEmpty()
+                || !removedReferences.isEmpty()
+                || !changedReferences.isEmpty();
+    }
+
+    /**
+     * Indicates whether services differ.
+     *
+     * @return {@code true} if any service changed
+     */
+    public boolean hasServiceChanges() {
+        return !addedServices.isEmpty()
+                || !removedServices.isEmpty()
+                || !changedServices.isEmpty();
+    }
+
+    /**
+     * Indicates whether both documents are equivalent.
+     *
+     * @return {@code true} if there is no difference
+     */
+    public boolean isEmpty() {
+        return !hasMethodChanges()
+                && !hasServiceChanges()
+                && addedControllers.isEmpty()
+                && removedControllers.isEmpty();
+    }
+
+    static final Map<DidUrl, DidVerificationMethod> methods(final Collection<DidVerificationMethod> methods) {
+
+        if (methods == null || methods.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        final Map<DidUrl, DidVerificationMethod> map = new LinkedHashMap<>(methods.size() * 2);
+
+        for (final DidVerificationMethod method : methods) {
+            if (method != null && method.id() != null) {
+                map.putIfAbsent(method.id(), method);
+            }
+        }
+        return map;
+    }
+
+    static final Map<URI, DidService> services(final Collection<DidService> services) {
+
+        if (services == null || services.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        final Map<URI, DidService> map = new LinkedHashMap<>(services.size() * 2);
+
+        for (final DidService service : services) {
+            if (service != null && service.id() != null) {
+                map.putIfAbsent(service.id(), service);
+            }
+        }
+        return map;
+    }
+
+    static final Set<Did> controllers(final Collection<Did> controllers) {
+        return controllers != null
+                ? new LinkedHashSet<>(controllers)
+                : new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,363 @@
+package com.apicatalog.did.document;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.document.DidDocumentViolation.Code;
+
+/**
+ * Validates a whole {@link DidDocument} and reports every problem found rather
+ * than stopping at the first one.
+ * <p>
+ * Checks that the document has an {@code id}, controllers are valid DIDs
+ * rather than DID URLs, verification methods and services have their required
+ * properties, method and service ids are unique across both, and every
+ * verification relationship entry either references a listed verification
+ * method or embeds a complete one. An embedded method may repeat a method id
+ * only if it is equal to the method first seen under that id.
+ * </p>
+ * <p>
+ * Verification methods, relationship entries, and services are checked in
+ * chunks of {@code threshold} items; collections larger than that are split
+ * across a {@link ForkJoinPool}. Violations are reported in document order
+ * regardless of how the work was split.
+ * </p>
+ *
+ * <pre>{@code
+ * List<DidDocumentViolation> violations = DidDocumentValidator.getInstance().validate(document);
+ * }</pre>
+ */
+public final class DidDocumentValidator {
+
+    /** The default number of items checked by a single task. */
+    public static final int DEFAULT_THRESHOLD = 512;
+
+    static final DidDocumentValidator INSTANCE = new DidDocumentValidator(null, DEFAULT_THRESHOLD);
+
+    /** {@code null} means the common pool */
+    final ForkJoinPool pool;
+    final int threshold;
+
+    DidDocumentValidator(final ForkJoinPool pool, final int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns a shared validator using the common {@link ForkJoinPool} and
+     * {@value #DEFAULT_THRESHOLD} items threshold.
+     *
+     * @return the validator
+     */
+    public static DidDocumentValidator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a validator.
+     *
+     * @param pool      the pool to run parallel checks on (must not be
+     *                  {@code null})
+     * @param threshold the number of items checked by a single task, collections
+     *                  not larger than that are checked on the calling thread
+     * @return a new validator
+     */
+    public static DidDocumentValidator of(final ForkJoinPool pool, final int threshold) {
+        Objects.requireNonNull(pool);
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive but got " + threshold + ".");
+        }
+        return new DidDocumentValidator(pool, threshold);
+    }
+
+    /**
+     * Checks whether the given document has no violations.
+     *
+     * @param document the document to validate (must not be {@code null})
+     * @return {@code true} if valid
+     */
+    public boolean isValid(final DidDocument document) {
+        return validate(document).isEmpty();
+    }
+
+    /**
+     * Validates the given document.
+     *
+     * @param document the document to validate (must not be {@code null})
+     * @return all violations in document order, empty if the document is valid
+     */
+    public List<DidDocumentViolation> validate(final DidDocument document) {
+
+        Objects.requireNonNull(document);
+
+        final List<DidDocumentViolation> violations = new ArrayList<>();
+
+        if (document.id() == null) {
+            violations.add(new DidDocumentViolation(Code.MissingId, "id", "The document has no id."));
+        }
+
+        int index = 0;
+        for (final Did controller : nonNull(document.controller())) {
+            if (!isValid(controller)) {
+                violations.add(new DidDocumentViolation(Code.InvalidController, "controller[" + index + "]", "Invalid controller [" + controller + "]."));
+            }
+            index++;
+        }
+
+        final DidVerificationMethod[] methods = nonNull(document.verification()).toArray(new DidVerificationMethod[0]);
+
+        // the first occurrence of each method id, duplicates are reported
+        final Map<DidUrl, Integer> ids = new HashMap<>(methods.length * 2);
+
+        for (int i = 0; i < methods.length; i++) {
+            if (methods[i] != null && methods[i].id() != null) {
+                final Integer first = ids.putIfAbsent(methods[i].id(), i);
+                if (first != null) {
+                    violations.add(new DidDocumentViolation(Code.DuplicateId, "verificationMethod[" + i + "]",
+                            "Duplicate verification method id [" + methods[i].id() + "], first at verificationMethod[" + first + "]."));
+                }
+            }
+        }
+
+        violations.addAll(run(methods.length, (i, out) -> {
+            final String problem = problem(methods[i]);
+            if (problem != null) {
+                out.add(new DidDocumentViolation(Code.InvalidMethod, "verificationMethod[" + i + "]", problem));
+            }
+        }));
+
+        final List<Reference> references = new ArrayList<>();
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            index = 0;
+            for (final DidVerificationMethod method : relationship.of(document)) {
+                references.add(new Reference(relationship, index++, method));
+            }
+        }
+
+        // embedded methods by id, an id must not be reused with other content
+        final Map<DidUrl, Reference> embedded = new HashMap<>();
+
+        for (final Reference reference : references) {
+
+            if (reference.method == null || reference.method.id() == null || isReference(reference.method)) {
+                continue;
+            }
+
+            final Integer listed = ids.get(reference.method.id());
+
+            if (listed != null) {
+                if (!DidVerificationMethod.equals(methods[listed], reference.method)) {
+                    violations.add(new DidDocumentViolation(Code.DuplicateId, reference.path(),
+                            "Duplicate verification method id [" + reference.method.id() + "] with other content, first at verificationMethod[" + listed + "]."));
+                }
+                continue;
+            }
+
+            final Reference first = embedded.putIfAbsent(reference.method.id(), reference);
+
+            if (first != null && !DidVerificationMethod.equals(first.method, reference.method)) {
+                violations.add(new DidDocumentViolation(Code.DuplicateId, reference.path(),
+                        "Duplicate verification method id [" + reference.method.id() + "] with other content, first at " + first.path() + "."));
+            }
+        }
+
+        violations.addAll(run(references.size(), (i, out) -> {
+
+            final Reference reference = references.get(i);
+
+            // a reference to a listed method
+            if (reference.method != null && reference.method.id() != null && ids.containsKey(reference.method.id())) {
+                return;
+            }
+
+            // an embedded method
+            final String problem = problem(reference.method);
+
+            if (problem != null) {
+                out.add(new DidDocumentViolation(
+                        Code.UnresolvedReference,
+                        reference.path(),
+                        "Neither references a verification method nor embeds a valid one. " + problem));
+            }
+        }));
+
+        final DidService[] services = nonNull(document.service()).toArray(new DidService[0]);
+
+        final Set<URI> serviceIds = new HashSet<>(services.length * 2);
+
+        Set<URI> methodIds = null;
+
+        for (int i = 0; i < services.length; i++) {
+
+            if (services[i] == null || services[i].id() == null) {
+                continue;
+            }
+
+            if (!serviceIds.add(services[i].id())) {
+                violations.add(new DidDocumentViolation(Code.DuplicateId, "service[" + i + "]", "Duplicate service id [" + services[i].id() + "]."));
+                continue;
+            }
+
+            if (methodIds == null) {
+                methodIds = new HashSet<>((ids.size() + embedded.size()) * 2);
+                for (final DidUrl id : ids.keySet()) {
+                    methodIds.add(id.toUri());
+                }
+                for (final DidUrl id : embedded.keySet()) {
+                    methodIds.add(id.toUri());
+                }
+            }
+
+            if (methodIds.contains(services[i].id())) {
+                violations.add(new DidDocumentViolation(Code.DuplicateId, "service[" + i + "]", "Service id [" + services[i].id() + "] is a verification method id."));
+            }
+        }
+
+        violations.addAll(run(services.length, (i, out) -> {
+            if (services[i] == null || !services[i].hasRequiredProperties()) {
+                out.add(new DidDocumentViolation(Code.InvalidService, "service[" + i + "]", "A service must have an id, a type, and at least one endpoint."));
+            }
+        }));
+
+        return violations;
+    }
+
+    List<DidDocumentViolation> run(final int size, final Check check) {
+
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        if (size <= threshold) {
+            final List<DidDocumentViolation> violations = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                check.check(i, violations);
+            }
+            return violations;
+        }
+
+        final CheckTask task = new CheckTask(check, 0, size, threshold);
+
+        return pool != null
+                ? pool.invoke(task)
+                : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Returns a description of what is wrong with the given method, or
+     * {@code null} if it is valid.
+     */
+    static final String problem(final DidVerificationMethod method) {
+
+        if (method == null) {
+            return "A verification method is null.";
+        }
+        if (!method.hasRequiredProperties()) {
+            return "A verification method must have an id, a type, and a controller.";
+        }
+        if (!isValid(method.controller())) {
+            return "Invalid verification method controller [" + method.controller() + "].";
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the relationship entry only references a method by its id.
+     */
+    static final boolean isReference(final DidVerificationMethod method) {
+        return method.type() == null
+                && method.controller() == null
+                && method.publicKeyMultibase() == null
+                && method.publicKeyJwk() == null;
+    }
+
+    static final boolean isValid(final Did did) {
+        return did != null
+                && !did.isDidUrl()
+                && Did.isValidMethodName(did.getMethod())
+                && Did.isValidMethodSpecificId(did.getMethodSpecificId());
+    }
+
+    static final <T> Collection<T> nonNull(final Collection<T> collection) {
+        return collection != null ? collection : Collections.emptySet();
+    }
+
+    @FunctionalInterface
+    interface Check {
+
+        void check(int index, List<DidDocumentViolation> violations);
+    }
+
+    static final class Reference {
+
+        final VerificationRelationship relationship;
+        final int index;
+        final DidVerificationMethod method;
+
+        Reference(final VerificationRelationship relationship, final int index, final DidVerificationMethod method) {
+            this.relationship = relationship;
+            this.index = index;
+            this.method = method;
+        }
+
+        String path() {
+            return relationship.term() + "[" + index + "]";
+        }
+    }
+
+    static final class CheckTask extends RecursiveTask<List<DidDocumentViolation>> {
+
+        private static final long serialVersionUID = 1L;
+
+        final transient Check check;
+        final int from;
+        final int to;
+        final int threshold;
+
+        CheckTask(final Check check, final int from, final int to, final int threshold) {
+            this.check = check;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected List<DidDocumentViolation> compute() {
+
+            if (to - from <= threshold) {
+                final List<DidDocumentViolation> violations = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    check.check(i, violations);
+                }
+                return violations;
+            }
+
+            final int middle = (from + to) >>> 1;
+
+            final CheckTask left = new CheckTask(check, from, middle, threshold);
+            left.fork();
+
+            final List<DidDocumentViolation> right = new CheckTask(check, middle, to, threshold).compute();
+            final List<DidDocumentViolation> violations = left.join();
+
+            if (violations.isEmpty()) {
+                return right;
+            }
+            violations.addAll(right);
+            return violations;
+        }
+    }
+}
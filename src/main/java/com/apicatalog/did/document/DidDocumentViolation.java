@@ -0,0 +1,101 @@
+package com.apicatalog.did.document;
+
+import java.util.Objects;
+
+/**
+ * A single problem found by {@link DidDocumentValidator}.
+ */
+public final class DidDocumentViolation {
+
+    /**
+     * Violation codes.
+     */
+    public enum Code {
+        /** The document has no {@code id}. */
+        MissingId,
+
+        /** A controller is missing or is not a valid DID, e.g. a DID URL. */
+        InvalidController,
+
+        /**
+         * A verification method lacks {@code id}, {@code type}, or
+         * {@code controller}, or its controller is not a valid DID.
+         */
+        InvalidMethod,
+
+        /**
+         * A verification relationship entry neither references a listed
+         * verification method nor embeds a complete one.
+         */
+        UnresolvedReference,
+
+        /** A service lacks {@code id}, {@code type}, or an endpoint. */
+        InvalidService,
+
+        /**
+         * A verification method or a service id is not unique, or a method id is
+         * reused by an embedded method with other content.
+         */
+        DuplicateId,
+    }
+
+    final Code code;
+    final String path;
+    final String message;
+
+    DidDocumentViolation(final Code code, final String path, final String message) {
+        this.code = code;
+        this.path = path;
+        this.message = message;
+    }
+
+    /**
+     * Returns the violation code.
+     *
+     * @return the code
+     */
+    public Code code() {
+        return code;
+    }
+
+    /**
+     * Returns the location of the offending value, e.g.
+     * {@code verificationMethod[3]} or {@code authentication[0]}.
+     *
+     * @return the property path
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Returns a human readable description.
+     *
+     * @return the message
+     */
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(code, path, message);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final DidDocumentViolation other = (DidDocumentViolation) obj;
+        return code == other.code && Objects.equals(path, other.path) && Objects.equals(message, other.message);
+    }
+
+    @Override
+    public String toString() {
+        return code + " at " + path + ": " + message;
+    }
+}
@@ -3,6 +3,9 @@ package com.apicatalog.did.document;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * A <a href="https://www.w3.org/TR/did-core/#services">DID Document
@@ -46,6 +49,39 @@ public interface DidService {
         return id() != null && type() != null && endpoint() != null && !endpoint().isEmpty();
     }
 
+    /**
+     * Compares two services for equality of {@code id}, {@code type} values, and
+     * {@code serviceEndpoint} ids, regardless of collection order.
+     *
+     * @param service1 first service (may be {@code null})
+     * @param service2 second service (may be {@code null})
+     * @return {@code true} if both are equal
+     */
+    static boolean equals(final DidService service1, final DidService service2) {
+        if (service1 == null || service2 == null) {
+            return service1 == service2;
+        }
+        if (!Objects.equals(service1.id(), service2.id())) {
+            return false;
+        }
+        if (service1.type() == null || service2.type() == null) {
+            if (service1.type() != service2.type()) {
+                return false;
+            }
+        } else if (!new HashSet<>(service1.type()).equals(new HashSet<>(service2.type()))) {
+            return false;
+        }
+        if (service1.endpoint() == null || service2.endpoint() == null) {
+            return service1.endpoint() == service2.endpoint();
+        }
+        return service1.endpoint().stream()
+                .map(endpoint -> endpoint != null ? endpoint.id() : null)
+                .collect(Collectors.toSet())
+                .equals(service2.endpoint().stream()
+                        .map(endpoint -> endpoint != null ? endpoint.id() : null)
+                        .collect(Collectors.toSet()));
+    }
+
     /**
      * Creates a {@code DidService} with a single type and a single endpoint.
      *
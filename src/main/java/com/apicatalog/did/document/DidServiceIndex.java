@@ -0,0 +1,265 @@
+package com.apicatalog.did.document;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable, indexed view of the {@code service} entries of a
+ * {@link DidDocument}.
+ * <p>
+ * The index maps each service {@code type} to the services declaring it, and
+ * each service {@code id} fragment to its service. It is built once, typically
+ * alongside a cached document, and then answers lookups without scanning
+ * {@link DidDocument#service()} and {@link DidService#type()} collections.
+ * </p>
+ * <p>
+ * Well-known type keys share canonical instances, other types are kept as
+ * declared so untrusted documents cannot grow any global table. Endpoint
+ * collections are exposed as read-only views of the underlying
+ * {@link DidService#endpoint()} values; nothing is copied on lookup.
+ * </p>
+ */
+public final class DidServiceIndex {
+
+    /**
+     * Canonical instances of well-known service types, a fixed set which never
+     * grows with indexed documents.
+     */
+    static final Map<String, String> TYPES = new HashMap<>();
+
+    static {
+        for (final String type : new String[] {
+                "LinkedDomains",
+                "DIDCommMessaging",
+                "LinkedVerifiablePresentation",
+                "DecentralizedWebNode",
+        }) {
+            TYPES.put(type, type);
+        }
+    }
+
+    static final DidServiceIndex EMPTY = new DidServiceIndex(
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            false);
+
+    final Map<String, List<DidService>> byType;
+    final Map<String, Collection<DidServiceEndpoint>> endpointsByType;
+    final Map<String, DidService> byFragment;
+
+    /** services without an id, invisible to {@link DidDocumentDiff}, are indexed */
+    final boolean anonymous;
+
+    DidServiceIndex(
+            final Map<String, List<DidService>> byType,
+            final Map<String, Collection<DidServiceEndpoint>> endpointsByType,
+            final Map<String, DidService> byFragment,
+            final boolean anonymous) {
+        this.byType = byType;
+        this.endpointsByType = endpointsByType;
+        this.byFragment = byFragment;
+        this.anonymous = anonymous;
+    }
+
+    /**
+     * Builds an index over the services of the given document.
+     * <p>
+     * Services without an {@code id} are indexed by type only, services without
+     * a {@code type} by fragment only. If several services share the same
+     * fragment, the first one wins.
+     * </p>
+     *
+     * @param document the document to index (must not be {@code null})
+     * @return a new index, never {@code null}
+     * @throws NullPointerException if {@code document} is {@code null}
+     */
+    public static DidServiceIndex of(final DidDocument document) {
+        Objects.requireNonNull(document);
+        return of(document.service());
+    }
+
+    /**
+     * Builds an index over the given services.
+     *
+     * @param services the services to index, may be {@code null} or empty
+     * @return a new index, never {@code null}
+     */
+    public static DidServiceIndex of(final Collection<DidService> services) {
+
+        if (services == null || services.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Map<String, List<DidService>> byType = new HashMap<>();
+        final Map<String, DidService> byFragment = new HashMap<>();
+
+        boolean anonymous = false;
+
+        for (final DidService service : services) {
+
+            if (service == null) {
+                continue;
+            }
+
+            final URI id = service.id();
+
+            anonymous |= id == null;
+
+            if (id != null && id.getRawFragment() != null) {
+                byFragment.putIfAbsent(id.getRawFragment(), service);
+            }
+
+            if (service.type() == null) {
+                continue;
+            }
+
+            for (final String type : service.type()) {
+                if (type != null) {
+                    byType.computeIfAbsent(canonical(type), k -> new ArrayList<>(1)).add(service);
+                }
+            }
+        }
+
+        final Map<String, Collection<DidServiceEndpoint>> endpointsByType = new HashMap<>(byType.size());
+
+        for (final Map.Entry<String, List<DidService>> entry : byType.entrySet()) {
+            entry.setValue(entry.getValue().size() == 1
+                    ? Collections.singletonList(entry.getValue().get(0))
+                    : Collections.unmodifiableList(entry.getValue()));
+            endpointsByType.put(entry.getKey(), endpoints(entry.getValue()));
+        }
+
+        return new DidServiceIndex(
+                Collections.unmodifiableMap(byType),
+                Collections.unmodifiableMap(endpointsByType),
+                Collections.unmodifiableMap(byFragment),
+                anonymous);
+    }
+
+    /**
+     * Returns an index for the refreshed document. This instance is reused as is
+     * when the diff reports no service changes and neither document has services
+     * without an id, which the diff does not compare.
+     *
+     * @param diff   the difference between the indexed and the refreshed
+     *               document (must not be {@code null})
+     * @param target the refreshed document (must not be {@code null})
+     * @return an index for {@code target}
+     * @throws NullPointerException if {@code diff} or {@code target} is
+     *                              {@code null}
+     */
+    public DidServiceIndex patch(final DidDocumentDiff diff, final DidDocument target) {
+        Objects.requireNonNull(diff);
+        Objects.requireNonNull(target);
+        return diff.hasServiceChanges() || anonymous || hasAnonymous(target)
+                ? of(target)
+                : this;
+    }
+
+    static final boolean hasAnonymous(final DidDocument document) {
+        if (document.service() != null) {
+            for (final DidService service : document.service()) {
+                if (service != null && service.id() == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the services declaring the given {@code type}, in document order.
+     *
+     * @param type service type, e.g. {@code DIDCommMessaging}
+     * @return read-only services, possibly empty
+     */
+    public List<DidService> type(final String type) {
+        return byType.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * Returns the first service declaring the given {@code type}.
+     *
+     * @param type service type, e.g. {@code LinkedDomains}
+     * @return the service, or {@code null} if there is none
+     */
+    public DidService first(final String type) {
+        final List<DidService> services = byType.get(type);
+        return services != null ? services.get(0) : null;
+    }
+
+    /**
+     * Returns the endpoints of all services declaring the given {@code type}.
+     * <p>
+     * When a single service declares the type, its {@link DidService#endpoint()}
+     * collection is returned as a read-only view.
+     * </p>
+     *
+     * @param type service type
+     * @return read-only endpoints, possibly empty
+     */
+    public Collection<DidServiceEndpoint> endpoints(final String type) {
+        return endpointsByType.getOrDefault(type, Collections.emptySet());
+    }
+
+    /**
+     * Returns the service whose {@code id} has the given raw (pct-encoded)
+     * fragment.
+     *
+     * @param fragment the fragment, without a leading {@code '#'}
+     * @return the service, or {@code null} if there is none
+     */
+    public DidService fragment(final String fragment) {
+        return byFragment.get(fragment);
+    }
+
+    /**
+     * Returns all indexed service types.
+     *
+     * @return read-only set of types, possibly empty
+     */
+    public Set<String> types() {
+        return byType.keySet();
+    }
+
+    /**
+     * Indicates whether the index contains no services.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return byType.isEmpty() && byFragment.isEmpty();
+    }
+
+    static final String canonical(final String type) {
+        final String known = TYPES.get(type);
+        return known != null ? known : type;
+    }
+
+    static final Collection<DidServiceEndpoint> endpoints(final List<DidService> services) {
+
+        if (services.size() == 1) {
+            final Collection<DidServiceEndpoint> endpoint = services.get(0).endpoint();
+            return endpoint != null
+                    ? Collections.unmodifiableCollection(endpoint)
+                    : Collections.emptySet();
+        }
+
+        final List<DidServiceEndpoint> endpoints = new ArrayList<>();
+
+        for (final DidService service : services) {
+            if (service.endpoint() != null) {
+                endpoints.addAll(service.endpoint());
+            }
+        }
+        return Collections.unmodifiableList(endpoints);
+    }
+}
@@ -0,0 +1,93 @@
+package com.apicatalog.did.document;
+
+import java.net.URI;
+import java.util.Collection;
+
+import com.apicatalog.did.Did;
+
+final class ImmutableDocument implements DidDocument {
+
+    final Did id;
+    final Collection<Did> controller;
+    final Collection<DidVerificationMethod> verification;
+    final Collection<URI> alsoKnownAs;
+    final Collection<DidVerificationMethod> authentication;
+    final Collection<DidVerificationMethod> assertion;
+    final Collection<DidVerificationMethod> keyAgreement;
+    final Collection<DidVerificationMethod> capabilityInvocation;
+    final Collection<DidVerificationMethod> capabilityDelegation;
+    final Collection<DidService> service;
+
+    ImmutableDocument(
+            final Did id,
+            final Collection<Did> controller,
+            final Collection<DidVerificationMethod> verification,
+            final Collection<URI> alsoKnownAs,
+            final Collection<DidVerificationMethod> authentication,
+            final Collection<DidVerificationMethod> assertion,
+            final Collection<DidVerificationMethod> keyAgreement,
+            final Collection<DidVerificationMethod> capabilityInvocation,
+            final Collection<DidVerificationMethod> capabilityDelegation,
+            final Collection<DidService> service) {
+        this.id = id;
+        this.controller = controller;
+        this.verification = verification;
+        this.alsoKnownAs = alsoKnownAs;
+        this.authentication = authentication;
+        this.assertion = assertion;
+        this.keyAgreement = keyAgreement;
+        this.capabilityInvocation = capabilityInvocation;
+        this.capabilityDelegation = capabilityDelegation;
+        this.service = service;
+    }
+
+    @Override
+    public Did id() {
+        return id;
+    }
+
+    @Override
+    public Collection<Did> controller() {
+        return controller;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> verification() {
+        return verification;
+    }
+
+    @Override
+    public Collection<URI> alsoKnownAs() {
+        return alsoKnownAs;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> authentication() {
+        return authentication;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> assertion() {
+        return assertion;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> keyAgreement() {
+        return keyAgreement;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> capabilityInvocation() {
+        return capabilityInvocation;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> capabilityDelegation() {
+        return capabilityDelegation;
+    }
+
+    @Override
+    public Collection<DidService> service() {
+        return service;
+    }
+}
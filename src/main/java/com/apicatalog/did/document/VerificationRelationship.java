@@ -0,0 +1,77 @@
+package com.apicatalog.did.document;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A <a href="https://www.w3.org/TR/did-core/#verification-relationships">verification
+ * relationship</a> between a DID subject and its verification methods.
+ */
+public enum VerificationRelationship {
+
+    /** The {@code authentication} relationship. */
+    Authentication("authentication", DidDocument::authentication),
+
+    /** The {@code assertionMethod} relationship. */
+    AssertionMethod("assertionMethod", DidDocument::assertion),
+
+    /** The {@code keyAgreement} relationship. */
+    KeyAgreement("keyAgreement", DidDocument::keyAgreement),
+
+    /** The {@code capabilityInvocation} relationship. */
+    CapabilityInvocation("capabilityInvocation", DidDocument::capabilityInvocation),
+
+    /** The {@code capabilityDelegation} relationship. */
+    CapabilityDelegation("capabilityDelegation", DidDocument::capabilityDelegation),
+    ;
+
+    final String term;
+    final Function<DidDocument, Collection<DidVerificationMethod>> accessor;
+
+    VerificationRelationship(
+            final String term,
+            final Function<DidDocument, Collection<DidVerificationMethod>> accessor) {
+        this.term = term;
+        this.accessor = accessor;
+    }
+
+    /**
+     * Returns the DID document property name, e.g. {@code assertionMethod}.
+     *
+     * @return property name
+     */
+    public String term() {
+        return term;
+    }
+
+    /**
+     * Returns the verification methods the given document lists under this
+     * relationship.
+     *
+     * @param document the DID document (must not be {@code null})
+     * @return verification methods, never {@code null}
+     * @throws NullPointerException if {@code document} is {@code null}
+     */
+    public Collection<DidVerificationMethod> of(final DidDocument document) {
+        Objects.requireNonNull(document);
+        final Collection<DidVerificationMethod> methods = accessor.apply(document);
+        return methods != null ? methods : Collections.emptySet();
+    }
+
+    /**
+     * Returns the relationship with the given DID document property name.
+     *
+     * @param term property name, e.g. {@code keyAgreement}
+     * @return the relationship, or {@code null} if the term is unknown
+     */
+    public static VerificationRelationship of(final String term) {
+        for (final VerificationRelationship relationship : values()) {
+            if (relationship.term.equals(term)) {
+                return relationship;
+            }
+        }
+        return null;
+    }
+}
@@ -7,7 +7,10 @@
  * ({@link com.apicatalog.did.document.DidDocument}), services
  * ({@link com.apicatalog.did.document.DidService},
  * {@link com.apicatalog.did.document.DidServiceEndpoint}), and verification
- * methods ({@link com.apicatalog.did.document.DidVerificationMethod}).
+ * methods ({@link com.apicatalog.did.document.DidVerificationMethod}), as
+ * well as an indexed service view
+ * ({@link com.apicatalog.did.document.DidServiceIndex}) and a whole document
+ * validator ({@link com.apicatalog.did.document.DidDocumentValidator}).
  * </p>
  */
 package com.apicatalog.did.document;
\ No newline at end of file
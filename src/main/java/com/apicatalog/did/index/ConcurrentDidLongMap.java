@@ -0,0 +1,157 @@
+package com.apicatalog.did.index;
+
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+import com.apicatalog.did.Did;
+
+/**
+ * A thread-safe map of {@link Did} keys to primitive {@code long} values, e.g.
+ * per-DID counters or rate limit buckets.
+ * <p>
+ * Keys are partitioned by hash code into stripes, each a {@link DidLongMap}
+ * guarded by its own lock, so threads updating different DIDs rarely contend.
+ * Single-key operations, including {@link #addAndGet(Did, long)}, are atomic.
+ * {@link #size()} and {@link #forEach(ObjLongConsumer)} visit stripes one at a
+ * time and are not a snapshot of the whole map.
+ * </p>
+ */
+public final class ConcurrentDidLongMap {
+
+    final DidLongMap[] stripes;
+    final int shift;
+
+    public ConcurrentDidLongMap() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a map.
+     *
+     * @param concurrency the expected number of concurrently updating threads,
+     *                    rounded up to a power of two stripes
+     */
+    public ConcurrentDidLongMap(final int concurrency) {
+
+        if (concurrency <= 0 || concurrency > 1 << 16) {
+            throw new IllegalArgumentException("The concurrency must be between 1 and 65536 but got " + concurrency + ".");
+        }
+
+        final int count = concurrency == 1 ? 1 : Integer.highestOneBit(concurrency - 1) << 1;
+
+        this.stripes = new DidLongMap[count];
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new DidLongMap();
+        }
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key          the key (must not be {@code null})
+     * @param defaultValue returned if the key is absent
+     * @return the value, or {@code defaultValue}
+     */
+    public long getOrDefault(final Did key, final long defaultValue) {
+        final DidLongMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.getOrDefault(key, defaultValue);
+        }
+    }
+
+    public boolean containsKey(final Did key) {
+        final DidLongMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.containsKey(key);
+        }
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param value the value
+     * @return {@code true} if the key was absent
+     */
+    public boolean put(final Did key, final long value) {
+        final DidLongMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Atomically adds the delta to the value associated with the key, an
+     * absent key has the value {@code 0}.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param delta the value to add
+     * @return the updated value
+     */
+    public long addAndGet(final Did key, final long delta) {
+        final DidLongMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.addAndGet(key, delta);
+        }
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @param key the key (must not be {@code null})
+     * @return {@code true} if the key was present
+     */
+    public boolean remove(final Did key) {
+        final DidLongMap stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (final DidLongMap stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (final DidLongMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Calls the action for each entry, in no particular order, holding the lock
+     * of one stripe at a time.
+     *
+     * @param action the action, must not access this map (must not be
+     *               {@code null})
+     */
+    public void forEach(final ObjLongConsumer<Did> action) {
+        Objects.requireNonNull(action);
+        for (final DidLongMap stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(action);
+            }
+        }
+    }
+
+    DidLongMap stripe(final Did key) {
+        // high bits select a stripe, low bits a slot within it
+        return stripes.length == 1
+                ? stripes[0]
+                : stripes[DidLongMap.spread(key.hashCode()) >>> shift];
+    }
+}
@@ -0,0 +1,120 @@
+package com.apicatalog.did.index;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.resolver.DidDocumentMetadata;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+
+/**
+ * A swappable deny list of DIDs, e.g. deactivated or revoked issuers, backed by
+ * an off-heap {@link DidSet}.
+ * <p>
+ * Checks are lock-free and see either the previous or the next set while it is
+ * being replaced. DID URLs, e.g. verification method ids, are checked by their
+ * bare DID.
+ * </p>
+ *
+ * <pre>{@code
+ * DidDenyList denied = DidDenyList.load(path);
+ *
+ * if (denied.contains(issuer)) { ... }
+ *
+ * // periodically
+ * denied.replace(DidSet.of(feed));
+ * }</pre>
+ */
+public final class DidDenyList {
+
+    volatile DidSet set;
+
+    DidDenyList(final DidSet set) {
+        this.set = set;
+    }
+
+    /**
+     * Creates an empty deny list.
+     *
+     * @return a new deny list
+     */
+    public static DidDenyList empty() {
+        return new DidDenyList(DidSet.EMPTY);
+    }
+
+    /**
+     * Creates a deny list backed by the given set.
+     *
+     * @param set denied DIDs (must not be {@code null})
+     * @return a new deny list
+     */
+    public static DidDenyList of(final DidSet set) {
+        return new DidDenyList(Objects.requireNonNull(set));
+    }
+
+    /**
+     * Creates a deny list backed by a memory-mapped set, see
+     * {@link DidSet#load(Path)}.
+     *
+     * @param path a file written by {@link DidSet#writeTo(Path)} (must not be
+     *             {@code null})
+     * @return a new deny list
+     * @throws IOException if the file cannot be mapped
+     */
+    public static DidDenyList load(final Path path) throws IOException {
+        return new DidDenyList(DidSet.load(path));
+    }
+
+    /**
+     * Checks whether the DID, or the bare DID of a DID URL, is denied.
+     *
+     * @param did the DID to check (must not be {@code null})
+     * @return {@code true} if denied
+     */
+    public boolean contains(final Did did) {
+        Objects.requireNonNull(did);
+        return set.contains(did.isDidUrl() ? did.asDidUrl().toDid() : did);
+    }
+
+    /**
+     * Checks whether a resolved document is deactivated, see
+     * {@link DidDocumentMetadata#deactivated()}, or its DID is denied.
+     *
+     * @param resolved the resolved document (must not be {@code null})
+     * @return {@code true} if deactivated or denied
+     */
+    public boolean isDenied(final ResolvedDidDocument resolved) {
+
+        Objects.requireNonNull(resolved);
+
+        if (resolved.metadata() != null && resolved.metadata().deactivated()) {
+            return true;
+        }
+        return resolved.document() != null
+                && resolved.document().id() != null
+                && contains(resolved.document().id());
+    }
+
+    /**
+     * Replaces the set, e.g. with one rebuilt from an updated feed.
+     *
+     * @param next the new set (must not be {@code null})
+     * @return the previous set
+     */
+    public synchronized DidSet replace(final DidSet next) {
+        Objects.requireNonNull(next);
+        final DidSet previous = set;
+        set = next;
+        return previous;
+    }
+
+    /**
+     * Returns the current set.
+     *
+     * @return the set
+     */
+    public DidSet set() {
+        return set;
+    }
+}
@@ -0,0 +1,249 @@
+package com.apicatalog.did.index;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+import com.apicatalog.did.Did;
+
+/**
+ * An open-addressing map of {@link Did} keys to primitive {@code long} values,
+ * e.g. per-DID counters.
+ * <p>
+ * Entries live in three parallel arrays, keys, their hash codes, and values,
+ * so there is no node or boxed value per entry. Keys are hashed once by the
+ * cached {@link Did#hashCode()}, and stored hash codes are compared before
+ * keys. Lookups do not allocate.
+ * </p>
+ * <p>
+ * Not thread-safe, see {@link ConcurrentDidLongMap}.
+ * </p>
+ */
+public final class DidLongMap {
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    /** The maximum load factor is 3/4. */
+    static final int LOAD_NUMERATOR = 3;
+    static final int LOAD_DENOMINATOR = 4;
+
+    Did[] keys;
+    int[] hashes;
+    long[] values;
+
+    int size;
+
+    public DidLongMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a map holding the given number of entries without resizing.
+     *
+     * @param expectedSize a non-negative number of entries
+     */
+    public DidLongMap(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size must be non-negative but got " + expectedSize + ".");
+        }
+        allocate(capacity(expectedSize));
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key          the key (must not be {@code null})
+     * @param defaultValue returned if the key is absent
+     * @return the value, or {@code defaultValue}
+     */
+    public long getOrDefault(final Did key, final long defaultValue) {
+        final int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(final Did key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param value the value
+     * @return {@code true} if the key was absent
+     */
+    public boolean put(final Did key, final long value) {
+
+        final int slot = find(key);
+
+        if (slot >= 0) {
+            values[slot] = value;
+            return false;
+        }
+
+        insert(-slot - 1, key, value);
+        return true;
+    }
+
+    /**
+     * Adds the delta to the value associated with the key, an absent key has
+     * the value {@code 0}.
+     *
+     * @param key   the key (must not be {@code null})
+     * @param delta the value to add
+     * @return the updated value
+     */
+    public long addAndGet(final Did key, final long delta) {
+
+        final int slot = find(key);
+
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+
+        insert(-slot - 1, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @param key the key (must not be {@code null})
+     * @return {@code true} if the key was present
+     */
+    public boolean remove(final Did key) {
+
+        int slot = find(key);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        // backward shift deletion keeps probe sequences unbroken
+        final int mask = keys.length - 1;
+
+        for (int next = (slot + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+
+            final int home = spread(hashes[next]) & mask;
+
+            // move the entry if its home is not within (slot, next]
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                hashes[slot] = hashes[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+
+        keys[slot] = null;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    /**
+     * Calls the action for each entry, in no particular order.
+     *
+     * @param action the action (must not be {@code null})
+     */
+    public void forEach(final ObjLongConsumer<Did> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the key, or {@code -(insertion slot + 1)} if absent.
+     */
+    int find(final Did key) {
+
+        final int hash = key.hashCode();
+        final int mask = keys.length - 1;
+
+        int slot = spread(hash) & mask;
+
+        Did candidate;
+
+        while ((candidate = keys[slot]) != null) {
+            if (hashes[slot] == hash && (candidate == key || candidate.equals(key))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    void insert(final int slot, final Did key, final long value) {
+
+        keys[slot] = key;
+        hashes[slot] = key.hashCode();
+        values[slot] = value;
+
+        if (++size * LOAD_DENOMINATOR > keys.length * LOAD_NUMERATOR) {
+            resize(keys.length * 2);
+        }
+    }
+
+    void resize(final int capacity) {
+
+        final Did[] oldKeys = keys;
+        final int[] oldHashes = hashes;
+        final long[] oldValues = values;
+
+        allocate(capacity);
+
+        final int mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    void allocate(final int capacity) {
+        keys = new Did[capacity];
+        hashes = new int[capacity];
+        values = new long[capacity];
+    }
+
+    /**
+     * Returns a power of two table size holding the expected number of entries.
+     */
+    static final int capacity(final int expectedSize) {
+        final long minimum = Math.max(2, (long) expectedSize * LOAD_DENOMINATOR / LOAD_NUMERATOR + 1);
+        if (minimum > 1 << 30) {
+            throw new IllegalArgumentException("The expected size " + expectedSize + " is too large.");
+        }
+        return Integer.highestOneBit((int) minimum - 1) << 1;
+    }
+
+    /**
+     * Spreads hash bits so that linear probing on the low bits does not cluster.
+     */
+    static final int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
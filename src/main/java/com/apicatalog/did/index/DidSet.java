@@ -0,0 +1,415 @@
+package com.apicatalog.did.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+
+/**
+ * An immutable, off-heap set of DIDs, e.g. a deny list of deactivated DIDs.
+ * <p>
+ * Members are stored in their compact binary encoding, see
+ * {@link Did#writeTo(ByteBuffer)}, in a single buffer outside of the Java heap:
+ * a Bloom filter rejects most non-members without touching the table, and an
+ * open-addressing hash table with linear probing confirms members exactly.
+ * </p>
+ * <p>
+ * The buffer is also the file format, so {@link #writeTo(Path)} and
+ * {@link #load(Path)} need no parsing and a loaded set is memory-mapped rather
+ * than read. Reads are lock-free and safe from any number of threads; to update
+ * a set, build a new one and swap it, see {@link DidDenyList}. A set is limited
+ * to 2 GiB.
+ * </p>
+ *
+ * <pre>{@code
+ * header = magic version size hashes bloom-words slots data-length reserved ; 8 x int32
+ * bloom  = bloom-words x int64
+ * slots  = slots x ( int32 fingerprint, int32 data-offset + 1 )    ; 0 if empty
+ * data   = size x ( uint16 length, encoded DID )
+ * }</pre>
+ *
+ * All integers are big-endian.
+ */
+public final class DidSet {
+
+    /** The default number of Bloom filter bits per member, about 1% false positives. */
+    public static final int DEFAULT_BITS_PER_ENTRY = 10;
+
+    static final int MAGIC = 0x44494453; // DIDS
+    static final int VERSION = 1;
+
+    static final int HEADER = 32;
+    static final int SLOT = 8;
+
+    static final int MAX_ENCODED_LENGTH = 0xFFFF;
+
+    static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    static final DidSet EMPTY = of(Collections.emptyList());
+
+    final ByteBuffer buffer;
+
+    final int size;
+    final int hashes;
+    final int bloomWords;
+    final int slotMask;
+
+    final int slotsOffset;
+    final int dataOffset;
+
+    DidSet(final ByteBuffer buffer) {
+
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a DID set, invalid header.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported DID set version " + buffer.getInt(4) + ".");
+        }
+
+        this.size = buffer.getInt(8);
+        this.hashes = buffer.getInt(12);
+        this.bloomWords = buffer.getInt(16);
+
+        final int slots = buffer.getInt(20);
+        final int dataLength = buffer.getInt(24);
+
+        if (size < 0 || hashes <= 0 || bloomWords <= 0 || slots <= size || Integer.bitCount(slots) != 1 || dataLength < 0
+                || (long) HEADER + 8L * bloomWords + (long) SLOT * slots + dataLength != buffer.capacity()) {
+            throw new IllegalArgumentException("Not a DID set, inconsistent header.");
+        }
+
+        this.slotMask = slots - 1;
+        this.slotsOffset = HEADER + 8 * bloomWords;
+        this.dataOffset = slotsOffset + SLOT * slots;
+    }
+
+    /**
+     * Builds a set with {@value #DEFAULT_BITS_PER_ENTRY} Bloom filter bits per
+     * member.
+     *
+     * @param dids the members, duplicates are ignored (must not be {@code null})
+     * @return a new set
+     */
+    public static DidSet of(final Iterable<? extends Did> dids) {
+        return of(dids, DEFAULT_BITS_PER_ENTRY);
+    }
+
+    /**
+     * Builds a set.
+     *
+     * @param dids         the members, duplicates are ignored (must not be
+     *                     {@code null})
+     * @param bitsPerEntry Bloom filter bits per member, more bits mean fewer
+     *                     table lookups for non-members
+     * @return a new set
+     * @throws IllegalArgumentException if the set would exceed 2 GiB
+     */
+    public static DidSet of(final Iterable<? extends Did> dids, final int bitsPerEntry) {
+
+        Objects.requireNonNull(dids);
+
+        if (bitsPerEntry <= 0) {
+            throw new IllegalArgumentException("The number of bits per entry must be positive but got " + bitsPerEntry + ".");
+        }
+
+        final List<byte[]> encoded = new ArrayList<>();
+        long dataLength = 0;
+
+        for (final Did did : dids) {
+            final byte[] bytes = new byte[did.binarySize()];
+            did.writeTo(ByteBuffer.wrap(bytes));
+            if (bytes.length > MAX_ENCODED_LENGTH) {
+                throw new IllegalArgumentException("The DID [" + did + "] exceeds " + MAX_ENCODED_LENGTH + " bytes.");
+            }
+            encoded.add(bytes);
+            dataLength += 2 + bytes.length;
+        }
+
+        final int count = encoded.size();
+
+        // a load factor of at most 0.5
+        final long slots = Math.max(2, Long.highestOneBit(Math.max(1, count) * 2L - 1) << 1);
+        final long bloomWords = Math.max(1, ((long) count * bitsPerEntry + 63) / 64);
+
+        final long capacity = HEADER + 8 * bloomWords + SLOT * slots + dataLength;
+
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The DID set exceeds 2 GiB, " + capacity + " bytes.");
+        }
+
+        final int hashes = Math.max(1, Math.min(16, (int) Math.round(bitsPerEntry * Math.log(2))));
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.BIG_ENDIAN);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(12, hashes);
+        buffer.putInt(16, (int) bloomWords);
+        buffer.putInt(20, (int) slots);
+
+        final int slotsOffset = HEADER + 8 * (int) bloomWords;
+        final int dataOffset = slotsOffset + SLOT * (int) slots;
+        final int slotMask = (int) slots - 1;
+
+        int size = 0;
+        int position = 0;
+
+        for (final byte[] bytes : encoded) {
+
+            final long hash = hash(bytes, bytes.length);
+
+            int slot = (int) hash & slotMask;
+            boolean duplicate = false;
+
+            int offset;
+            while ((offset = buffer.getInt(slotsOffset + slot * SLOT + 4)) != 0) {
+                if (buffer.getInt(slotsOffset + slot * SLOT) == (int) (hash >>> 32)
+                        && equals(buffer, dataOffset + offset - 1, bytes, bytes.length)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+
+            if (duplicate) {
+                continue;
+            }
+
+            buffer.putInt(slotsOffset + slot * SLOT, (int) (hash >>> 32));
+            buffer.putInt(slotsOffset + slot * SLOT + 4, position + 1);
+
+            buffer.putShort(dataOffset + position, (short) bytes.length);
+            for (int i = 0; i < bytes.length; i++) {
+                buffer.put(dataOffset + position + 2 + i, bytes[i]);
+            }
+            position += 2 + bytes.length;
+
+            for (int i = 0; i < hashes; i++) {
+                final int bit = bit(hash, i, (int) bloomWords);
+                final int index = HEADER + 8 * (bit >>> 6);
+                buffer.putLong(index, buffer.getLong(index) | (1L << bit));
+            }
+
+            size++;
+        }
+
+        buffer.putInt(8, size);
+        buffer.putInt(24, position);
+
+        if (position == dataLength) {
+            return new DidSet(buffer);
+        }
+
+        // drop the space reserved for duplicates
+        buffer.limit(dataOffset + position);
+
+        final ByteBuffer compact = ByteBuffer.allocateDirect(dataOffset + position).order(ByteOrder.BIG_ENDIAN);
+        compact.put(buffer);
+        compact.clear();
+
+        return new DidSet(compact);
+    }
+
+    /**
+     * Wraps a buffer holding a set written by {@link #writeTo(Path)}, without
+     * copying. The buffer must not be modified afterwards.
+     *
+     * @param buffer the set, from position {@code 0} to the capacity (must not be
+     *               {@code null})
+     * @return a set backed by the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a valid set
+     */
+    public static DidSet wrap(final ByteBuffer buffer) {
+        Objects.requireNonNull(buffer);
+        return new DidSet(buffer.duplicate().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Memory-maps a set written by {@link #writeTo(Path)}. Nothing is read up
+     * front; pages are loaded by the operating system on access.
+     *
+     * @param path the file (must not be {@code null})
+     * @return a set backed by the file
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if the file does not hold a valid set
+     */
+    public static DidSet load(final Path path) throws IOException {
+
+        Objects.requireNonNull(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file [" + path + "] exceeds 2 GiB.");
+            }
+
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+            return new DidSet(buffer.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    /**
+     * Checks whether the DID is a member. A {@link com.apicatalog.did.DidUrl} is
+     * a member only if the DID URL itself was added.
+     *
+     * @param did the DID to check (must not be {@code null})
+     * @return {@code true} if a member
+     */
+    public boolean contains(final Did did) {
+
+        Objects.requireNonNull(did);
+
+        if (size == 0) {
+            return false;
+        }
+
+        final int length = did.binarySize();
+
+        byte[] bytes = SCRATCH.get();
+
+        if (length > bytes.length) {
+            bytes = new byte[length];
+        }
+
+        did.writeTo(ByteBuffer.wrap(bytes, 0, length));
+
+        final long hash = hash(bytes, length);
+
+        for (int i = 0; i < hashes; i++) {
+            final int bit = bit(hash, i, bloomWords);
+            if ((buffer.getLong(HEADER + 8 * (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        final int fingerprint = (int) (hash >>> 32);
+
+        int slot = (int) hash & slotMask;
+        int offset;
+
+        while ((offset = buffer.getInt(slotsOffset + slot * SLOT + 4)) != 0) {
+            if (buffer.getInt(slotsOffset + slot * SLOT) == fingerprint
+                    && equals(buffer, dataOffset + offset - 1, bytes, length)) {
+                return true;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of members.
+     *
+     * @return members count
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the size of the set, in or out of memory.
+     *
+     * @return bytes count
+     */
+    public int sizeInBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Writes the set, see {@link #load(Path)}.
+     *
+     * @param path the file, created or replaced (must not be {@code null})
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final Path path) throws IOException {
+
+        Objects.requireNonNull(path);
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            writeTo(channel);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes the set, see {@link #wrap(ByteBuffer)}.
+     *
+     * @param channel the target (must not be {@code null})
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final WritableByteChannel channel) throws IOException {
+
+        Objects.requireNonNull(channel);
+
+        final ByteBuffer source = buffer.duplicate();
+        source.clear();
+
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    static final boolean equals(final ByteBuffer buffer, final int index, final byte[] bytes, final int length) {
+
+        if ((buffer.getShort(index) & 0xFFFF) != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(index + 2 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the {@code i}-th Bloom filter bit, by double hashing.
+     */
+    static final int bit(final long hash, final int i, final int words) {
+        final long combined = (hash & 0xFFFFFFFFL) + i * (hash >>> 32 | 1);
+        return (int) ((combined & Long.MAX_VALUE) % (64L * words));
+    }
+
+    /**
+     * FNV-1a followed by the MurmurHash3 finalizer.
+     */
+    static final long hash(final byte[] bytes, final int length) {
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
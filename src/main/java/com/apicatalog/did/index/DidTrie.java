@@ -0,0 +1,499 @@
+package com.apicatalog.did.index;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apicatalog.did.Did;
+
+/**
+ * A concurrent trie of DIDs keyed by method and then by method-specific-id
+ * segments, e.g. {@code did:web:example.com:users:alice} is stored under
+ * {@code web → example.com → users → alice}.
+ * <p>
+ * Segments are split on {@code ':'} as in
+ * {@link Did#isValidMethodSpecificId(String)}: empty segments are kept and a
+ * percent-encoded colon ({@code %3A}) does not split. DID URLs are stored and
+ * looked up by their bare DID.
+ * </p>
+ * <p>
+ * Lookups are lock-free and run concurrently with updates. Nodes allocate a
+ * children map only when a child is added, so leaves, the bulk of a large
+ * index, hold just the entry. Removing an entry prunes the path nodes left
+ * with neither an entry nor children. Iteration is weakly consistent and in no
+ * particular order.
+ * </p>
+ *
+ * <pre>{@code
+ * DidTrie<Policy> policies = new DidTrie<>();
+ * policies.put(Did.of("did:web:example.com"), policy);
+ *
+ * // the policy of the closest ancestor
+ * policies.longestPrefix(Did.of("did:web:example.com:users:alice"));
+ *
+ * // all DIDs under example.com
+ * for (Map.Entry<Did, Policy> entry : policies.prefix("web", "example.com")) { ... }
+ * }</pre>
+ *
+ * @param <V> the type of values
+ */
+public final class DidTrie<V> {
+
+    final Map<String, Node<V>> methods;
+    final LongAdder size;
+
+    public DidTrie() {
+        this.methods = new ConcurrentHashMap<>();
+        this.size = new LongAdder();
+    }
+
+    /**
+     * Splits a method-specific-id into segments.
+     *
+     * @param methodSpecificId a raw method-specific-id (must not be
+     *                         {@code null})
+     * @return read-only list of segments, including empty ones
+     */
+    public static List<String> segments(final String methodSpecificId) {
+
+        Objects.requireNonNull(methodSpecificId);
+
+        final List<String> segments = new ArrayList<>(4);
+
+        int start = 0;
+        int end;
+
+        while ((end = methodSpecificId.indexOf(':', start)) != -1) {
+            segments.add(methodSpecificId.substring(start, end));
+            start = end + 1;
+        }
+
+        segments.add(methodSpecificId.substring(start));
+
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Associates the given value with the DID.
+     *
+     * @param did   the key (must not be {@code null})
+     * @param value the value (must not be {@code null})
+     * @return the previous value, or {@code null} if there was none
+     */
+    public V put(final Did did, final V value) {
+
+        Objects.requireNonNull(value);
+
+        final Did key = bare(did);
+        final Map.Entry<Did, V> entry = new SimpleImmutableEntry<>(key, value);
+
+        // retries if a concurrent remove prunes the path
+        while (true) {
+            final Node<V> node = path(key);
+            if (node != null) {
+                final Map.Entry<Did, V> previous = node.set(entry);
+                if (previous != Node.PRUNED) {
+                    if (previous == null) {
+                        size.increment();
+                        return null;
+                    }
+                    return previous.getValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the value associated with the DID.
+     *
+     * @param did the key (must not be {@code null})
+     * @return the value, or {@code null} if there is none
+     */
+    public V get(final Did did) {
+        final Node<V> node = node(did);
+        if (node != null) {
+            final Map.Entry<Did, V> entry = node.entry;
+            if (entry != null) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(final Did did) {
+        return get(did) != null;
+    }
+
+    /**
+     * Removes the value associated with the DID.
+     *
+     * @param did the key (must not be {@code null})
+     * @return the removed value, or {@code null} if there was none
+     */
+    public V remove(final Did did) {
+
+        final Did key = bare(did);
+        final List<String> segments = segments(key.getMethodSpecificId());
+
+        final Node<V> root = methods.get(key.getMethod());
+
+        if (root == null) {
+            return null;
+        }
+
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        final Node<V>[] path = new Node[segments.size() + 1];
+        path[0] = root;
+
+        for (int i = 0; i < segments.size(); i++) {
+            path[i + 1] = path[i].child(segments.get(i));
+            if (path[i + 1] == null) {
+                return null;
+            }
+        }
+
+        final Map.Entry<Did, V> previous = path[segments.size()].set(null);
+
+        if (previous == null || previous == Node.PRUNED) {
+            return null;
+        }
+
+        size.decrement();
+
+        // bottom-up, stops at the first node still in use
+        for (int i = segments.size(); i > 0; i--) {
+            if (!path[i - 1].prune(segments.get(i - 1), path[i])) {
+                return previous.getValue();
+            }
+        }
+
+        synchronized (root) {
+            if (root.isEmpty()) {
+                root.pruned = true;
+                methods.remove(key.getMethod(), root);
+            }
+        }
+        return previous.getValue();
+    }
+
+    /**
+     * Returns the entry of the DID itself or of its closest ancestor, e.g.
+     * {@code did:web:example.com} for {@code did:web:example.com:users:alice}.
+     *
+     * @param did the DID to match (must not be {@code null})
+     * @return the longest matching entry, or {@code null} if there is none
+     */
+    public Map.Entry<Did, V> longestPrefix(final Did did) {
+
+        final Did key = bare(did);
+        final String id = key.getMethodSpecificId();
+
+        Node<V> node = methods.get(key.getMethod());
+        Map.Entry<Did, V> match = null;
+
+        int start = 0;
+        int end;
+
+        do {
+            if (node == null) {
+                return match;
+            }
+            final Map.Entry<Did, V> entry = node.entry;
+            if (entry != null) {
+                match = entry;
+            }
+
+            end = id.indexOf(':', start);
+            node = node.child(id.substring(start, end != -1 ? end : id.length()));
+            start = end + 1;
+
+        } while (end != -1);
+
+        if (node != null) {
+            final Map.Entry<Did, V> entry = node.entry;
+            if (entry != null) {
+                match = entry;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Returns the entries of the DID and all DIDs under it, e.g.
+     * {@code did:web:example.com:users:alice} is under
+     * {@code did:web:example.com}.
+     *
+     * @param did the DID to scan (must not be {@code null})
+     * @return weakly consistent entries, possibly empty
+     */
+    public Iterable<Map.Entry<Did, V>> prefix(final Did did) {
+        final Did key = bare(did);
+        return prefix(key.getMethod(), segments(key.getMethodSpecificId()).toArray(new String[0]));
+    }
+
+    /**
+     * Returns the entries of all DIDs with the given method whose
+     * method-specific-id starts with the given segments. With no segments, all
+     * DIDs of the method are returned.
+     *
+     * @param method   a method name (must not be {@code null})
+     * @param segments leading method-specific-id segments
+     * @return weakly consistent entries, possibly empty
+     */
+    public Iterable<Map.Entry<Did, V>> prefix(final String method, final String... segments) {
+
+        Objects.requireNonNull(method);
+
+        Node<V> node = methods.get(method);
+
+        for (int i = 0; node != null && i < segments.length; i++) {
+            node = node.child(Objects.requireNonNull(segments[i]));
+        }
+
+        if (node == null) {
+            return Collections.emptyList();
+        }
+
+        final Node<V> root = node;
+
+        return () -> new EntryIterator<>(root);
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return entries count
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all entries and nodes. Not atomic with respect to concurrent
+     * updates.
+     */
+    public void clear() {
+        methods.clear();
+        size.reset();
+    }
+
+    /**
+     * Returns the node of the DID, adding missing path nodes, or {@code null} if
+     * a path node has been pruned meanwhile.
+     */
+    Node<V> path(final Did key) {
+
+        final String id = key.getMethodSpecificId();
+
+        Node<V> node = methods.get(key.getMethod());
+
+        if (node == null) {
+            node = new Node<>();
+            final Node<V> existing = methods.putIfAbsent(key.getMethod(), node);
+            if (existing != null) {
+                node = existing;
+            }
+        }
+
+        int start = 0;
+        int end;
+
+        do {
+            end = id.indexOf(':', start);
+            node = node.add(id.substring(start, end != -1 ? end : id.length()));
+            start = end + 1;
+        } while (node != null && end != -1);
+
+        return node;
+    }
+
+    Node<V> node(final Did did) {
+
+        final Did key = bare(did);
+        final String id = key.getMethodSpecificId();
+
+        Node<V> node = methods.get(key.getMethod());
+
+        int start = 0;
+        int end;
+
+        do {
+            if (node == null) {
+                return null;
+            }
+            end = id.indexOf(':', start);
+            node = node.child(id.substring(start, end != -1 ? end : id.length()));
+            start = end + 1;
+
+        } while (end != -1);
+
+        return node;
+    }
+
+    static final Did bare(final Did did) {
+        Objects.requireNonNull(did);
+        return did.isDidUrl() ? did.asDidUrl().toDid() : did;
+    }
+
+    /**
+     * A path node. Lookups are lock-free, updates lock the node they change, and
+     * pruning locks the parent and then the child. A pruned node is unlinked
+     * from its parent and never changes again.
+     */
+    static final class Node<V> {
+
+        /** returned by {@link #set(Map.Entry)} on a pruned node */
+        @SuppressWarnings("rawtypes")
+        static final Map.Entry PRUNED = new SimpleImmutableEntry<>(null, null);
+
+        /** {@code null} until a child is added */
+        volatile Map<String, Node<V>> children;
+
+        volatile Map.Entry<Did, V> entry;
+
+        /** guarded by this */
+        boolean pruned;
+
+        /**
+         * Replaces the entry.
+         *
+         * @return the previous entry, or {@link #PRUNED}
+         */
+        @SuppressWarnings("unchecked")
+        synchronized Map.Entry<Did, V> set(final Map.Entry<Did, V> value) {
+            if (pruned) {
+                return PRUNED;
+            }
+            final Map.Entry<Did, V> previous = entry;
+            entry = value;
+            return previous;
+        }
+
+        /**
+         * Unlinks the child if it has neither an entry nor children.
+         *
+         * @return {@code true} if the child has been pruned
+         */
+        synchronized boolean prune(final String segment, final Node<V> child) {
+
+            if (pruned || children == null || children.get(segment) != child) {
+                return false;
+            }
+
+            synchronized (child) {
+                if (child.pruned || !child.isEmpty()) {
+                    return false;
+                }
+                child.pruned = true;
+                children.remove(segment);
+            }
+            return true;
+        }
+
+        /** guarded by this */
+        boolean isEmpty() {
+            return entry == null && (children == null || children.isEmpty());
+        }
+
+        Node<V> child(final String segment) {
+            final Map<String, Node<V>> map = children;
+            return map != null ? map.get(segment) : null;
+        }
+
+        /**
+         * Returns the child, adding a new one if there is none.
+         *
+         * @return the child, or {@code null} if this node has been pruned
+         */
+        Node<V> add(final String segment) {
+
+            final Map<String, Node<V>> map = children;
+
+            if (map != null) {
+                final Node<V> node = map.get(segment);
+                if (node != null) {
+                    return node;
+                }
+            }
+
+            synchronized (this) {
+
+                if (pruned) {
+                    return null;
+                }
+
+                if (children == null) {
+                    children = new ConcurrentHashMap<>(2);
+                }
+
+                return children.computeIfAbsent(segment, k -> new Node<>());
+            }
+        }
+    }
+
+    /**
+     * Depth-first iteration over the entries of a subtree.
+     */
+    static final class EntryIterator<V> implements Iterator<Map.Entry<Did, V>> {
+
+        final Deque<Node<V>> stack;
+
+        Map.Entry<Did, V> next;
+
+        EntryIterator(final Node<V> root) {
+            this.stack = new ArrayDeque<>();
+            this.stack.push(root);
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<Did, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<Did, V> result = next;
+            next = advance();
+            return result;
+        }
+
+        Map.Entry<Did, V> advance() {
+            while (!stack.isEmpty()) {
+
+                final Node<V> node = stack.pop();
+
+                final Map<String, Node<V>> children = node.children;
+
+                if (children != null) {
+                    for (final Node<V> child : children.values()) {
+                        stack.push(child);
+                    }
+                }
+
+                final Map.Entry<Did, V> entry = node.entry;
+
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+}
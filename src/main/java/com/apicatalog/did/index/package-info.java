@@ -0,0 +1,17 @@
+/**
+ * In-memory indexes of DIDs.
+ * <ul>
+ * <li>{@link com.apicatalog.did.index.DidTrie} — a concurrent trie keyed by
+ * method and method-specific-id segments, with prefix iteration and
+ * longest-prefix matching</li>
+ * <li>{@link com.apicatalog.did.index.DidSet} — an immutable off-heap DID set,
+ * memory-mappable from a file</li>
+ * <li>{@link com.apicatalog.did.index.DidDenyList} — a swappable deny list
+ * backed by a {@code DidSet}</li>
+ * <li>{@link com.apicatalog.did.index.DidLongMap},
+ * {@link com.apicatalog.did.index.DidIntMap},
+ * {@link com.apicatalog.did.index.ConcurrentDidLongMap} — open-addressing maps
+ * of DIDs to primitive values</li>
+ * </ul>
+ */
+package com.apicatalog.did.index;
@@ -0,0 +1,316 @@
+package com.apicatalog.did.io;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Dispatches DID document reading and writing on content types.
+ * <p>
+ * Maps content types, e.g. {@link #JSON}, {@link #JSON_LD}, {@link #CBOR}, to
+ * {@link DidDocumentReader} and {@link DidDocumentWriter} instances registered
+ * by their {@code contentType()}. The mapping is fixed when
+ * {@link Builder#build()} is called and is safe for concurrent use without
+ * locking.
+ * </p>
+ *
+ * <pre>{@code
+ * DidDocumentFormats formats = DidDocumentFormats
+ *         .with(jsonReader)
+ *         .with(cborReader)
+ *         .with(cborWriter)
+ *         .build();
+ *
+ * DidDocumentReader reader = formats.reader(response.contentType());
+ * DidDocumentWriter writer = formats.writer(request.accept());
+ * }</pre>
+ */
+public class DidDocumentFormats {
+
+    /** {@code application/did+json} content type. */
+    public static final String JSON = "application/did+json";
+
+    /** {@code application/did+ld+json} content type. */
+    public static final String JSON_LD = "application/did+ld+json";
+
+    /** {@code application/did+cbor} content type. */
+    public static final String CBOR = "application/did+cbor";
+
+    protected final Map<String, DidDocumentReader> readers;
+    protected final Map<String, DidDocumentWriter> writers;
+    protected final String accept;
+
+    protected DidDocumentFormats(
+            final Map<String, DidDocumentReader> readers,
+            final Map<String, DidDocumentWriter> writers) {
+        this.readers = readers;
+        this.writers = writers;
+        this.accept = String.join(", ", readers.keySet());
+    }
+
+    /**
+     * Returns a reader for the given content type. Media type parameters, e.g.
+     * {@code charset}, are ignored, and the match is case-insensitive.
+     *
+     * @param contentType a content type, e.g. a {@code Content-Type} header value
+     * @return the reader, or {@code null} if the content type is not supported
+     */
+    public DidDocumentReader reader(final String contentType) {
+
+        if (contentType == null) {
+            return null;
+        }
+
+        // fast path, a registered content type as is
+        final DidDocumentReader reader = readers.get(contentType);
+
+        if (reader != null) {
+            return reader;
+        }
+        return readers.get(mediaType(contentType, 0, contentType.length()));
+    }
+
+    /**
+     * Returns the writer best matching the given {@code Accept} header value.
+     * <p>
+     * Each writer is rated by the most specific media range matching its content
+     * type, a type over {@code type/*} over {@code *}{@code /*}. Among equally
+     * specific ranges the first one in the header applies. A range with
+     * {@code q=0} excludes the type, less specific ranges do not override it.
+     * Writers are ranked by the {@code q} parameter of their range, then by its
+     * order in the header, then by registration order. A {@code null} or blank
+     * value accepts any type.
+     * </p>
+     *
+     * @param accept {@code Accept} header value
+     * @return the writer, or {@code null} if none is acceptable
+     */
+    public DidDocumentWriter writer(final String accept) {
+
+        if (writers.isEmpty()) {
+            return null;
+        }
+
+        if (accept == null || accept.trim().isEmpty()) {
+            return writers.values().iterator().next();
+        }
+
+        // fast path, a registered content type as is
+        final DidDocumentWriter exact = writers.get(accept);
+        if (exact != null) {
+            return exact;
+        }
+
+        DidDocumentWriter best = null;
+        double bestQ = 0;
+        int bestOrder = Integer.MAX_VALUE;
+
+        for (final Map.Entry<String, DidDocumentWriter> entry : writers.entrySet()) {
+
+            int specificity = -1;
+            double q = 0;
+            int order = 0;
+
+            int start = 0;
+
+            for (int element = 0; start < accept.length(); element++) {
+
+                int end = accept.indexOf(',', start);
+                if (end == -1) {
+                    end = accept.length();
+                }
+
+                final int matched = specificity(mediaType(accept, start, end), entry.getKey());
+
+                if (matched > specificity) {
+                    specificity = matched;
+                    q = quality(accept, start, end);
+                    order = element;
+                }
+                start = end + 1;
+            }
+
+            if (q > bestQ || (q > 0 && q == bestQ && order < bestOrder)) {
+                best = entry.getValue();
+                bestQ = q;
+                bestOrder = order;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns an {@code Accept} header value listing all readable content types
+     * in registration order.
+     *
+     * @return {@code Accept} header value, empty if there are no readers
+     */
+    public String accept() {
+        return accept;
+    }
+
+    /**
+     * Returns all readable content types.
+     *
+     * @return read-only content types
+     */
+    public Set<String> readable() {
+        return readers.keySet();
+    }
+
+    /**
+     * Returns all writable content types.
+     *
+     * @return read-only content types
+     */
+    public Set<String> writable() {
+        return writers.keySet();
+    }
+
+    public static Builder with(DidDocumentReader reader) {
+        return (new Builder()).with(reader);
+    }
+
+    public static Builder with(DidDocumentWriter writer) {
+        return (new Builder()).with(writer);
+    }
+
+    /**
+     * Returns how specifically the given media range matches the content type,
+     * {@code 2} for the type itself, {@code 1} for {@code type/*}, {@code 0} for
+     * {@code *}{@code /*}, or {@code -1} if it does not match.
+     */
+    static final int specificity(final String range, final String contentType) {
+
+        if (range.equals(contentType)) {
+            return 2;
+        }
+
+        if ("*/*".equals(range)) {
+            return 0;
+        }
+
+        if (range.endsWith("/*")
+                && contentType.length() > range.length() - 1
+                && contentType.regionMatches(0, range, 0, range.length() - 1)) {
+            return 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the lowercase media type of the given header element, without
+     * parameters and surrounding whitespace.
+     */
+    static final String mediaType(final String value, final int start, final int end) {
+
+        int typeEnd = value.indexOf(';', start);
+
+        if (typeEnd == -1 || typeEnd > end) {
+            typeEnd = end;
+        }
+
+        return value.substring(start, typeEnd).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the {@code q} parameter value of the given header element,
+     * {@code 1} if absent, or {@code 0} if malformed.
+     */
+    static final double quality(final String value, final int start, final int end) {
+
+        int index = value.indexOf(';', start);
+
+        while (index != -1 && index < end) {
+
+            int next = value.indexOf(';', index + 1);
+            if (next == -1 || next > end) {
+                next = end;
+            }
+
+            final String parameter = value.substring(index + 1, next).trim();
+
+            if (parameter.length() >= 2
+                    && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                return qvalue(parameter.substring(2).trim());
+            }
+            index = next < end ? next : -1;
+        }
+        return 1;
+    }
+
+    /**
+     * Parses an RFC 9110 {@code qvalue}, i.e. {@code 0} to {@code 1} with at
+     * most three decimal digits. Anything else, including {@code NaN}, exponents
+     * and hex floats, is treated as {@code 0} so a malformed weight can never
+     * prefer a range.
+     */
+    static final double qvalue(final String value) {
+
+        final int length = value.length();
+
+        if (length == 0 || length > 5
+                || (length > 1 && value.charAt(1) != '.')) {
+            return 0;
+        }
+
+        final char unit = value.charAt(0);
+
+        if (unit != '0' && unit != '1') {
+            return 0;
+        }
+
+        int thousandths = 0;
+
+        for (int i = 2; i < 5; i++) {
+            final int digit = i < length ? value.charAt(i) - '0' : 0;
+            if (digit < 0 || digit > 9 || (unit == '1' && digit != 0)) {
+                return 0;
+            }
+            thousandths = thousandths * 10 + digit;
+        }
+
+        return unit == '1' ? 1 : thousandths / 1000d;
+    }
+
+    public static class Builder {
+
+        final Map<String, DidDocumentReader> readers;
+        final Map<String, DidDocumentWriter> writers;
+
+        Builder() {
+            this.readers = new LinkedHashMap<>();
+            this.writers = new LinkedHashMap<>();
+        }
+
+        public Builder with(DidDocumentReader reader) {
+            Objects.requireNonNull(reader);
+            readers.put(mediaType(reader.contentType(), 0, reader.contentType().length()), reader);
+            return this;
+        }
+
+        public Builder with(DidDocumentWriter writer) {
+            Objects.requireNonNull(writer);
+            writers.put(mediaType(writer.contentType(), 0, writer.contentType().length()), writer);
+            return this;
+        }
+
+        public DidDocumentFormats build() {
+            return new DidDocumentFormats(
+                    freeze(readers),
+                    freeze(writers));
+        }
+
+        static final <T> Map<String, T> freeze(final Map<String, T> map) {
+            // a copy keeps registration order for wildcard matching and accept()
+            return map.isEmpty()
+                    ? Collections.emptyMap()
+                    : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.apicatalog.did.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.apicatalog.did.document.DidDocument;
+
+/**
+ * Reads newline delimited DID documents, e.g. NDJSON registry snapshots, in
+ * parallel.
+ * <p>
+ * The input is split into records on {@code \n} on the calling thread, blank
+ * records are skipped. Records are parsed on an {@link Executor} by a
+ * {@link DidDocumentReader} and delivered to a {@link DidDocumentSink}, either
+ * in input order or in completion order. At most {@code maxInFlight} records
+ * are held in memory, including parsed documents waiting for their turn in the
+ * ordered mode; the input is not read further until a slot is free.
+ * </p>
+ * <p>
+ * Counters are cumulative over all runs and can be sampled concurrently, e.g.
+ * to report throughput.
+ * </p>
+ *
+ * <pre>{@code
+ * DidDocumentPipeline pipeline = DidDocumentPipeline.with(reader)
+ *         .maxInFlight(1024)
+ *         .ordered(false)
+ *         .build();
+ *
+ * pipeline.run(channel, (record, document) -> store.put(document));
+ * }</pre>
+ */
+public final class DidDocumentPipeline {
+
+    /** The default maximum number of records held in memory. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    /** The default maximum length of a single record, 16 MiB. */
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 16 << 20;
+
+    static final int CHUNK = 64 * 1024;
+
+    final DidDocumentReader reader;
+    final Executor executor;
+    final int maxInFlight;
+    final int maxRecordLength;
+    final boolean ordered;
+
+    final LongAdder records;
+    final LongAdder bytes;
+    final LongAdder documents;
+    final LongAdder rejected;
+
+    final AtomicInteger inFlight;
+
+    DidDocumentPipeline(
+            final DidDocumentReader reader,
+            final Executor executor,
+            final int maxInFlight,
+            final int maxRecordLength,
+            final boolean ordered) {
+        this.reader = reader;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.maxRecordLength = maxRecordLength;
+        this.ordered = ordered;
+        this.records = new LongAdder();
+        this.bytes = new LongAdder();
+        this.documents = new LongAdder();
+        this.rejected = new LongAdder();
+        this.inFlight = new AtomicInteger();
+    }
+
+    /**
+     * Reads all records from the given stream.
+     *
+     * @param is   newline delimited documents (must not be {@code null})
+     * @param sink receives the documents (must not be {@code null})
+     * @throws IOException                if reading the input fails, a record is
+     *                                    too long, or the sink fails
+     * @throws DidDocumentReaderException if a record cannot be read and the sink
+     *                                    rethrows it
+     */
+    public void run(final InputStream is, final DidDocumentSink sink) throws IOException, DidDocumentReaderException {
+        Objects.requireNonNull(is);
+        run(Channels.newChannel(is), sink);
+    }
+
+    /**
+     * Reads all records from the given blocking channel. Returns when all
+     * records have been delivered to the sink, or after the first failure once
+     * the records in flight have been drained. An {@link Error} thrown by the
+     * reader, e.g. a {@link StackOverflowError} on deeply nested input, fails
+     * the run and is rethrown.
+     *
+     * @param channel newline delimited documents (must not be {@code null})
+     * @param sink    receives the documents (must not be {@code null})
+     * @throws IOException                if reading the input fails, a record is
+     *                                    too long, or the sink fails
+     * @throws DidDocumentReaderException if a record cannot be read and the sink
+     *                                    rethrows it
+     */
+    public void run(final ReadableByteChannel channel, final DidDocumentSink sink) throws IOException, DidDocumentReaderException {
+
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(sink);
+
+        final Run run = new Run(sink);
+
+        try {
+            split(channel, run);
+
+        } finally {
+            run.drain();
+        }
+
+        run.check();
+    }
+
+    void split(final ReadableByteChannel channel, final Run run) throws IOException {
+
+        final ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+        final byte[] chunk = buffer.array();
+
+        // a record spanning chunks
+        byte[] record = new byte[0];
+        int length = 0;
+
+        long index = 0;
+
+        while (run.failure == null && channel.read(buffer) != -1) {
+
+            int position = 0;
+            final int limit = buffer.position();
+
+            while (position < limit) {
+
+                int end = position;
+                while (end < limit && chunk[end] != '\n') {
+                    end++;
+                }
+
+                if (length + end - position > maxRecordLength) {
+                    throw new IOException("Record " + index + " exceeds " + maxRecordLength + " bytes.");
+                }
+
+                if (end == limit) {
+                    record = append(record, length, chunk, position, end);
+                    length += end - position;
+                    break;
+                }
+
+                final byte[] data;
+
+                if (length == 0) {
+                    data = isBlank(chunk, position, end) ? null : Arrays.copyOfRange(chunk, position, end);
+
+                } else {
+                    record = append(record, length, chunk, position, end);
+                    length += end - position;
+                    data = isBlank(record, 0, length) ? null : Arrays.copyOf(record, length);
+                    length = 0;
+                }
+
+                if (data != null) {
+                    // stop reading after the first failure
+                    if (run.failure != null) {
+                        return;
+                    }
+                    run.submit(index++, data);
+                }
+
+                position = end + 1;
+            }
+
+            buffer.clear();
+        }
+
+        if (run.failure == null && length > 0 && !isBlank(record, 0, length)) {
+            run.submit(index, Arrays.copyOf(record, length));
+        }
+    }
+
+    static final byte[] append(final byte[] record, final int length, final byte[] chunk, final int from, final int to) {
+
+        byte[] target = record;
+
+        if (length + to - from > record.length) {
+            target = Arrays.copyOf(record, Math.max(length + to - from, record.length * 2));
+        }
+
+        System.arraycopy(chunk, from, target, length, to - from);
+        return target;
+    }
+
+    static final boolean isBlank(final byte[] data, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] != ' ' && data[i] != '\t' && data[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of records submitted for reading.
+     *
+     * @return records count
+     */
+    public long records() {
+        return records.sum();
+    }
+
+    /**
+     * Returns the total length of the records submitted for reading.
+     *
+     * @return bytes count
+     */
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Returns the number of documents delivered to sinks.
+     *
+     * @return documents count
+     */
+    public long documents() {
+        return documents.sum();
+    }
+
+    /**
+     * Returns the number of records that could not be read.
+     *
+     * @return rejected records count
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of records currently held in memory.
+     *
+     * @return records in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public static Builder with(DidDocumentReader reader) {
+        return new Builder(reader);
+    }
+
+    public static class Builder {
+
+        final DidDocumentReader reader;
+
+        Executor executor;
+        int maxInFlight;
+        int maxRecordLength;
+        boolean ordered;
+
+        Builder(final DidDocumentReader reader) {
+            this.reader = Objects.requireNonNull(reader);
+            this.executor = ForkJoinPool.commonPool();
+            this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+            this.maxRecordLength = DEFAULT_MAX_RECORD_LENGTH;
+            this.ordered = true;
+        }
+
+        /**
+         * Sets the executor parsing records, the common {@link ForkJoinPool} by
+         * default.
+         *
+         * @param executor the executor (must not be {@code null})
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of records held in memory,
+         * {@value DidDocumentPipeline#DEFAULT_MAX_IN_FLIGHT} by default.
+         *
+         * @param maxInFlight a positive number of records
+         * @return this builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("The maximum number of records in flight must be positive but got " + maxInFlight + ".");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of a single record, 16 MiB by default.
+         *
+         * @param maxRecordLength a positive number of bytes
+         * @return this builder
+         */
+        public Builder maxRecordLength(int maxRecordLength) {
+            if (maxRecordLength <= 0) {
+                throw new IllegalArgumentException("The maximum record length must be positive but got " + maxRecordLength + ".");
+            }
+            this.maxRecordLength = maxRecordLength;
+            return this;
+        }
+
+        /**
+         * Delivers documents in input order, enabled by default. Otherwise
+         * documents are delivered as soon as they are read.
+         *
+         * @param ordered {@code false} to deliver in completion order
+         * @return this builder
+         */
+        public Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public DidDocumentPipeline build() {
+            return new DidDocumentPipeline(reader, executor, maxInFlight, maxRecordLength, ordered);
+        }
+    }
+
+    /**
+     * A record read, successfully or not.
+     */
+    static final class Result {
+
+        final long index;
+        final DidDocument document;
+        final Throwable error;
+
+        Result(final long index, final DidDocument document, final Throwable error) {
+            this.index = index;
+            this.document = document;
+            this.error = error;
+        }
+    }
+
+    /**
+     * The state of a single {@link DidDocumentPipeline#run} call.
+     */
+    final class Run {
+
+        final DidDocumentSink sink;
+        final Semaphore permits;
+
+        /**
+         * Results waiting for their turn, indexed by {@code index % maxInFlight}.
+         * A permit is released only when a result is delivered, so all pending
+         * indices fit into a window of {@code maxInFlight}.
+         */
+        final Result[] pending;
+
+        long next;
+
+        volatile Throwable failure;
+
+        Run(final DidDocumentSink sink) {
+            this.sink = sink;
+            this.permits = new Semaphore(maxInFlight);
+            this.pending = ordered ? new Result[maxInFlight] : null;
+            this.next = 0;
+            this.failure = null;
+        }
+
+        void submit(final long index, final byte[] data) throws IOException {
+
+            try {
+                permits.acquire();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a free slot.");
+            }
+
+            inFlight.incrementAndGet();
+            records.increment();
+            bytes.add(data.length);
+
+            try {
+                executor.execute(() -> {
+                    Result result = null;
+                    try {
+                        result = read(index, data);
+
+                    } catch (Throwable e) {
+                        result = new Result(index, null, e);
+
+                    } finally {
+                        // a slot is filled and its permit released whatever happens
+                        complete(result);
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+                release();
+                throw new IOException("Failed to schedule record " + index + ".", e);
+            }
+        }
+
+        Result read(final long index, final byte[] data) {
+            try {
+                return new Result(index, reader.read(new ByteArrayInputStream(data)), null);
+
+            } catch (IOException | DidDocumentReaderException | RuntimeException | Error e) {
+                // e.g. StackOverflowError on deeply nested input fails the run
+                return new Result(index, null, e);
+            }
+        }
+
+        void complete(Result result) {
+            synchronized (this) {
+
+                if (pending == null) {
+                    try {
+                        deliver(result);
+                    } finally {
+                        release();
+                    }
+                    return;
+                }
+
+                pending[(int) (result.index % pending.length)] = result;
+
+                while ((result = pending[(int) (next % pending.length)]) != null) {
+                    pending[(int) (next % pending.length)] = null;
+                    next++;
+                    try {
+                        deliver(result);
+                    } finally {
+                        release();
+                    }
+                }
+            }
+        }
+
+        void deliver(final Result result) {
+
+            // drain silently after the first failure
+            if (failure != null) {
+                return;
+            }
+
+            try {
+                if (result.document != null) {
+                    sink.accept(result.index, result.document);
+                    documents.increment();
+
+                } else if (result.error instanceof DidDocumentReaderException) {
+                    rejected.increment();
+                    sink.reject(result.index, (DidDocumentReaderException) result.error);
+
+                } else {
+                    failure = result.error;
+                }
+
+            } catch (IOException | DidDocumentReaderException | RuntimeException | Error e) {
+                failure = e;
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+
+        /**
+         * Waits until all records in flight are delivered.
+         */
+        void drain() {
+            permits.acquireUninterruptibly(maxInFlight);
+            permits.release(maxInFlight);
+        }
+
+        void check() throws IOException, DidDocumentReaderException {
+
+            final Throwable e = failure;
+
+            if (e == null) {
+                return;
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            if (e instanceof DidDocumentReaderException) {
+                throw (DidDocumentReaderException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            throw (RuntimeException) e;
+        }
+    }
+}
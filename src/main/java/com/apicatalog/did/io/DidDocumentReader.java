@@ -1,9 +1,19 @@
 package com.apicatalog.did.io;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.function.Predicate;
 
+import com.apicatalog.did.DidUrl;
 import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
 
 /**
  * Reader for parsing a {@link DidDocument} from an {@link InputStream}.
@@ -30,4 +40,129 @@ public interface DidDocumentReader {
      * @throws DidDocumentReaderException if parsing or validation fails
      */
     DidDocument read(InputStream is) throws IOException, DidDocumentReaderException;
+
+    /**
+     * Reads and parses a DID Document from the remaining bytes of the given
+     * buffer. The buffer position is left unchanged.
+     * <p>
+     * The default implementation adapts the buffer to an {@link InputStream}
+     * without copying its content. Implementations able to decode directly from
+     * a buffer, e.g. a memory-mapped cache file, should override this method.
+     * </p>
+     *
+     * @param buffer source buffer (must not be {@code null})
+     * @return parsed {@code DidDocument}
+     * @throws IOException                if a low-level I/O error occurs
+     * @throws DidDocumentReaderException if parsing or validation fails
+     */
+    default DidDocument read(ByteBuffer buffer) throws IOException, DidDocumentReaderException {
+
+        Objects.requireNonNull(buffer);
+
+        if (buffer.hasArray()) {
+            return read(new ByteArrayInputStream(
+                    buffer.array(),
+                    buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining()));
+        }
+        return read(new ByteBufferInputStream(buffer.duplicate()));
+    }
+
+    /**
+     * Reads and parses a DID Document from the given channel. The channel is not
+     * closed.
+     * <p>
+     * The default implementation adapts the channel to an {@link InputStream}.
+     * </p>
+     *
+     * @param channel source channel (must not be {@code null})
+     * @return parsed {@code DidDocument}
+     * @throws IOException                if a low-level I/O error occurs
+     * @throws DidDocumentReaderException if parsing or validation fails
+     */
+    default DidDocument read(ReadableByteChannel channel) throws IOException, DidDocumentReaderException {
+        Objects.requireNonNull(channel);
+        return read(Channels.newInputStream(channel));
+    }
+
+    /**
+     * Reads only the verification method with the given id, and the
+     * relationships referencing it, from the given input stream.
+     *
+     * @param is     input stream (must not be {@code null})
+     * @param target verification method id (must not be {@code null})
+     * @return a document containing the {@code id}, {@code controller}, and the
+     *         selected method, if found
+     * @throws IOException                if a low-level I/O error occurs
+     * @throws DidDocumentReaderException if parsing or validation fails
+     * @see #read(InputStream, Predicate)
+     */
+    default DidDocument read(InputStream is, DidUrl target) throws IOException, DidDocumentReaderException {
+        Objects.requireNonNull(target);
+        return read(is, target::equals);
+    }
+
+    /**
+     * Reads only the verification methods whose id matches the given selector,
+     * and the relationships referencing them, from the given input stream.
+     * Services and {@code alsoKnownAs} values are skipped.
+     * <p>
+     * The default implementation reads the whole document and then filters it.
+     * Implementations parsing incrementally should override this method to skip
+     * unselected entries and to stop reading as soon as all the requested
+     * methods and their relationships are known.
+     * </p>
+     *
+     * @param is       input stream (must not be {@code null})
+     * @param selector verification method id selector (must not be
+     *                 {@code null})
+     * @return a document containing the {@code id}, {@code controller}, and the
+     *         selected methods
+     * @throws IOException                if a low-level I/O error occurs
+     * @throws DidDocumentReaderException if parsing or validation fails
+     */
+    default DidDocument read(InputStream is, Predicate<DidUrl> selector) throws IOException, DidDocumentReaderException {
+        Objects.requireNonNull(selector);
+        return select(read(is), selector);
+    }
+
+    /**
+     * Returns a copy of the given document containing only the verification
+     * methods whose id matches the selector, and relationships filtered to those
+     * methods.
+     *
+     * @param document the document to filter (must not be {@code null})
+     * @param selector verification method id selector (must not be
+     *                 {@code null})
+     * @return a new filtered document
+     */
+    static DidDocument select(final DidDocument document, final Predicate<DidUrl> selector) {
+
+        Objects.requireNonNull(document);
+        Objects.requireNonNull(selector);
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(document.id());
+
+        if (document.controller() != null) {
+            document.controller().forEach(builder::controller);
+        }
+
+        if (document.verification() != null) {
+            for (final DidVerificationMethod method : document.verification()) {
+                if (method != null && selector.test(method.id())) {
+                    builder.verification(method);
+                }
+            }
+        }
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            for (final DidVerificationMethod method : relationship.of(document)) {
+                if (method != null && selector.test(method.id())) {
+                    builder.relationship(relationship, method);
+                }
+            }
+        }
+
+        return builder.build();
+    }
 }
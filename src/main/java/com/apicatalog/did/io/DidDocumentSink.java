@@ -0,0 +1,38 @@
+package com.apicatalog.did.io;
+
+import java.io.IOException;
+
+import com.apicatalog.did.document.DidDocument;
+
+/**
+ * Receives documents read by a {@link DidDocumentPipeline}.
+ * <p>
+ * Calls are never concurrent, so implementations need not be thread-safe,
+ * though they may come from different threads.
+ * </p>
+ */
+@FunctionalInterface
+public interface DidDocumentSink {
+
+    /**
+     * Accepts a document.
+     *
+     * @param record   zero-based index of the record in the input
+     * @param document the document read
+     * @throws IOException if the document cannot be consumed, stops the pipeline
+     */
+    void accept(long record, DidDocument document) throws IOException;
+
+    /**
+     * Handles a record that could not be read. The default implementation
+     * rethrows the exception, which stops the pipeline; override to skip or
+     * collect invalid records.
+     *
+     * @param record zero-based index of the record in the input
+     * @param e      the read failure
+     * @throws DidDocumentReaderException to stop the pipeline
+     */
+    default void reject(long record, DidDocumentReaderException e) throws DidDocumentReaderException {
+        throw e;
+    }
+}
@@ -1,7 +1,11 @@
 package com.apicatalog.did.io;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
 
 import com.apicatalog.did.document.DidDocument;
 
@@ -30,4 +34,25 @@ public interface DidDocumentWriter {
      * @throws DidDocumentWriterException if serialization fails
      */
     void write(DidDocument document, OutputStream os) throws IOException, DidDocumentWriterException;
+
+    /**
+     * Writes the given DID Document to the provided channel. The channel is not
+     * closed.
+     * <p>
+     * The default implementation adapts the channel to a buffered
+     * {@link OutputStream}. Implementations able to encode directly into
+     * buffers should override this method.
+     * </p>
+     *
+     * @param document the DID Document to serialize (must not be {@code null})
+     * @param channel  the channel to write to (must not be {@code null})
+     * @throws IOException                if a low-level I/O error occurs
+     * @throws DidDocumentWriterException if serialization fails
+     */
+    default void write(DidDocument document, WritableByteChannel channel) throws IOException, DidDocumentWriterException {
+        Objects.requireNonNull(channel);
+        final OutputStream os = new BufferedOutputStream(Channels.newOutputStream(channel));
+        write(document, os);
+        os.flush();
+    }
 }
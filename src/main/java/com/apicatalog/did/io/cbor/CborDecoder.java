@@ -0,0 +1,381 @@
+package com.apicatalog.did.io.cbor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.apicatalog.did.io.DidDocumentReaderException;
+
+/**
+ * A minimal <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a> decoder
+ * accepting definite-length items only.
+ */
+final class CborDecoder {
+
+    /** Maximum number of bytes preallocated for a single item. */
+    static final int CHUNK = 8192;
+
+    /** Maximum nesting of generic values. */
+    static final int MAX_DEPTH = 64;
+
+    final InputStream is;
+    final byte[] buffer;
+
+    int position;
+    int limit;
+
+    CborDecoder(final InputStream is) {
+        this.is = is;
+        this.buffer = new byte[CHUNK];
+        this.position = 0;
+        this.limit = 0;
+    }
+
+    /**
+     * Returns the major type of the next item without consuming it, or
+     * {@link CborEncoder#SIMPLE} for simple values and floats.
+     */
+    int peekMajor() throws IOException {
+        return peek() >>> 5;
+    }
+
+    boolean peekNull() throws IOException {
+        return peek() == CborEncoder.NULL;
+    }
+
+    int readArray() throws IOException, DidDocumentReaderException {
+        return size(CborEncoder.ARRAY);
+    }
+
+    int readMap() throws IOException, DidDocumentReaderException {
+        return size(CborEncoder.MAP);
+    }
+
+    long readLong() throws IOException, DidDocumentReaderException {
+        final int initial = read();
+        final int major = initial >>> 5;
+        if (major == CborEncoder.UNSIGNED) {
+            return argument(initial);
+        }
+        if (major == CborEncoder.NEGATIVE) {
+            return -1 - argument(initial);
+        }
+        throw new DidDocumentReaderException("Expected an integer but got CBOR major type " + major + ".");
+    }
+
+    /**
+     * Reads a text string, or {@code null}.
+     */
+    String readText() throws IOException, DidDocumentReaderException {
+
+        final int initial = read();
+
+        if (initial == CborEncoder.NULL) {
+            return null;
+        }
+        if ((initial >>> 5) != CborEncoder.TEXT) {
+            throw new DidDocumentReaderException("Expected a text string but got CBOR major type " + (initial >>> 5) + ".");
+        }
+
+        final int length = length(initial);
+
+        // fast path, the whole string is buffered
+        if (length <= limit - position) {
+            final String text = decode(buffer, position, length);
+            position += length;
+            return text;
+        }
+
+        final byte[] bytes = bytes(length);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads a text string, {@code null} is rejected.
+     */
+    String readRequiredText() throws IOException, DidDocumentReaderException {
+
+        final String text = readText();
+
+        if (text == null) {
+            throw new DidDocumentReaderException("Expected a text string but got CBOR null.");
+        }
+        return text;
+    }
+
+    byte[] readBytes() throws IOException, DidDocumentReaderException {
+        final int initial = read();
+        if ((initial >>> 5) != CborEncoder.BYTES) {
+            throw new DidDocumentReaderException("Expected a byte string but got CBOR major type " + (initial >>> 5) + ".");
+        }
+        return bytes(length(initial));
+    }
+
+    /**
+     * Reads a generic value: {@code null}, {@link String}, {@link Boolean},
+     * {@link Long}, {@link Double}, {@code byte[]}, {@link List}, or {@link Map}.
+     */
+    Object readValue() throws IOException, DidDocumentReaderException {
+        return readValue(0);
+    }
+
+    Object readValue(final int depth) throws IOException, DidDocumentReaderException {
+
+        if (depth > MAX_DEPTH) {
+            throw new DidDocumentReaderException("CBOR value nesting exceeds " + MAX_DEPTH + " levels.");
+        }
+
+        final int initial = peek();
+
+        switch (initial >>> 5) {
+        case CborEncoder.UNSIGNED:
+        case CborEncoder.NEGATIVE:
+            return readLong();
+
+        case CborEncoder.BYTES:
+            return readBytes();
+
+        case CborEncoder.TEXT:
+            return readText();
+
+        case CborEncoder.ARRAY: {
+            final int size = readArray();
+            final List<Object> list = new ArrayList<>(Math.min(size, 16));
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(depth + 1));
+            }
+            return list;
+        }
+
+        case CborEncoder.MAP: {
+            final int size = readMap();
+            final Map<String, Object> map = new LinkedHashMap<>(Math.min(size, 16) * 2);
+            for (int i = 0; i < size; i++) {
+                final String key = readText();
+                map.put(key, readValue(depth + 1));
+            }
+            return map;
+        }
+
+        default:
+            read();
+            switch (initial) {
+            case CborEncoder.NULL:
+                return null;
+            case CborEncoder.TRUE:
+                return Boolean.TRUE;
+            case CborEncoder.FALSE:
+                return Boolean.FALSE;
+            case 0xF9:
+                return (double) halfToFloat((int) fixed(2));
+            case 0xFA:
+                return (double) Float.intBitsToFloat((int) fixed(4));
+            case CborEncoder.DOUBLE:
+                return Double.longBitsToDouble(fixed(8));
+            default:
+                throw new DidDocumentReaderException("Unsupported CBOR item [0x" + Integer.toHexString(initial) + "].");
+            }
+        }
+    }
+
+    /**
+     * Skips the next item without materializing it.
+     */
+    void skip() throws IOException, DidDocumentReaderException {
+        skip(0);
+    }
+
+    void skip(final int depth) throws IOException, DidDocumentReaderException {
+
+        if (depth > MAX_DEPTH) {
+            throw new DidDocumentReaderException("CBOR value nesting exceeds " + MAX_DEPTH + " levels.");
+        }
+
+        final int initial = read();
+
+        switch (initial >>> 5) {
+        case CborEncoder.UNSIGNED:
+        case CborEncoder.NEGATIVE:
+            argument(initial);
+            return;
+
+        case CborEncoder.BYTES:
+        case CborEncoder.TEXT:
+            skipBytes(length(initial));
+            return;
+
+        case CborEncoder.ARRAY: {
+            final int size = length(initial);
+            for (int i = 0; i < size; i++) {
+                skip(depth + 1);
+            }
+            return;
+        }
+
+        case CborEncoder.MAP: {
+            final long size = 2L * length(initial);
+            for (long i = 0; i < size; i++) {
+                skip(depth + 1);
+            }
+            return;
+        }
+
+        default:
+            switch (initial) {
+            case CborEncoder.NULL:
+            case CborEncoder.TRUE:
+            case CborEncoder.FALSE:
+                return;
+            case 0xF9:
+                skipBytes(2);
+                return;
+            case 0xFA:
+                skipBytes(4);
+                return;
+            case CborEncoder.DOUBLE:
+                skipBytes(8);
+                return;
+            default:
+                throw new DidDocumentReaderException("Unsupported CBOR item [0x" + Integer.toHexString(initial) + "].");
+            }
+        }
+    }
+
+    int size(final int major) throws IOException, DidDocumentReaderException {
+        final int initial = read();
+        if ((initial >>> 5) != major) {
+            throw new DidDocumentReaderException("Expected CBOR major type " + major + " but got " + (initial >>> 5) + ".");
+        }
+        return length(initial);
+    }
+
+    int length(final int initial) throws IOException, DidDocumentReaderException {
+        final long length = argument(initial);
+        if (length > Integer.MAX_VALUE) {
+            throw new DidDocumentReaderException("CBOR item length " + length + " is too large.");
+        }
+        return (int) length;
+    }
+
+    long argument(final int initial) throws IOException, DidDocumentReaderException {
+
+        final int info = initial & 0x1F;
+
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+        case 24:
+            return fixed(1);
+        case 25:
+            return fixed(2);
+        case 26:
+            return fixed(4);
+        case 27:
+            final long value = fixed(8);
+            if (value < 0) {
+                throw new DidDocumentReaderException("CBOR integer is out of range.");
+            }
+            return value;
+        default:
+            throw new DidDocumentReaderException("Unsupported CBOR additional information [" + info + "], indefinite lengths are not supported.");
+        }
+    }
+
+    long fixed(final int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | read();
+        }
+        return value;
+    }
+
+    /**
+     * Reads exactly {@code length} bytes, growing the result in chunks so a
+     * forged length cannot trigger a large allocation up front.
+     */
+    byte[] bytes(final int length) throws IOException {
+
+        byte[] bytes = new byte[Math.min(length, CHUNK)];
+        int count = 0;
+
+        while (count < length) {
+            if (count == bytes.length) {
+                final byte[] grown = new byte[(int) Math.min(length, bytes.length * 2L)];
+                System.arraycopy(bytes, 0, grown, 0, count);
+                bytes = grown;
+            }
+            if (position == limit) {
+                fill();
+            }
+            final int n = Math.min(bytes.length - count, limit - position);
+            System.arraycopy(buffer, position, bytes, count, n);
+            position += n;
+            count += n;
+        }
+        return bytes;
+    }
+
+    void skipBytes(final int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            if (position == limit) {
+                fill();
+            }
+            final int n = Math.min(remaining, limit - position);
+            position += n;
+            remaining -= n;
+        }
+    }
+
+    int peek() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    int read() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    void fill() throws IOException {
+        final int n = is.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            throw new EOFException("Unexpected end of CBOR input.");
+        }
+        position = 0;
+        limit = n;
+    }
+
+    static final String decode(final byte[] bytes, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0) {
+                return new String(bytes, offset, length, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    static final float halfToFloat(final int half) {
+        final int exponent = (half >>> 10) & 0x1F;
+        final int mantissa = half & 0x3FF;
+        final float value;
+        if (exponent == 0) {
+            value = mantissa * (float) Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (mantissa + 1024) * (float) Math.pow(2, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
@@ -0,0 +1,333 @@
+package com.apicatalog.did.io.cbor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.io.DidDocumentFormats;
+import com.apicatalog.did.io.DidDocumentReader;
+import com.apicatalog.did.io.DidDocumentReaderException;
+
+/**
+ * Reads a {@link DidDocument} from the compact binary CBOR representation,
+ * {@code application/did+cbor}, produced by {@link CborDidDocumentWriter}.
+ * <p>
+ * DIDs and DID URLs are validated as they are decoded. Selective reads, see
+ * {@link #read(InputStream, Predicate)}, skip unselected entries and stop
+ * before the services.
+ * </p>
+ *
+ * @see CborDidDocumentWriter
+ */
+public final class CborDidDocumentReader implements DidDocumentReader {
+
+    static final CborDidDocumentReader INSTANCE = new CborDidDocumentReader();
+
+    CborDidDocumentReader() {
+        // use getInstance()
+    }
+
+    /**
+     * Returns the shared, thread-safe reader instance.
+     *
+     * @return the reader
+     */
+    public static CborDidDocumentReader getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String contentType() {
+        return DidDocumentFormats.CBOR;
+    }
+
+    @Override
+    public DidDocument read(final InputStream is) throws IOException, DidDocumentReaderException {
+
+        Objects.requireNonNull(is);
+
+        try {
+            return read(new CborDecoder(is));
+
+        } catch (IllegalArgumentException | ClassCastException | IndexOutOfBoundsException e) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the selected verification methods and the relationships referencing
+     * them. Unselected methods are skipped without decoding their keys, and
+     * reading stops after the relationships, before the services.
+     */
+    @Override
+    public DidDocument read(final InputStream is, final Predicate<DidUrl> selector) throws IOException, DidDocumentReaderException {
+
+        Objects.requireNonNull(is);
+        Objects.requireNonNull(selector);
+
+        try {
+            return read(new CborDecoder(is), selector);
+
+        } catch (IllegalArgumentException | ClassCastException | IndexOutOfBoundsException e) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document: " + e.getMessage(), e);
+        }
+    }
+
+    static final DidDocument read(final CborDecoder decoder) throws IOException, DidDocumentReaderException {
+
+        final Did id = readId(decoder);
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(id);
+
+        int count = decoder.readArray();
+        for (int i = 0; i < count; i++) {
+            builder.controller(readDid(id, decoder));
+        }
+
+        count = decoder.readArray();
+        final List<DidVerificationMethod> methods = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            final DidVerificationMethod method = readMethod(id, decoder);
+            methods.add(method);
+            builder.verification(method);
+        }
+
+        count = decoder.readArray();
+        for (int i = 0; i < count; i++) {
+            builder.alsoKnownAs(URI.create(decoder.readRequiredText()));
+        }
+
+        readRelationships(id, decoder, methods, null, builder);
+
+        count = decoder.readArray();
+        for (int i = 0; i < count; i++) {
+            builder.service(readService(decoder));
+        }
+
+        return builder.build();
+    }
+
+    static final DidDocument read(final CborDecoder decoder, final Predicate<DidUrl> selector) throws IOException, DidDocumentReaderException {
+
+        final Did id = readId(decoder);
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(id);
+
+        int count = decoder.readArray();
+        for (int i = 0; i < count; i++) {
+            builder.controller(readDid(id, decoder));
+        }
+
+        // unselected methods keep their positions as null
+        count = decoder.readArray();
+        final List<DidVerificationMethod> methods = new ArrayList<>(Math.min(count, 64));
+        for (int i = 0; i < count; i++) {
+            final DidVerificationMethod method = readMethod(id, decoder, selector);
+            methods.add(method);
+            if (method != null) {
+                builder.verification(method);
+            }
+        }
+
+        // alsoKnownAs
+        decoder.skip();
+
+        readRelationships(id, decoder, methods, selector, builder);
+
+        // services are not read
+        return builder.build();
+    }
+
+    static final Did readId(final CborDecoder decoder) throws IOException, DidDocumentReaderException {
+
+        final int size = decoder.readArray();
+
+        if (size != 6 + VerificationRelationship.values().length) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, expected an array of "
+                    + (6 + VerificationRelationship.values().length) + " items but got " + size + ".");
+        }
+
+        final long version = decoder.readLong();
+
+        if (version != CborDidDocumentWriter.VERSION) {
+            throw new DidDocumentReaderException("Unsupported CBOR DID document version [" + version + "].");
+        }
+
+        if (decoder.readArray() != 2) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, the document id must be absolute.");
+        }
+
+        final String methodName = decoder.readRequiredText();
+        final String methodSpecificId = decoder.readRequiredText();
+
+        Did.validate(methodName, methodSpecificId);
+
+        return Did.of(methodName, methodSpecificId);
+    }
+
+    /**
+     * Reads the relationships, a {@code null} selector selects all methods.
+     */
+    static final void readRelationships(
+            final Did id,
+            final CborDecoder decoder,
+            final List<DidVerificationMethod> methods,
+            final Predicate<DidUrl> selector,
+            final DidDocumentBuilder builder) throws IOException, DidDocumentReaderException {
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            final int count = decoder.readArray();
+            for (int i = 0; i < count; i++) {
+
+                final DidVerificationMethod method;
+
+                if (decoder.peekMajor() == CborEncoder.UNSIGNED) {
+                    final long index = decoder.readLong();
+                    if (index >= methods.size()) {
+                        throw new DidDocumentReaderException("Invalid CBOR DID document, " + relationship.term() + " references an unknown method [" + index + "].");
+                    }
+                    method = methods.get((int) index);
+                } else {
+                    method = readMethod(id, decoder, selector);
+                }
+
+                if (method != null) {
+                    builder.relationship(relationship, method);
+                }
+            }
+        }
+    }
+
+    static final DidVerificationMethod readMethod(final Did base, final CborDecoder decoder) throws IOException, DidDocumentReaderException {
+        return readMethod(base, decoder, null);
+    }
+
+    /**
+     * Reads a verification method, or skips it and returns {@code null} if its
+     * id is not selected. A {@code null} selector selects all methods.
+     */
+    @SuppressWarnings("unchecked")
+    static final DidVerificationMethod readMethod(final Did base, final CborDecoder decoder, final Predicate<DidUrl> selector) throws IOException, DidDocumentReaderException {
+
+        if (decoder.readArray() != 4) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, a verification method must be an array of 4 items.");
+        }
+
+        final Did id = readDid(base, decoder);
+
+        if (!id.isDidUrl()) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, a verification method id [" + id + "] must be a DID URL.");
+        }
+
+        if (selector != null && !selector.test(id.asDidUrl())) {
+            // type, controller, key
+            decoder.skip();
+            decoder.skip();
+            decoder.skip();
+            return null;
+        }
+
+        final String type = decoder.readText();
+
+        if (type == null || decoder.peekNull()) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, a verification method [" + id + "] must have a type and a controller.");
+        }
+
+        final Did controller = readDid(base, decoder);
+
+        switch (decoder.peekMajor()) {
+        case CborEncoder.ARRAY:
+            if (decoder.readArray() != 2) {
+                throw new DidDocumentReaderException("Invalid CBOR DID document, a multibase key must be an array of 2 items.");
+            }
+            final String baseName = decoder.readRequiredText();
+            return DidVerificationMethod.multibase(
+                    id.asDidUrl(),
+                    type,
+                    controller,
+                    MultibaseEncoded.of(baseName, decoder.readBytes()));
+
+        case CborEncoder.MAP:
+            return DidVerificationMethod.jwk(
+                    id.asDidUrl(),
+                    type,
+                    controller,
+                    Collections.unmodifiableMap((Map<String, Object>) decoder.readValue()));
+
+        default:
+            decoder.readValue();
+            return DidVerificationMethod.jwk(id.asDidUrl(), type, controller, null);
+        }
+    }
+
+    static final DidService readService(final CborDecoder decoder) throws IOException, DidDocumentReaderException {
+
+        if (decoder.readArray() != 3) {
+            throw new DidDocumentReaderException("Invalid CBOR DID document, a service must be an array of 3 items.");
+        }
+
+        final String id = decoder.readText();
+
+        int count = decoder.readArray();
+        final List<String> types = new ArrayList<>(Math.min(count, 16));
+        for (int i = 0; i < count; i++) {
+            types.add(decoder.readRequiredText());
+        }
+
+        count = decoder.readArray();
+        final List<DidServiceEndpoint> endpoints = new ArrayList<>(Math.min(count, 16));
+        for (int i = 0; i < count; i++) {
+            endpoints.add(DidServiceEndpoint.of(URI.create(decoder.readRequiredText())));
+        }
+
+        return DidService.of(
+                id != null ? URI.create(id) : null,
+                Collections.unmodifiableList(types),
+                Collections.unmodifiableList(endpoints));
+    }
+
+    static final Did readDid(final Did base, final CborDecoder decoder) throws IOException, DidDocumentReaderException {
+
+        final int size = decoder.readArray();
+
+        switch (size) {
+        case 0:
+            return base;
+
+        case 2: {
+            final String methodName = decoder.readRequiredText();
+            final String methodSpecificId = decoder.readRequiredText();
+            Did.validate(methodName, methodSpecificId);
+            return Did.of(methodName, methodSpecificId);
+        }
+
+        case 3:
+            return DidUrl.of(base, decoder.readText(), decoder.readText(), decoder.readText());
+
+        case 5: {
+            final String methodName = decoder.readRequiredText();
+            final String methodSpecificId = decoder.readRequiredText();
+            Did.validate(methodName, methodSpecificId);
+            return DidUrl.of(methodName, methodSpecificId, decoder.readText(), decoder.readText(), decoder.readText());
+        }
+
+        default:
+            throw new DidDocumentReaderException("Invalid CBOR DID document, a DID must be an array of 0, 2, 3, or 5 items but got " + size + ".");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.apicatalog.did.io.cbor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.io.DidDocumentFormats;
+import com.apicatalog.did.io.DidDocumentWriter;
+import com.apicatalog.did.io.DidDocumentWriterException;
+
+/**
+ * Writes a {@link DidDocument} in a compact binary
+ * <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a> representation,
+ * {@code application/did+cbor}.
+ * <p>
+ * The representation is a positional CBOR array:
+ * </p>
+ *
+ * <pre>{@code
+ * document     = [ version, [ method-name, method-specific-id ], [* did], [* method], [* text], 5 relationship, [* service] ]
+ * relationship = [* (uint / method)]   ; uint is an index into the methods
+ * method       = [ did-url, type, did, key ]
+ * key          = null / [ base-name, bytes ] / { * text => any }  ; multibase / jwk
+ * service      = [ text, [* text], [* text] ]
+ * did          = [ ] / [ method-name, method-specific-id ]
+ * did-url      = [ path, query, fragment ] / [ method-name, method-specific-id, path, query, fragment ]
+ * }</pre>
+ * <p>
+ * DIDs and DID URLs are encoded structurally, and those sharing the document
+ * {@code id} omit the method name and method-specific-id. Multibase keys are
+ * stored as raw bytes with the base name. Relationship entries equal to a
+ * listed verification method are stored as indices into the method list.
+ * </p>
+ *
+ * @see CborDidDocumentReader
+ */
+public final class CborDidDocumentWriter implements DidDocumentWriter {
+
+    static final int VERSION = 1;
+
+    static final CborDidDocumentWriter INSTANCE = new CborDidDocumentWriter();
+
+    CborDidDocumentWriter() {
+        // use getInstance()
+    }
+
+    /**
+     * Returns the shared, thread-safe writer instance.
+     *
+     * @return the writer
+     */
+    public static CborDidDocumentWriter getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String contentType() {
+        return DidDocumentFormats.CBOR;
+    }
+
+    @Override
+    public void write(final DidDocument document, final OutputStream os) throws IOException, DidDocumentWriterException {
+
+        Objects.requireNonNull(document);
+        Objects.requireNonNull(os);
+
+        if (document.id() == null) {
+            throw new DidDocumentWriterException("The DID document has no id.");
+        }
+
+        final CborEncoder encoder = new CborEncoder(os);
+
+        try {
+            write(document, encoder);
+
+        } catch (IllegalArgumentException e) {
+            throw new DidDocumentWriterException(e.getMessage(), e);
+        }
+
+        encoder.flush();
+    }
+
+    static final void write(final DidDocument document, final CborEncoder encoder) throws IOException, DidDocumentWriterException {
+
+        final Did id = document.id();
+
+        encoder.writeArray(6 + VerificationRelationship.values().length)
+                .writeLong(VERSION);
+
+        // the document id is always absolute
+        encoder.writeArray(2)
+                .writeText(id.getMethod())
+                .writeText(id.getMethodSpecificId());
+
+        final Collection<Did> controllers = nonNull(document.controller());
+        encoder.writeArray(controllers.size());
+        for (final Did controller : controllers) {
+            writeDid(id, controller, encoder);
+        }
+
+        final Collection<DidVerificationMethod> methods = nonNull(document.verification());
+        final Map<DidUrl, Integer> indices = new HashMap<>(methods.size() * 2);
+        final DidVerificationMethod[] listed = methods.toArray(new DidVerificationMethod[methods.size()]);
+
+        encoder.writeArray(listed.length);
+        for (int index = 0; index < listed.length; index++) {
+            // the first method with an id is referenced
+            if (listed[index].id() != null) {
+                indices.putIfAbsent(listed[index].id(), index);
+            }
+            writeMethod(id, listed[index], encoder);
+        }
+
+        final Collection<URI> alsoKnownAs = nonNull(document.alsoKnownAs());
+        encoder.writeArray(alsoKnownAs.size());
+        for (final URI uri : alsoKnownAs) {
+            encoder.writeText(uri.toString());
+        }
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+
+            final Collection<DidVerificationMethod> references = relationship.of(document);
+
+            encoder.writeArray(references.size());
+
+            for (final DidVerificationMethod method : references) {
+                final Integer index = method.id() != null
+                        ? indices.get(method.id())
+                        : null;
+                // an embedded method sharing a listed id is written in full
+                if (index != null && DidVerificationMethod.equals(listed[index], method)) {
+                    encoder.writeLong(index);
+                } else {
+                    writeMethod(id, method, encoder);
+                }
+            }
+        }
+
+        final Collection<DidService> services = nonNull(document.service());
+        encoder.writeArray(services.size());
+        for (final DidService service : services) {
+            writeService(service, encoder);
+        }
+    }
+
+    static final void writeMethod(final Did base, final DidVerificationMethod method, final CborEncoder encoder) throws IOException, DidDocumentWriterException {
+
+        if (method.id() == null) {
+            throw new DidDocumentWriterException("A verification method has no id.");
+        }
+
+        // CborDidDocumentReader rejects methods without a type or a controller
+        if (method.type() == null || method.controller() == null) {
+            throw new DidDocumentWriterException("A verification method [" + method.id() + "] must have a type and a controller.");
+        }
+
+        encoder.writeArray(4);
+
+        writeDid(base, method.id(), encoder);
+        encoder.writeText(method.type());
+        writeDid(base, method.controller(), encoder);
+
+        final MultibaseEncoded multibase = method.publicKeyMultibase();
+
+        if (multibase != null) {
+            encoder.writeArray(2)
+                    .writeText(multibase.baseName())
+                    .writeBytes(multibase.debased());
+
+        } else if (method.publicKeyJwk() != null) {
+            encoder.writeValue(method.publicKeyJwk());
+
+        } else {
+            encoder.writeNull();
+        }
+    }
+
+    static final void writeService(final DidService service, final CborEncoder encoder) throws IOException {
+
+        encoder.writeArray(3)
+                .writeText(service.id() != null ? service.id().toString() : null);
+
+        final Collection<String> types = nonNull(service.type());
+        encoder.writeArray(types.size());
+        for (final String type : types) {
+            encoder.writeText(type);
+        }
+
+        final Collection<DidServiceEndpoint> endpoints = nonNull(service.endpoint());
+        encoder.writeArray(endpoints.size());
+        for (final DidServiceEndpoint endpoint : endpoints) {
+            encoder.writeText(endpoint.id() != null ? endpoint.id().toString() : null);
+        }
+    }
+
+    static final void writeDid(final Did base, final Did did, final CborEncoder encoder) throws IOException {
+
+        final boolean relative = base.getMethod().equals(did.getMethod())
+                && base.getMethodSpecificId().equals(did.getMethodSpecificId());
+
+        if (!did.isDidUrl()) {
+            if (relative) {
+                encoder.writeArray(0);
+            } else {
+                encoder.writeArray(2)
+                        .writeText(did.getMethod())
+                        .writeText(did.getMethodSpecificId());
+            }
+            return;
+        }
+
+        final DidUrl url = did.asDidUrl();
+
+        if (relative) {
+            encoder.writeArray(3);
+        } else {
+            encoder.writeArray(5)
+                    .writeText(did.getMethod())
+                    .writeText(did.getMethodSpecificId());
+        }
+
+        encoder.writeText(url.getPath())
+                .writeText(url.getQuery())
+                .writeText(url.getFragment());
+    }
+
+    static final <T> Collection<T> nonNull(final Collection<T> collection) {
+        return collection != null ? collection : Collections.emptySet();
+    }
+}
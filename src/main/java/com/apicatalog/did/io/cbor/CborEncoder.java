@@ -0,0 +1,220 @@
+package com.apicatalog.did.io.cbor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A minimal <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a> encoder
+ * producing definite-length items only.
+ */
+final class CborEncoder {
+
+    static final int UNSIGNED = 0;
+    static final int NEGATIVE = 1;
+    static final int BYTES = 2;
+    static final int TEXT = 3;
+    static final int ARRAY = 4;
+    static final int MAP = 5;
+    static final int SIMPLE = 7;
+
+    static final int FALSE = 0xF4;
+    static final int TRUE = 0xF5;
+    static final int NULL = 0xF6;
+    static final int DOUBLE = 0xFB;
+
+    final OutputStream os;
+    final byte[] buffer;
+
+    int position;
+
+    CborEncoder(final OutputStream os) {
+        this.os = os;
+        this.buffer = new byte[8192];
+        this.position = 0;
+    }
+
+    CborEncoder writeArray(final int size) throws IOException {
+        header(ARRAY, size);
+        return this;
+    }
+
+    CborEncoder writeMap(final int size) throws IOException {
+        header(MAP, size);
+        return this;
+    }
+
+    CborEncoder writeNull() throws IOException {
+        write(NULL);
+        return this;
+    }
+
+    CborEncoder writeBoolean(final boolean value) throws IOException {
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    CborEncoder writeLong(final long value) throws IOException {
+        if (value >= 0) {
+            header(UNSIGNED, value);
+        } else {
+            header(NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    CborEncoder writeDouble(final double value) throws IOException {
+        write(DOUBLE);
+        final long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            write((int) (bits >>> shift));
+        }
+        return this;
+    }
+
+    CborEncoder writeBytes(final byte[] value) throws IOException {
+        header(BYTES, value.length);
+        write(value, 0, value.length);
+        return this;
+    }
+
+    /**
+     * Writes a text string, or {@code null}.
+     */
+    CborEncoder writeText(final String value) throws IOException {
+
+        if (value == null) {
+            return writeNull();
+        }
+
+        // fast path for ASCII, the common case for DIDs
+        final int length = value.length();
+
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+
+        if (!ascii) {
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            header(TEXT, utf8.length);
+            write(utf8, 0, utf8.length);
+            return this;
+        }
+
+        header(TEXT, length);
+        for (int i = 0; i < length; i++) {
+            write(value.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Writes a generic value, e.g. a JWK member: {@code null}, {@link String},
+     * {@link Boolean}, {@link Number}, {@code byte[]}, {@link Collection}, or
+     * {@link Map} with {@link String} keys.
+     */
+    CborEncoder writeValue(final Object value) throws IOException {
+
+        if (value == null) {
+            return writeNull();
+        }
+        if (value instanceof String) {
+            return writeText((String) value);
+        }
+        if (value instanceof Boolean) {
+            return writeBoolean((Boolean) value);
+        }
+        if (value instanceof Long
+                || value instanceof Integer
+                || value instanceof Short
+                || value instanceof Byte) {
+            return writeLong(((Number) value).longValue());
+        }
+        if (value instanceof Number) {
+            return writeDouble(((Number) value).doubleValue());
+        }
+        if (value instanceof byte[]) {
+            return writeBytes((byte[]) value);
+        }
+        if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            writeArray(collection.size());
+            for (final Object item : collection) {
+                writeValue(item);
+            }
+            return this;
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            writeMap(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeText(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+            return this;
+        }
+        throw new IllegalArgumentException("Unsupported value type [" + value.getClass() + "].");
+    }
+
+    void flush() throws IOException {
+        if (position > 0) {
+            os.write(buffer, 0, position);
+            position = 0;
+        }
+        os.flush();
+    }
+
+    void header(final int major, final long value) throws IOException {
+
+        final int type = major << 5;
+
+        if (value < 24) {
+            write(type | (int) value);
+
+        } else if (value <= 0xFFL) {
+            write(type | 24);
+            write((int) value);
+
+        } else if (value <= 0xFFFFL) {
+            write(type | 25);
+            write((int) (value >>> 8));
+            write((int) value);
+
+        } else if (value <= 0xFFFFFFFFL) {
+            write(type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+
+        } else {
+            write(type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+    }
+
+    void write(final int value) throws IOException {
+        if (position == buffer.length) {
+            os.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void write(final byte[] value, final int offset, final int length) throws IOException {
+        if (length > buffer.length - position) {
+            os.write(buffer, 0, position);
+            position = 0;
+            if (length > buffer.length) {
+                os.write(value, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(value, offset, buffer, position, length);
+        position += length;
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Compact binary <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a>
+ * representation of DID Documents, {@code application/did+cbor}.
+ * <p>
+ * Provides {@link com.apicatalog.did.io.cbor.CborDidDocumentReader} and
+ * {@link com.apicatalog.did.io.cbor.CborDidDocumentWriter} suited to caching
+ * documents and exchanging them between services.
+ * </p>
+ */
+package com.apicatalog.did.io.cbor;
@@ -2,7 +2,10 @@
  * I/O interfaces for DID Documents.
  * <p>
  * Defines readers and writers for serializing and parsing DID Documents in
- * different representations (e.g. JSON-LD, CBOR).
+ * different representations (e.g. JSON-LD, CBOR),
+ * {@link com.apicatalog.did.io.DidDocumentFormats} to dispatch on content
+ * types, and {@link com.apicatalog.did.io.DidDocumentPipeline} to read newline
+ * delimited documents in parallel.
  * </p>
  */
 package com.apicatalog.did.io;
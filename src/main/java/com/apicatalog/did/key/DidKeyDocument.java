@@ -0,0 +1,64 @@
+package com.apicatalog.did.key;
+
+import java.util.Collection;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidVerificationMethod;
+
+/**
+ * A did:key document, the signature relationships share one immutable set.
+ */
+final class DidKeyDocument implements DidDocument {
+
+    final Did id;
+    final Collection<DidVerificationMethod> verification;
+    final Collection<DidVerificationMethod> signature;
+    final Collection<DidVerificationMethod> keyAgreement;
+
+    DidKeyDocument(
+            final Did id,
+            final Collection<DidVerificationMethod> verification,
+            final Collection<DidVerificationMethod> signature,
+            final Collection<DidVerificationMethod> keyAgreement) {
+        this.id = id;
+        this.verification = verification;
+        this.signature = signature;
+        this.keyAgreement = keyAgreement;
+    }
+
+    @Override
+    public Did id() {
+        return id;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> verification() {
+        return verification;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> authentication() {
+        return signature;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> assertion() {
+        return signature;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> keyAgreement() {
+        return keyAgreement;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> capabilityInvocation() {
+        return signature;
+    }
+
+    @Override
+    public Collection<DidVerificationMethod> capabilityDelegation() {
+        return signature;
+    }
+}
@@ -0,0 +1,148 @@
+package com.apicatalog.did.key;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.datatype.Multibase;
+import com.apicatalog.did.datatype.Multicodec;
+import com.apicatalog.did.datatype.UnsignedVarint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+import com.apicatalog.did.resolver.DidResolver;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+
+/**
+ * A native <a href="https://w3c-ccg.github.io/did-method-key/">did:key</a>
+ * resolver.
+ * <p>
+ * A document is expanded from the method-specific-id alone, without any I/O.
+ * The id is decoded once into a per-thread scratch buffer to validate the key,
+ * and the document is then assembled from a precomputed template of the key
+ * type, carrying the validated bytes, with all verification relationships
+ * sharing a single immutable set.
+ * </p>
+ *
+ * <pre>{@code
+ * DidResolver resolver = DidMethodResolver
+ *         .with(DidKeyResolver.METHOD, DidKeyResolver.getInstance())
+ *         .build();
+ * }</pre>
+ */
+public final class DidKeyResolver implements DidResolver {
+
+    /** The did:key method name. */
+    public static final String METHOD = "key";
+
+    /** The verification method type of all generated keys. */
+    public static final String MULTIKEY = "Multikey";
+
+    /** An upper bound of the method-specific-id length, fits rsa-pub 4096. */
+    static final int MAX_LENGTH = 1024;
+
+    static final DidKeyResolver INSTANCE = new DidKeyResolver();
+
+    static final DidKeyTemplate[] TEMPLATES = new DidKeyTemplate[Multicodec.values().length];
+
+    static {
+        for (final Multicodec codec : Multicodec.values()) {
+            TEMPLATES[codec.ordinal()] = codec == Multicodec.X25519PublicKey
+                    ? DidKeyTemplate.agreement(codec, MULTIKEY)
+                    : DidKeyTemplate.signature(codec, MULTIKEY);
+        }
+    }
+
+    // base58 never decodes to more bytes than characters
+    static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[MAX_LENGTH]);
+
+    DidKeyResolver() {
+        // use getInstance()
+    }
+
+    /**
+     * Returns the shared, thread-safe resolver instance.
+     *
+     * @return the resolver
+     */
+    public static DidKeyResolver getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ResolvedDidDocument resolve(final Did did) throws DidResolutionException {
+
+        Objects.requireNonNull(did);
+
+        if (!METHOD.equals(did.getMethod())) {
+            throw new DidResolutionException(did.toString(), Code.UnsupportedMethod, "Expected did:key but got did:" + did.getMethod() + ".");
+        }
+
+        final String msi = did.getMethodSpecificId();
+
+        final byte[] key = decode(did, msi);
+
+        final Did id = did.isDidUrl()
+                ? Did.of(METHOD, msi)
+                : did;
+
+        return ResolvedDidDocument.of(TEMPLATES[codec(did, key).ordinal()].document(id, msi, key));
+    }
+
+    /**
+     * Decodes the key encoded in the method-specific-id, the scratch buffer
+     * avoids sizing the result before its length is known.
+     */
+    static final byte[] decode(final Did did, final String msi) throws DidResolutionException {
+
+        if (msi.length() < 2 || msi.length() > MAX_LENGTH || msi.charAt(0) != Multibase.Base58Btc.prefix()) {
+            throw new DidResolutionException(did.toString(), Code.InvalidDid, "The method-specific-id must be a base58btc multibase value.");
+        }
+
+        final byte[] scratch = SCRATCH.get();
+
+        try {
+            return Arrays.copyOf(scratch, Multibase.Base58Btc.decode(msi, scratch, 0));
+
+        } catch (IllegalArgumentException e) {
+            throw new DidResolutionException(did.toString(), Code.InvalidDid, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validates the key type and length of the decoded key.
+     */
+    static final Multicodec codec(final Did did, final byte[] key) throws DidResolutionException {
+
+        try {
+            final long code = UnsignedVarint.read(key, 0, key.length);
+            final Multicodec codec = Multicodec.of(code);
+
+            if (codec == null) {
+                throw new DidResolutionException(did.toString(), Code.InvalidDid, "Unsupported key type [0x" + Long.toHexString(code) + "].");
+            }
+
+            final int size = key.length - UnsignedVarint.size(code);
+
+            if (codec.length() != -1 && codec.length() != size) {
+                throw new DidResolutionException(did.toString(), Code.InvalidDid, "Invalid " + codec.codecName() + " key length " + size + ", expected " + codec.length() + " bytes.");
+            }
+            return codec;
+
+        } catch (IllegalArgumentException e) {
+            throw new DidResolutionException(did.toString(), Code.InvalidDid, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the verification method of the given did:key, the method id is
+     * {@code did:key:<msi>#<msi>}.
+     *
+     * @param did a did:key (must not be {@code null})
+     * @return the verification method
+     * @throws DidResolutionException if the DID is not a valid did:key
+     */
+    public DidVerificationMethod method(final Did did) throws DidResolutionException {
+        return resolve(did).document().verification().iterator().next();
+    }
+}
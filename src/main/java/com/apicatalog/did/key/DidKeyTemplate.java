@@ -0,0 +1,52 @@
+package com.apicatalog.did.key;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.Multibase;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.datatype.Multicodec;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidVerificationMethod;
+
+/**
+ * Precomputed shape of a did:key document for a key type.
+ */
+final class DidKeyTemplate {
+
+    final Multicodec codec;
+    final String type;
+
+    /** signature keys, otherwise key agreement keys */
+    final boolean signature;
+
+    DidKeyTemplate(final Multicodec codec, final String type, final boolean signature) {
+        this.codec = codec;
+        this.type = type;
+        this.signature = signature;
+    }
+
+    static final DidKeyTemplate signature(final Multicodec codec, final String type) {
+        return new DidKeyTemplate(codec, type, true);
+    }
+
+    static final DidKeyTemplate agreement(final Multicodec codec, final String type) {
+        return new DidKeyTemplate(codec, type, false);
+    }
+
+    DidDocument document(final Did id, final String msi, final byte[] key) {
+
+        final Collection<DidVerificationMethod> methods = Collections.singleton(
+                DidVerificationMethod.multibase(
+                        DidUrl.fragment(id, msi),
+                        type,
+                        id,
+                        MultibaseEncoded.of(Multibase.Base58Btc, msi, key)));
+
+        return signature
+                ? new DidKeyDocument(id, methods, methods, Collections.emptySet())
+                : new DidKeyDocument(id, methods, Collections.emptySet(), methods);
+    }
+}
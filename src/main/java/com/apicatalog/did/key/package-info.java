@@ -0,0 +1,9 @@
+/**
+ * A native resolver of the
+ * <a href="https://w3c-ccg.github.io/did-method-key/">did:key</a> method.
+ * <ul>
+ * <li>{@link com.apicatalog.did.key.DidKeyResolver} — expands a did:key into a
+ * DID Document without I/O</li>
+ * </ul>
+ */
+package com.apicatalog.did.key;
@@ -5,8 +5,9 @@
  * <p>
  * Provides immutable representations of bare DIDs
  * ({@link com.apicatalog.did.Did}) and DID URLs
- * ({@link com.apicatalog.did.DidUrl}), along with validation and conversion
- * utilities.
+ * ({@link com.apicatalog.did.DidUrl}) with their query parameters
+ * ({@link com.apicatalog.did.DidUrlParameters}), along with validation and
+ * conversion utilities.
  * </p>
  */
 package com.apicatalog.did;
@@ -0,0 +1,469 @@
+package com.apicatalog.did.peer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.Multibase;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.datatype.Multicodec;
+import com.apicatalog.did.datatype.MulticodecEncoded;
+import com.apicatalog.did.datatype.UnsignedVarint;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.io.DidDocumentReader;
+import com.apicatalog.did.io.DidDocumentReaderException;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+import com.apicatalog.did.resolver.DidResolver;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+
+/**
+ * A <a href="https://identity.foundation/peer-did-method-spec/">did:peer</a>
+ * resolver supporting numalgo 0, 2, and 4.
+ * <ul>
+ * <li>numalgo 0 — a single inception key, expanded like a did:key</li>
+ * <li>numalgo 2 — keys and services encoded inline, decoded in a single pass
+ * over the method-specific-id</li>
+ * <li>numalgo 4 — a hash-bound encoded document, read by a configured
+ * {@link DidDocumentReader}. Resolving a long form DID memoizes the read
+ * document, so its short form resolves afterwards too, and repeated
+ * resolutions skip hashing and reading.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * DidResolver resolver = DidPeerResolver.with(jsonReader).cache(1000).build();
+ * }</pre>
+ */
+public final class DidPeerResolver implements DidResolver {
+
+    /** The did:peer method name. */
+    public static final String METHOD = "peer";
+
+    /** The verification method type of inline keys. */
+    public static final String MULTIKEY = "Multikey";
+
+    /** The {@code json} multicodec code prefixing numalgo 4 documents. */
+    static final long JSON = 0x0200;
+
+    /** The {@code sha2-256} multihash prefix of numalgo 4 hashes. */
+    static final byte[] SHA_256 = { 0x12, 0x20 };
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    static final DidPeerResolver INSTANCE = new DidPeerResolver(null, null);
+
+    final DidDocumentReader reader;
+
+    /** short form method-specific-id to a read long form document */
+    final Map<String, LongForm> longForms;
+
+    DidPeerResolver(final DidDocumentReader reader, final Map<String, LongForm> longForms) {
+        this.reader = reader;
+        this.longForms = longForms;
+    }
+
+    /**
+     * Returns a shared resolver of numalgo 0 and 2.
+     *
+     * @return the resolver
+     */
+    public static DidPeerResolver getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public ResolvedDidDocument resolve(final Did did) throws DidResolutionException {
+
+        Objects.requireNonNull(did);
+
+        if (!METHOD.equals(did.getMethod())) {
+            throw new DidResolutionException(did.toString(), Code.UnsupportedMethod, "Expected did:peer but got did:" + did.getMethod() + ".");
+        }
+
+        final String msi = did.getMethodSpecificId();
+
+        final Did id = did.isDidUrl()
+                ? Did.of(METHOD, msi)
+                : did;
+
+        try {
+            switch (msi.charAt(0)) {
+            case '0':
+                return ResolvedDidDocument.of(numalgo0(id, msi));
+
+            case '2':
+                return ResolvedDidDocument.of(numalgo2(id, msi));
+
+            case '4':
+                return ResolvedDidDocument.of(numalgo4(id, msi));
+
+            default:
+                throw new DidResolutionException(did.toString(), Code.UnsupportedMethod, "Unsupported did:peer numalgo [" + msi.charAt(0) + "].");
+            }
+
+        } catch (IllegalArgumentException e) {
+            throw new DidResolutionException(did.toString(), Code.InvalidDid, e.getMessage(), e);
+        }
+    }
+
+    static final DidDocument numalgo0(final Did id, final String msi) {
+
+        final String key = msi.substring(1);
+
+        final DidVerificationMethod method = method(id, key, key);
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(id).verification(method);
+
+        if (codec(method) == Multicodec.X25519PublicKey) {
+            builder.relationship(VerificationRelationship.KeyAgreement, method);
+
+        } else {
+            builder.relationship(VerificationRelationship.Authentication, method)
+                    .relationship(VerificationRelationship.AssertionMethod, method)
+                    .relationship(VerificationRelationship.CapabilityInvocation, method)
+                    .relationship(VerificationRelationship.CapabilityDelegation, method);
+        }
+        return builder.build();
+    }
+
+    static final DidDocument numalgo2(final Did id, final String msi) {
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(id);
+
+        int keys = 0;
+        int services = 0;
+
+        int start = 1;
+
+        while (start < msi.length()) {
+
+            if (msi.charAt(start) != '.') {
+                throw new IllegalArgumentException("Invalid numalgo 2 peer DID, expected '.' at position " + start + ".");
+            }
+
+            start++;
+
+            int end = msi.indexOf('.', start);
+            if (end == -1) {
+                end = msi.length();
+            }
+
+            if (end - start < 2) {
+                throw new IllegalArgumentException("Invalid numalgo 2 peer DID, empty element at position " + start + ".");
+            }
+
+            final char purpose = msi.charAt(start);
+
+            if (purpose == 'S') {
+                services = services(id, msi.substring(start + 1, end), services, builder);
+
+            } else {
+                final VerificationRelationship relationship = relationship(purpose);
+
+                final DidVerificationMethod method = method(id, "key-" + (++keys), msi.substring(start + 1, end));
+                codec(method);
+
+                builder.verification(method)
+                        .relationship(relationship, method);
+            }
+
+            start = end;
+        }
+
+        return builder.build();
+    }
+
+    DidDocument numalgo4(final Did id, final String msi) throws DidResolutionException {
+
+        if (reader == null) {
+            throw new DidResolutionException(id.toString(), Code.UnsupportedMethod, "Numalgo 4 peer DIDs require a configured DidDocumentReader.");
+        }
+
+        final int colon = msi.indexOf(':');
+
+        // short form, resolvable only if the long form has been seen
+        if (colon == -1) {
+
+            final LongForm longForm = longForms.get(msi);
+
+            if (longForm == null) {
+                throw new DidResolutionException(id.toString(), Code.NotFound, "Unknown short form peer DID, resolve its long form first.");
+            }
+
+            return DidDocumentBuilder.copyOf(longForm.document)
+                    .id(id)
+                    .alsoKnownAs(longForm.id.toUri())
+                    .build();
+        }
+
+        final String shortForm = msi.substring(0, colon);
+
+        LongForm longForm = longForms.get(shortForm);
+
+        if (longForm == null || !longForm.id.equals(id)) {
+            longForm = new LongForm(id, document(id, colon));
+            longForms.put(shortForm, longForm);
+        }
+
+        return DidDocumentBuilder.copyOf(longForm.document)
+                .id(id)
+                .alsoKnownAs(URI.create("did:" + METHOD + ":" + shortForm))
+                .build();
+    }
+
+    DidDocument document(final Did id, final int colon) throws DidResolutionException {
+
+        final String msi = id.getMethodSpecificId();
+        final String encoded = msi.substring(colon + 1);
+
+        final byte[] hash = Multibase.Base58Btc.decode(msi.subSequence(1, colon));
+
+        if (hash.length != SHA_256.length + 32 || hash[0] != SHA_256[0] || hash[1] != SHA_256[1]) {
+            throw new IllegalArgumentException("Invalid numalgo 4 peer DID, expected a sha2-256 multihash.");
+        }
+
+        final byte[] digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(encoded.getBytes(StandardCharsets.US_ASCII));
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new DidResolutionException(id.toString(), e);
+        }
+
+        if (!MessageDigest.isEqual(digest, Arrays.copyOfRange(hash, SHA_256.length, hash.length))) {
+            throw new IllegalArgumentException("Invalid numalgo 4 peer DID, the hash does not match the encoded document.");
+        }
+
+        final byte[] json = Multibase.Base58Btc.decode(encoded);
+
+        if (UnsignedVarint.read(json, 0) != JSON) {
+            throw new IllegalArgumentException("Invalid numalgo 4 peer DID, expected a json multicodec document.");
+        }
+
+        try {
+            return reader.read(new ByteArrayInputStream(json, UnsignedVarint.size(JSON), json.length - UnsignedVarint.size(JSON)));
+
+        } catch (IOException | DidDocumentReaderException e) {
+            throw new DidResolutionException(id.toString(), Code.InvalidDid, "Invalid numalgo 4 peer DID document: " + e.getMessage(), e);
+        }
+    }
+
+    static final DidVerificationMethod method(final Did id, final String fragment, final String key) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(id, fragment),
+                MULTIKEY,
+                id,
+                MultibaseEncoded.of(key));
+    }
+
+    /**
+     * Validates the key of the given method.
+     */
+    static final Multicodec codec(final DidVerificationMethod method) {
+
+        final Multicodec codec = MulticodecEncoded.of(method.publicKeyMultibase()).codec();
+
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported key type of [" + method.publicKeyMultibase() + "].");
+        }
+        return codec;
+    }
+
+    static final VerificationRelationship relationship(final char purpose) {
+        switch (purpose) {
+        case 'A':
+            return VerificationRelationship.AssertionMethod;
+        case 'E':
+            return VerificationRelationship.KeyAgreement;
+        case 'V':
+            return VerificationRelationship.Authentication;
+        case 'I':
+            return VerificationRelationship.CapabilityInvocation;
+        case 'D':
+            return VerificationRelationship.CapabilityDelegation;
+        default:
+            throw new IllegalArgumentException("Invalid numalgo 2 peer DID, unknown purpose code [" + purpose + "].");
+        }
+    }
+
+    /**
+     * Decodes a base64url encoded, abbreviated, service or an array of services.
+     */
+    static final int services(final Did id, final String encoded, int index, final DidDocumentBuilder builder) {
+
+        final Object json = PeerJson.parse(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8));
+
+        if (json instanceof List) {
+            for (final Object item : (List<?>) json) {
+                builder.service(service(id, item, index++));
+            }
+            return index;
+        }
+
+        builder.service(service(id, json, index++));
+        return index;
+    }
+
+    static final DidService service(final Did id, final Object json, final int index) {
+
+        if (!(json instanceof Map)) {
+            throw new IllegalArgumentException("Invalid numalgo 2 peer DID, a service must be a JSON object.");
+        }
+
+        final Map<?, ?> service = (Map<?, ?>) json;
+
+        final Object serviceId = service.get("id");
+
+        final URI uri;
+
+        if (serviceId instanceof String) {
+            uri = ((String) serviceId).startsWith("#")
+                    ? DidUrl.fragment(id, ((String) serviceId).substring(1)).toUri()
+                    : URI.create((String) serviceId);
+
+        } else {
+            uri = DidUrl.fragment(id, index == 0 ? "service" : "service-" + index).toUri();
+        }
+
+        return DidService.of(
+                uri,
+                types(service.containsKey("t") ? service.get("t") : service.get("type")),
+                endpoints(service.containsKey("s") ? service.get("s") : service.get("serviceEndpoint")));
+    }
+
+    static final Collection<String> types(final Object json) {
+
+        if (json instanceof String) {
+            return Collections.singletonList(type((String) json));
+        }
+
+        if (json instanceof List) {
+            final List<String> types = new ArrayList<>(((List<?>) json).size());
+            for (final Object type : (List<?>) json) {
+                if (!(type instanceof String)) {
+                    throw new IllegalArgumentException("Invalid numalgo 2 peer DID, a service type must be a string.");
+                }
+                types.add(type((String) type));
+            }
+            return Collections.unmodifiableList(types);
+        }
+
+        throw new IllegalArgumentException("Invalid numalgo 2 peer DID, a service must have a type.");
+    }
+
+    static final String type(final String type) {
+        return "dm".equals(type)
+                ? "DIDCommMessaging"
+                : type;
+    }
+
+    static final Collection<DidServiceEndpoint> endpoints(final Object json) {
+
+        if (json instanceof List) {
+            final List<DidServiceEndpoint> endpoints = new ArrayList<>(((List<?>) json).size());
+            for (final Object endpoint : (List<?>) json) {
+                endpoints.add(endpoint(endpoint));
+            }
+            return Collections.unmodifiableList(endpoints);
+        }
+
+        return Collections.singletonList(endpoint(json));
+    }
+
+    static final DidServiceEndpoint endpoint(final Object json) {
+
+        if (json instanceof String) {
+            return DidServiceEndpoint.of(URI.create((String) json));
+        }
+
+        // e.g. DIDCommMessaging { "uri", "accept", "routingKeys" }
+        if (json instanceof Map && ((Map<?, ?>) json).get("uri") instanceof String) {
+            return DidServiceEndpoint.of(URI.create((String) ((Map<?, ?>) json).get("uri")));
+        }
+
+        throw new IllegalArgumentException("Invalid numalgo 2 peer DID, a service endpoint must be a URI or an object with a uri.");
+    }
+
+    public static Builder with(DidDocumentReader reader) {
+        return new Builder(reader);
+    }
+
+    public static class Builder {
+
+        final DidDocumentReader reader;
+
+        int capacity;
+
+        Builder(final DidDocumentReader reader) {
+            this.reader = Objects.requireNonNull(reader);
+            this.capacity = DEFAULT_CAPACITY;
+        }
+
+        /**
+         * Sets the maximum number of memoized numalgo 4 short forms, least
+         * recently used ones are evicted first. 1024 by default.
+         *
+         * @param capacity the maximum number of memoized short forms
+         * @return this builder
+         */
+        public Builder cache(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("The cache capacity must be positive but got " + capacity + ".");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public DidPeerResolver build() {
+            return new DidPeerResolver(reader, Collections.synchronizedMap(new Lru(capacity)));
+        }
+    }
+
+    static final class LongForm {
+
+        final Did id;
+        final DidDocument document;
+
+        LongForm(final Did id, final DidDocument document) {
+            this.id = id;
+            this.document = document;
+        }
+    }
+
+    static final class Lru extends LinkedHashMap<String, LongForm> {
+
+        private static final long serialVersionUID = 1L;
+
+        final int capacity;
+
+        Lru(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, LongForm> eldest) {
+            return size() > capacity;
+        }
+    }
+}
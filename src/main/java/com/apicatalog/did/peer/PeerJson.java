@@ -0,0 +1,264 @@
+package com.apicatalog.did.peer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal JSON parser for the inline service definitions of numalgo 2 peer
+ * DIDs, producing {@link Map}, {@link List}, {@link String}, {@link Double},
+ * {@link Boolean}, or {@code null} values.
+ */
+final class PeerJson {
+
+    static final int MAX_DEPTH = 32;
+
+    final String json;
+
+    int position;
+
+    PeerJson(final String json) {
+        this.json = json;
+        this.position = 0;
+    }
+
+    /**
+     * Parses a single JSON value.
+     *
+     * @throws IllegalArgumentException if the value is not a valid JSON
+     */
+    static final Object parse(final String json) {
+
+        final PeerJson parser = new PeerJson(json);
+        final Object value = parser.value(0);
+
+        parser.skipWhitespace();
+
+        if (parser.position != json.length()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    Object value(final int depth) {
+
+        if (depth > MAX_DEPTH) {
+            throw error("JSON nesting exceeds " + MAX_DEPTH + " levels");
+        }
+
+        skipWhitespace();
+
+        if (position >= json.length()) {
+            throw error("Unexpected end of JSON");
+        }
+
+        final char ch = json.charAt(position);
+
+        switch (ch) {
+        case '{':
+            return object(depth);
+        case '[':
+            return array(depth);
+        case '"':
+            return string();
+        case 't':
+            return literal("true", Boolean.TRUE);
+        case 'f':
+            return literal("false", Boolean.FALSE);
+        case 'n':
+            return literal("null", null);
+        default:
+            if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                return number();
+            }
+            throw error("Unexpected character '" + ch + "'");
+        }
+    }
+
+    Map<String, Object> object(final int depth) {
+
+        final Map<String, Object> map = new LinkedHashMap<>();
+
+        position++;
+        skipWhitespace();
+
+        if (peek() == '}') {
+            position++;
+            return map;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected a member name");
+            }
+            final String key = string();
+
+            skipWhitespace();
+            expect(':');
+
+            map.put(key, value(depth + 1));
+
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+                continue;
+            }
+            expect('}');
+            return map;
+        }
+    }
+
+    List<Object> array(final int depth) {
+
+        final List<Object> list = new ArrayList<>();
+
+        position++;
+        skipWhitespace();
+
+        if (peek() == ']') {
+            position++;
+            return list;
+        }
+
+        while (true) {
+            list.add(value(depth + 1));
+
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+                continue;
+            }
+            expect(']');
+            return list;
+        }
+    }
+
+    String string() {
+
+        position++;
+
+        final int start = position;
+
+        // fast path, no escapes
+        while (position < json.length()) {
+            final char ch = json.charAt(position);
+            if (ch == '"') {
+                return json.substring(start, position++);
+            }
+            if (ch == '\\') {
+                break;
+            }
+            position++;
+        }
+
+        final StringBuilder builder = new StringBuilder(json.length() - start);
+        builder.append(json, start, position);
+
+        while (position < json.length()) {
+
+            final char ch = json.charAt(position++);
+
+            if (ch == '"') {
+                return builder.toString();
+            }
+            if (ch != '\\') {
+                builder.append(ch);
+                continue;
+            }
+            if (position >= json.length()) {
+                break;
+            }
+
+            final char escaped = json.charAt(position++);
+
+            switch (escaped) {
+            case '"':
+            case '\\':
+            case '/':
+                builder.append(escaped);
+                break;
+            case 'b':
+                builder.append('\b');
+                break;
+            case 'f':
+                builder.append('\f');
+                break;
+            case 'n':
+                builder.append('\n');
+                break;
+            case 'r':
+                builder.append('\r');
+                break;
+            case 't':
+                builder.append('\t');
+                break;
+            case 'u':
+                if (position + 4 > json.length()) {
+                    throw error("Invalid unicode escape");
+                }
+                try {
+                    builder.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw error("Invalid unicode escape");
+                }
+                position += 4;
+                break;
+            default:
+                throw error("Invalid escape '\\" + escaped + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    Double number() {
+
+        final int start = position;
+
+        while (position < json.length() && "+-0123456789.eE".indexOf(json.charAt(position)) != -1) {
+            position++;
+        }
+        try {
+            return Double.valueOf(json.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+    }
+
+    Object literal(final String literal, final Object value) {
+        if (!json.startsWith(literal, position)) {
+            throw error("Unexpected literal");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    void expect(final char ch) {
+        if (peek() != ch) {
+            throw error("Expected '" + ch + "'");
+        }
+        position++;
+    }
+
+    char peek() {
+        if (position >= json.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        return json.charAt(position);
+    }
+
+    void skipWhitespace() {
+        while (position < json.length()) {
+            final char ch = json.charAt(position);
+            if (ch != ' ' && ch != '\t' && ch != '\n' && ch != '\r') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(message + " at position " + position + ".");
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * A resolver of the
+ * <a href="https://identity.foundation/peer-did-method-spec/">did:peer</a>
+ * method.
+ * <ul>
+ * <li>{@link com.apicatalog.did.peer.DidPeerResolver} — expands numalgo 0, 2,
+ * and 4 peer DIDs</li>
+ * </ul>
+ */
+package com.apicatalog.did.peer;
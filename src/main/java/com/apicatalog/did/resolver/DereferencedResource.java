@@ -0,0 +1,100 @@
+package com.apicatalog.did.resolver;
+
+import java.net.URI;
+
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidVerificationMethod;
+
+/**
+ * The result of dereferencing a DID URL by {@link DidUrlDereferencer}.
+ *
+ * @see <a href="https://www.w3.org/TR/did-core/#did-url-dereferencing">DID URL
+ *      Dereferencing</a>
+ */
+public final class DereferencedResource {
+
+    /**
+     * The kinds of a dereferenced resource.
+     */
+    public enum Type {
+        /** The DID document itself, the DID URL has no fragment or query. */
+        Document,
+
+        /** A verification method selected by a fragment. */
+        VerificationMethod,
+
+        /** A service selected by a fragment. */
+        Service,
+
+        /**
+         * A service endpoint selected by a {@code service} query parameter,
+         * optionally resolved against a {@code relativeRef}.
+         */
+        ServiceEndpoint,
+    }
+
+    final Type type;
+    final ResolvedDidDocument document;
+    final DidVerificationMethod method;
+    final DidService service;
+    final URI endpoint;
+
+    DereferencedResource(
+            final Type type,
+            final ResolvedDidDocument document,
+            final DidVerificationMethod method,
+            final DidService service,
+            final URI endpoint) {
+        this.type = type;
+        this.document = document;
+        this.method = method;
+        this.service = service;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Returns the kind of this resource.
+     *
+     * @return the type
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the resolved document containing this resource.
+     *
+     * @return the document, never {@code null}
+     */
+    public ResolvedDidDocument document() {
+        return document;
+    }
+
+    /**
+     * Returns the selected verification method.
+     *
+     * @return the method, or {@code null} if not {@link Type#VerificationMethod}
+     */
+    public DidVerificationMethod method() {
+        return method;
+    }
+
+    /**
+     * Returns the selected service.
+     *
+     * @return the service, or {@code null} if not {@link Type#Service} or
+     *         {@link Type#ServiceEndpoint}
+     */
+    public DidService service() {
+        return service;
+    }
+
+    /**
+     * Returns the selected service endpoint.
+     *
+     * @return the endpoint, or {@code null} if not {@link Type#ServiceEndpoint}
+     */
+    public URI endpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,419 @@
+package com.apicatalog.did.resolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+/**
+ * Decides whether a verification method is authorized for a verification
+ * relationship on a subject DID, directly or through the subject's
+ * <a href="https://www.w3.org/TR/did-core/#did-controller">controllers</a>.
+ * <p>
+ * The controller graph is walked breadth-first starting at the subject
+ * document. All DIDs of one level are resolved in parallel on the configured
+ * executor, so latency grows with the depth of the graph rather than its size.
+ * Each DID is resolved at most once per call, cycles are skipped, and the walk
+ * stops after {@link Builder#maxDepth(int)} levels of controllers.
+ * </p>
+ * <p>
+ * With a cache configured, resolved documents and decisions are memoized, and
+ * concurrent calls share in-flight resolutions. Use {@link #invalidate(Did)}
+ * when a document changes.
+ * </p>
+ *
+ * <pre>{@code
+ * DidControllerAuthorizer authorizer = DidControllerAuthorizer.with(resolver)
+ *         .executor(executor)
+ *         .cache(1000)
+ *         .build();
+ *
+ * if (authorizer.isAuthorized(subject, method, VerificationRelationship.CapabilityInvocation)) { ... }
+ * }</pre>
+ */
+public final class DidControllerAuthorizer {
+
+    static final int DEFAULT_MAX_DEPTH = 8;
+
+    final DidResolver resolver;
+    final Executor executor;
+    final int maxDepth;
+
+    /** {@code null} if caching is disabled */
+    final Map<Did, CompletableFuture<ResolvedDidDocument>> documents;
+    final Map<Decision, Optional<Did>> decisions;
+
+    DidControllerAuthorizer(
+            final DidResolver resolver,
+            final Executor executor,
+            final int maxDepth,
+            final Map<Did, CompletableFuture<ResolvedDidDocument>> documents,
+            final Map<Decision, Optional<Did>> decisions) {
+        this.resolver = resolver;
+        this.executor = executor;
+        this.maxDepth = maxDepth;
+        this.documents = documents;
+        this.decisions = decisions;
+    }
+
+    /**
+     * Checks whether the method is authorized for the relationship on the
+     * subject, see {@link #authorizedBy(Did, DidVerificationMethod, VerificationRelationship)}.
+     *
+     * @param subject      the subject DID (must not be {@code null})
+     * @param method       the verification method (must not be {@code null})
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return {@code true} if authorized
+     * @throws DidResolutionException if the method is not authorized and a
+     *                                document on the walked graph cannot be
+     *                                resolved
+     */
+    public boolean isAuthorized(
+            final Did subject,
+            final DidVerificationMethod method,
+            final VerificationRelationship relationship) throws DidResolutionException {
+        return authorizedBy(subject, method, relationship) != null;
+    }
+
+    /**
+     * Finds the document authorizing the method for the relationship on the
+     * subject, i.e. the subject document or the nearest controller document
+     * listing an equal method, see
+     * {@link DidVerificationMethod#equals(DidVerificationMethod, DidVerificationMethod)},
+     * under the relationship. A method with the same id but other key material
+     * is not authorized.
+     * <p>
+     * A document that cannot be resolved is skipped, its controllers are not
+     * walked, and its failure is reported only if no other document on the
+     * walked graph authorizes the method.
+     * </p>
+     *
+     * @param subject      the subject DID, a DID URL is reduced to its DID (must
+     *                     not be {@code null})
+     * @param method       the verification method, must have an id (must not be
+     *                     {@code null})
+     * @param relationship the verification relationship (must not be
+     *                     {@code null})
+     * @return the DID of the authorizing document, or {@code null} if the method
+     *         is not authorized within the depth limit
+     * @throws DidResolutionException if the method is not authorized and a
+     *                                document on the walked graph cannot be
+     *                                resolved
+     */
+    public Did authorizedBy(
+            final Did subject,
+            final DidVerificationMethod method,
+            final VerificationRelationship relationship) throws DidResolutionException {
+
+        Objects.requireNonNull(subject);
+        Objects.requireNonNull(method);
+        Objects.requireNonNull(relationship);
+
+        if (method.id() == null) {
+            throw new IllegalArgumentException("The verification method has no id.");
+        }
+
+        final Decision key = new Decision(bare(subject), method, relationship);
+
+        if (decisions != null) {
+            final Optional<Did> decision = decisions.get(key);
+            if (decision != null) {
+                return decision.orElse(null);
+            }
+        }
+
+        final Did authorizer = walk(key);
+
+        if (decisions != null) {
+            decisions.put(key, Optional.ofNullable(authorizer));
+        }
+        return authorizer;
+    }
+
+    /**
+     * Drops the cached document of the given DID and all cached decisions, which
+     * may depend on it through a controller.
+     *
+     * @param did the DID whose document has changed (must not be {@code null})
+     */
+    public void invalidate(final Did did) {
+
+        Objects.requireNonNull(did);
+
+        if (documents == null) {
+            return;
+        }
+
+        documents.remove(bare(did));
+        decisions.clear();
+    }
+
+    Did walk(final Decision decision) throws DidResolutionException {
+
+        final Set<Did> visited = new HashSet<>();
+        visited.add(decision.subject);
+
+        List<Did> level = Collections.singletonList(decision.subject);
+
+        DidResolutionException failure = null;
+
+        for (int depth = 0; !level.isEmpty() && depth <= maxDepth; depth++) {
+
+            // start the whole level before waiting on any of it
+            final List<CompletableFuture<ResolvedDidDocument>> pending = new ArrayList<>(level.size());
+
+            for (final Did did : level) {
+                pending.add(resolve(did));
+            }
+
+            final List<Did> next = new ArrayList<>();
+
+            for (int i = 0; i < level.size(); i++) {
+
+                final DidDocument document;
+
+                try {
+                    document = join(level.get(i), pending.get(i));
+
+                } catch (DidResolutionException e) {
+                    forget(level.get(i), pending.get(i));
+
+                    // an unresolvable controller must not hide an authorizing one
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    continue;
+                }
+
+                if (lists(document, decision.relationship, decision.method)) {
+                    return level.get(i);
+                }
+
+                for (final Did controller : document.controller()) {
+                    if (controller != null && visited.add(bare(controller))) {
+                        next.add(bare(controller));
+                    }
+                }
+            }
+
+            level = next;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    CompletableFuture<ResolvedDidDocument> resolve(final Did did) {
+
+        if (documents == null) {
+            return supply(did);
+        }
+
+        CompletableFuture<ResolvedDidDocument> future;
+
+        synchronized (documents) {
+            future = documents.get(did);
+            if (future != null) {
+                return future;
+            }
+            future = supply(did);
+            documents.put(did, future);
+        }
+
+        // failures are not memoized, also those nobody waits for
+        final CompletableFuture<ResolvedDidDocument> resolving = future;
+        resolving.whenComplete((resolved, e) -> {
+            if (e != null) {
+                forget(did, resolving);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Drops a failed resolution from the cache. Called by the waiting thread too,
+     * as completion callbacks may still be running when {@code join} returns.
+     */
+    void forget(final Did did, final CompletableFuture<ResolvedDidDocument> future) {
+        if (documents != null) {
+            documents.remove(did, future);
+        }
+    }
+
+    CompletableFuture<ResolvedDidDocument> supply(final Did did) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return resolver.resolve(did);
+
+            } catch (DidResolutionException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    static final DidDocument join(final Did did, final CompletableFuture<ResolvedDidDocument> future) throws DidResolutionException {
+
+        final ResolvedDidDocument resolved;
+
+        try {
+            resolved = future.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DidResolutionException) {
+                throw (DidResolutionException) e.getCause();
+            }
+            throw new DidResolutionException(did.toString(), Code.Internal, "Controller resolution has failed.", e.getCause());
+        }
+
+        if (resolved == null || resolved.document() == null) {
+            throw new DidResolutionException(did.toString(), Code.NotFound, "The resolver returned no document.");
+        }
+        return resolved.document();
+    }
+
+    static final boolean lists(final DidDocument document, final VerificationRelationship relationship, final DidVerificationMethod expected) {
+        for (final DidVerificationMethod method : relationship.of(document)) {
+            if (DidVerificationMethod.equals(expected, method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static final Did bare(final Did did) {
+        return did.isDidUrl()
+                ? did.asDidUrl().toDid()
+                : did;
+    }
+
+    public static Builder with(DidResolver resolver) {
+        return new Builder(resolver);
+    }
+
+    public static class Builder {
+
+        final DidResolver resolver;
+
+        Executor executor;
+        int maxDepth;
+        int capacity;
+
+        Builder(final DidResolver resolver) {
+            this.resolver = Objects.requireNonNull(resolver);
+            this.executor = ForkJoinPool.commonPool();
+            this.maxDepth = DEFAULT_MAX_DEPTH;
+            this.capacity = 0;
+        }
+
+        /**
+         * Sets the executor resolving documents of one level in parallel. The
+         * common pool is used by default, resolvers performing blocking I/O
+         * should get a dedicated executor.
+         *
+         * @param executor the executor (must not be {@code null})
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of controller levels walked above the subject
+         * document, {@code 0} checks the subject document only. Defaults to
+         * {@value DidControllerAuthorizer#DEFAULT_MAX_DEPTH}.
+         *
+         * @param maxDepth a non-negative depth
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            if (maxDepth < 0) {
+                throw new IllegalArgumentException("The maximum depth must be non-negative but got " + maxDepth + ".");
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Enables memoization of up to {@code capacity} documents and as many
+         * decisions, least recently used ones are evicted first. Disabled by
+         * default.
+         *
+         * @param capacity the maximum number of cached entries, {@code 0}
+         *                 disables caching
+         * @return this builder
+         */
+        public Builder cache(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("The cache capacity must be non-negative but got " + capacity + ".");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public DidControllerAuthorizer build() {
+            return capacity > 0
+                    ? new DidControllerAuthorizer(
+                            resolver,
+                            executor,
+                            maxDepth,
+                            LruCache.of(capacity),
+                            LruCache.of(capacity))
+                    : new DidControllerAuthorizer(resolver, executor, maxDepth, null, null);
+        }
+    }
+
+    /**
+     * A memoized question: is the method authorized for the relationship on the
+     * subject.
+     */
+    static final class Decision {
+
+        final Did subject;
+        final DidVerificationMethod method;
+        final VerificationRelationship relationship;
+
+        Decision(final Did subject, final DidVerificationMethod method, final VerificationRelationship relationship) {
+            this.subject = subject;
+            this.method = method;
+            this.relationship = relationship;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * subject.hashCode() + method.id().hashCode()) * 31 + relationship.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Decision)) {
+                return false;
+            }
+            final Decision other = (Decision) obj;
+            return relationship == other.relationship
+                    && subject.equals(other.subject)
+                    && DidVerificationMethod.equals(method, other.method);
+        }
+    }
+}
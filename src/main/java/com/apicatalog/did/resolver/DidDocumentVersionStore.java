@@ -0,0 +1,449 @@
+package com.apicatalog.did.resolver;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+
+/**
+ * An in-memory store of DID document versions.
+ * <p>
+ * Keeps a chain of resolved documents per {@link Did}, keyed by
+ * {@link DidDocumentMetadata#versionId()} and ordered by
+ * {@link DidDocumentMetadata#updated()} (or {@link DidDocumentMetadata#created()}
+ * when no update time is provided). Lookups by version id are constant time,
+ * lookups by time are {@code O(log n)} in the number of versions. Adding
+ * versions in time order is amortized constant time.
+ * </p>
+ * <p>
+ * In documents built by {@link DidDocumentBuilder}, verification methods that
+ * are unchanged between consecutive versions, as defined by
+ * {@link DidVerificationMethod#equals(DidVerificationMethod, DidVerificationMethod)},
+ * are stored once and shared by both versions. Other document implementations
+ * are stored as given. Reads are lock-free; writes to the same DID are
+ * serialized.
+ * </p>
+ * <p>
+ * The store can be persisted by iterating {@link #versions(Did)} and
+ * serializing documents with a {@code DidDocumentWriter}, and restored by
+ * calling {@link #put(Did, ResolvedDidDocument)} for each version.
+ * </p>
+ */
+public class DidDocumentVersionStore {
+
+    /** the class of documents built by {@link DidDocumentBuilder} */
+    static final Class<? extends DidDocument> BUILT = DidDocumentBuilder.with(Did.of("did", "example")).build().getClass();
+
+    protected final Map<Did, Chain> chains;
+
+    public DidDocumentVersionStore() {
+        this.chains = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds a resolved document version.
+     * <p>
+     * Adding a version id that is already stored replaces the stored version.
+     * </p>
+     *
+     * @param did      the DID the document was resolved for (must not be
+     *                 {@code null})
+     * @param resolved resolved document with metadata providing a
+     *                 {@code versionId} (must not be {@code null})
+     * @return the stored version, sharing unchanged verification methods with
+     *         its predecessor
+     * @throws NullPointerException     if {@code did} or {@code resolved} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if the metadata does not provide a
+     *                                  {@code versionId}
+     */
+    public ResolvedDidDocument put(final Did did, final ResolvedDidDocument resolved) {
+
+        Objects.requireNonNull(did);
+        Objects.requireNonNull(resolved);
+        Objects.requireNonNull(resolved.document());
+
+        if (resolved.metadata() == null || resolved.metadata().versionId() == null) {
+            throw new IllegalArgumentException("Cannot store a version of [" + did + "], versionId metadata is missing.");
+        }
+
+        for (;;) {
+            final Chain chain = chains.computeIfAbsent(did, k -> new Chain());
+
+            synchronized (chain) {
+
+                // removed concurrently, retry with a new chain
+                if (chain.removed) {
+                    continue;
+                }
+
+                final Version previous = chain.snapshot.predecessor(time(resolved.metadata()));
+
+                final ResolvedDidDocument version = previous != null
+                        ? share(previous.resolved, resolved)
+                        : resolved;
+
+                chain.add(version);
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Returns the document version with the given version id.
+     *
+     * @param did       the DID (must not be {@code null})
+     * @param versionId version id
+     * @return the version, or {@code null} if not stored
+     */
+    public ResolvedDidDocument version(final Did did, final String versionId) {
+        final Chain chain = chains.get(Objects.requireNonNull(did));
+        if (chain == null || versionId == null) {
+            return null;
+        }
+        final Version version = chain.byId.get(versionId);
+        return version != null ? version.resolved : null;
+    }
+
+    /**
+     * Returns the document version in effect at the given time, i.e. the most
+     * recent version created or updated at or before {@code time}.
+     *
+     * @param did  the DID (must not be {@code null})
+     * @param time point in time (must not be {@code null})
+     * @return the version, or {@code null} if none was in effect
+     */
+    public ResolvedDidDocument version(final Did did, final Instant time) {
+        Objects.requireNonNull(time);
+        final Chain chain = chains.get(Objects.requireNonNull(did));
+        if (chain == null) {
+            return null;
+        }
+        final Version version = chain.snapshot.at(time);
+        return version != null ? version.resolved : null;
+    }
+
+    /**
+     * Returns the most recent version.
+     *
+     * @param did the DID (must not be {@code null})
+     * @return the latest version, or {@code null} if none is stored
+     */
+    public ResolvedDidDocument latest(final Did did) {
+        final Chain chain = chains.get(Objects.requireNonNull(did));
+        if (chain == null) {
+            return null;
+        }
+        final Snapshot snapshot = chain.snapshot;
+        return snapshot.size > 0
+                ? snapshot.versions[snapshot.size - 1].resolved
+                : null;
+    }
+
+    /**
+     * Returns all stored versions of the given DID ordered by time.
+     *
+     * @param did the DID (must not be {@code null})
+     * @return read-only versions, possibly empty
+     */
+    public List<ResolvedDidDocument> versions(final Did did) {
+        final Chain chain = chains.get(Objects.requireNonNull(did));
+        if (chain == null) {
+            return Collections.emptyList();
+        }
+        final Snapshot snapshot = chain.snapshot;
+        final List<ResolvedDidDocument> result = new ArrayList<>(snapshot.size);
+        for (int i = 0; i < snapshot.size; i++) {
+            result.add(snapshot.versions[i].resolved);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns all DIDs with at least one stored version.
+     *
+     * @return read-only DIDs
+     */
+    public Collection<Did> dids() {
+        return Collections.unmodifiableSet(chains.keySet());
+    }
+
+    /**
+     * Removes all versions of the given DID.
+     *
+     * @param did the DID (must not be {@code null})
+     * @return {@code true} if any version was removed
+     */
+    public boolean remove(final Did did) {
+
+        final Chain chain = chains.get(Objects.requireNonNull(did));
+
+        if (chain == null) {
+            return false;
+        }
+
+        synchronized (chain) {
+            // a put holding the chain has completed, later ones create a new chain
+            chain.removed = true;
+            return chains.remove(did, chain);
+        }
+    }
+
+    static final Instant time(final DidDocumentMetadata metadata) {
+        return metadata.updated() != null
+                ? metadata.updated()
+                : metadata.created();
+    }
+
+    /**
+     * Replaces verification methods equal to ones present in the predecessor
+     * with the predecessor's instances. Only documents built by
+     * {@link DidDocumentBuilder} are rebuilt, other implementations may carry
+     * data the builder would drop and are stored as given.
+     */
+    static final ResolvedDidDocument share(final ResolvedDidDocument previous, final ResolvedDidDocument resolved) {
+
+        final DidDocument document = resolved.document();
+
+        if (document.getClass() != BUILT) {
+            return resolved;
+        }
+
+        final Map<DidUrl, DidVerificationMethod> pool = new HashMap<>();
+
+        collect(pool, previous.document().verification());
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            collect(pool, relationship.of(previous.document()));
+        }
+
+        if (pool.isEmpty()) {
+            return resolved;
+        }
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.copyOf(document);
+
+        boolean shared = share(pool, document.verification(), builder::verification);
+
+        for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+            shared |= share(pool, relationship.of(document), methods -> builder.relationship(relationship, methods));
+        }
+
+        return shared
+                ? ResolvedDidDocument.of(builder.build(), resolved.metadata())
+                : resolved;
+    }
+
+    static final void collect(final Map<DidUrl, DidVerificationMethod> pool, final Collection<DidVerificationMethod> methods) {
+        if (methods == null) {
+            return;
+        }
+        for (final DidVerificationMethod method : methods) {
+            if (method != null && method.id() != null) {
+                pool.putIfAbsent(method.id(), method);
+            }
+        }
+    }
+
+    /**
+     * Passes the methods with pooled instances to the consumer if any method
+     * was found in the pool.
+     */
+    static final boolean share(
+            final Map<DidUrl, DidVerificationMethod> pool,
+            final Collection<DidVerificationMethod> methods,
+            final Consumer<Collection<DidVerificationMethod>> consumer) {
+
+        if (methods == null || methods.isEmpty()) {
+            return false;
+        }
+
+        final List<DidVerificationMethod> shared = new ArrayList<>(methods.size());
+        boolean found = false;
+
+        for (final DidVerificationMethod method : methods) {
+            final DidVerificationMethod pooled = method != null
+                    ? pool.get(method.id())
+                    : null;
+            if (pooled != null && pooled != method && DidVerificationMethod.equals(pooled, method)) {
+                shared.add(pooled);
+                found = true;
+            } else {
+                shared.add(method);
+            }
+        }
+
+        if (found) {
+            consumer.accept(shared);
+        }
+        return found;
+    }
+
+    protected static final class Chain {
+
+        volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        final Map<String, Version> byId = new ConcurrentHashMap<>();
+
+        /** guarded by this chain */
+        boolean removed;
+
+        /**
+         * Adds the version, the caller holds the lock of this chain. Appending in
+         * time order is amortized {@code O(1)}, an out of order version or a
+         * replaced version id copies the chain.
+         */
+        void add(final ResolvedDidDocument resolved) {
+
+            final String versionId = resolved.metadata().versionId();
+            final Instant time = time(resolved.metadata());
+
+            final Snapshot current = snapshot;
+            final Version last = current.size > 0
+                    ? current.versions[current.size - 1]
+                    : null;
+
+            final Version replaced = byId.get(versionId);
+
+            final Version version;
+
+            if (replaced == null
+                    && (time == null || last == null || last.effective == null || !last.effective.isAfter(time))) {
+
+                version = new Version(resolved, time != null || last == null ? time : last.effective);
+                snapshot = current.append(version);
+
+            } else {
+                final Snapshot remaining = replaced != null
+                        ? current.without(replaced)
+                        : current;
+
+                final int index = remaining.upper(time);
+
+                version = new Version(resolved, time != null || index == 0 ? time : remaining.versions[index - 1].effective);
+                snapshot = remaining.insert(index, version);
+            }
+
+            byId.put(versionId, version);
+        }
+    }
+
+    static final class Version {
+
+        final ResolvedDidDocument resolved;
+
+        /**
+         * The version time or, if absent, the effective time of its predecessor
+         * when the version was added.
+         */
+        final Instant effective;
+
+        Version(final ResolvedDidDocument resolved, final Instant effective) {
+            this.resolved = resolved;
+            this.effective = effective;
+        }
+    }
+
+    /**
+     * An immutable view of the first {@code size} versions of a chain ordered by
+     * effective time, versions without any effective time first. Appending
+     * shares the array with the previous snapshot, which never reads beyond its
+     * size.
+     */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new Version[0], 0);
+
+        final Version[] versions;
+        final int size;
+
+        Snapshot(final Version[] versions, final int size) {
+            this.versions = versions;
+            this.size = size;
+        }
+
+        Snapshot append(final Version version) {
+            final Version[] array = size < versions.length
+                    ? versions
+                    : Arrays.copyOf(versions, Math.max(4, size * 2));
+            array[size] = version;
+            return new Snapshot(array, size + 1);
+        }
+
+        Snapshot insert(final int index, final Version version) {
+            final Version[] array = new Version[Math.max(4, size + 1 + (size >>> 1))];
+            System.arraycopy(versions, 0, array, 0, index);
+            array[index] = version;
+            System.arraycopy(versions, index, array, index + 1, size - index);
+            return new Snapshot(array, size + 1);
+        }
+
+        Snapshot without(final Version version) {
+            final Version[] array = new Version[versions.length];
+            int length = 0;
+            for (int i = 0; i < size; i++) {
+                if (versions[i] != version) {
+                    array[length++] = versions[i];
+                }
+            }
+            return new Snapshot(array, length);
+        }
+
+        Version predecessor(final Instant time) {
+            if (size == 0) {
+                return null;
+            }
+            if (time == null) {
+                return versions[size - 1];
+            }
+            return at(time);
+        }
+
+        Version at(final Instant time) {
+            final int index = upper(time) - 1;
+            return index >= 0 && versions[index].effective != null
+                    ? versions[index]
+                    : null;
+        }
+
+        /**
+         * Binary search for the first version in effect after the given time, or
+         * {@code size} if there is none. A {@code null} time is after all
+         * versions.
+         */
+        int upper(final Instant time) {
+
+            if (time == null) {
+                return size;
+            }
+
+            int low = 0;
+            int high = size;
+
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                final Instant effective = versions[mid].effective;
+
+                if (effective != null && effective.isAfter(time)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
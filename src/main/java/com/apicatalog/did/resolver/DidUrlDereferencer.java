@@ -0,0 +1,298 @@
+package com.apicatalog.did.resolver;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.DidUrlParameters;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidServiceIndex;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.resolver.DereferencedResource.Type;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+/**
+ * Dereferences a {@link DidUrl} into the resource it identifies within the
+ * resolved DID document.
+ * <ul>
+ * <li>{@code did:example:123} — the document</li>
+ * <li>{@code did:example:123#key-1} — a verification method, or a service,
+ * with the given fragment</li>
+ * <li>{@code did:example:123?service=files&relativeRef=/a} — the first
+ * endpoint of the service with the fragment {@code files}, resolved against
+ * the relative reference</li>
+ * </ul>
+ * <p>
+ * The current document is always dereferenced. DID URLs asking for a specific
+ * version, {@code versionId} or {@code versionTime}, or for an integrity
+ * check, {@code hl}, are rejected rather than answered from the current
+ * document.
+ * </p>
+ * <p>
+ * Each resolved document is indexed once by method ids and service fragments.
+ * With a cache configured, indexed documents and dereferenced resources are
+ * memoized, so repeated dereferences of the same DID URL neither resolve nor
+ * scan again. Use {@link #invalidate(Did)} when a document changes.
+ * </p>
+ *
+ * <pre>{@code
+ * DidUrlDereferencer dereferencer = DidUrlDereferencer.with(resolver).cache(1000).build();
+ *
+ * DidVerificationMethod key = dereferencer.dereference(DidUrl.of("did:example:123#key-1")).method();
+ * }</pre>
+ */
+public final class DidUrlDereferencer {
+
+    static final String[] UNSUPPORTED = {
+            DidUrlParameters.VERSION_ID,
+            DidUrlParameters.VERSION_TIME,
+            DidUrlParameters.HL,
+    };
+
+    final DidResolver resolver;
+
+    /** {@code null} if caching is disabled */
+    final Map<Did, Indexed> documents;
+    final Map<DidUrl, DereferencedResource> resources;
+
+    DidUrlDereferencer(
+            final DidResolver resolver,
+            final Map<Did, Indexed> documents,
+            final Map<DidUrl, DereferencedResource> resources) {
+        this.resolver = resolver;
+        this.documents = documents;
+        this.resources = resources;
+    }
+
+    /**
+     * Dereferences the given DID URL.
+     *
+     * @param url the DID URL to dereference (must not be {@code null})
+     * @return the identified resource
+     * @throws DidResolutionException if the DID cannot be resolved, or the DID
+     *                                URL does not identify a resource or has an
+     *                                unsupported parameter
+     *                                ({@link Code#NotFound})
+     */
+    public DereferencedResource dereference(final DidUrl url) throws DidResolutionException {
+
+        Objects.requireNonNull(url);
+
+        // the current document must not stand in for another version
+        for (final String name : UNSUPPORTED) {
+            if (url.getParameters().contains(name)) {
+                throw new DidResolutionException(url.toString(), Code.NotFound, "The DID URL parameter [" + name + "] is not supported.");
+            }
+        }
+
+        if (resources != null) {
+            final DereferencedResource resource = resources.get(url);
+            if (resource != null) {
+                return resource;
+            }
+        }
+
+        final DereferencedResource resource = dereference(url, document(url.toDid()));
+
+        if (resources != null) {
+            resources.put(url, resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Drops cached documents and resources of the given DID.
+     *
+     * @param did the DID whose document has changed (must not be {@code null})
+     */
+    public void invalidate(final Did did) {
+
+        Objects.requireNonNull(did);
+
+        if (documents == null) {
+            return;
+        }
+
+        final Did key = did.isDidUrl()
+                ? did.asDidUrl().toDid()
+                : did;
+
+        documents.remove(key);
+
+        synchronized (resources) {
+            resources.keySet().removeIf(url -> url.getMethod().equals(key.getMethod())
+                    && url.getMethodSpecificId().equals(key.getMethodSpecificId()));
+        }
+    }
+
+    Indexed document(final Did did) throws DidResolutionException {
+
+        if (documents != null) {
+            final Indexed indexed = documents.get(did);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
+        final Indexed indexed = new Indexed(resolver.resolve(did));
+
+        if (documents != null) {
+            documents.put(did, indexed);
+        }
+        return indexed;
+    }
+
+    static final DereferencedResource dereference(final DidUrl url, final Indexed indexed) throws DidResolutionException {
+
+        if (url.getPath() != null && !url.getPath().isEmpty()) {
+            throw new DidResolutionException(url.toString(), Code.NotFound, "DID URL paths are not supported.");
+        }
+
+        final DidUrlParameters parameters = url.getParameters();
+
+        // the service is matched by its raw fragment
+        final String serviceFragment = parameters.getRaw(DidUrlParameters.SERVICE);
+
+        if (serviceFragment != null) {
+            return endpoint(url, indexed, serviceFragment, parameters.relativeRef());
+        }
+
+        final String fragment = url.getFragment();
+
+        if (fragment == null || fragment.isEmpty()) {
+            return new DereferencedResource(Type.Document, indexed.document, null, null, null);
+        }
+
+        final DidVerificationMethod method = indexed.methods.get(DidUrl.fragment(url.toDid(), fragment));
+
+        if (method != null) {
+            return new DereferencedResource(Type.VerificationMethod, indexed.document, method, null, null);
+        }
+
+        final DidService service = indexed.services.fragment(fragment);
+
+        if (service != null) {
+            return new DereferencedResource(Type.Service, indexed.document, null, service, null);
+        }
+
+        throw new DidResolutionException(url.toString(), Code.NotFound, "No verification method or service with the fragment [" + fragment + "].");
+    }
+
+    static final DereferencedResource endpoint(
+            final DidUrl url,
+            final Indexed indexed,
+            final String fragment,
+            final String relativeRef) throws DidResolutionException {
+
+        final DidService service = indexed.services.fragment(fragment);
+
+        if (service == null || service.endpoint() == null || service.endpoint().isEmpty()) {
+            throw new DidResolutionException(url.toString(), Code.NotFound, "No service endpoint with the fragment [" + fragment + "].");
+        }
+
+        final DidServiceEndpoint endpoint = service.endpoint().iterator().next();
+
+        if (endpoint.id() == null) {
+            throw new DidResolutionException(url.toString(), Code.NotFound, "The service [" + fragment + "] has no endpoint URI.");
+        }
+
+        try {
+            return new DereferencedResource(
+                    Type.ServiceEndpoint,
+                    indexed.document,
+                    null,
+                    service,
+                    relativeRef != null
+                            ? endpoint.id().resolve(relativeRef)
+                            : endpoint.id());
+
+        } catch (IllegalArgumentException e) {
+            throw new DidResolutionException(url.toString(), Code.NotFound, "Invalid relativeRef [" + relativeRef + "].", e);
+        }
+    }
+
+    public static Builder with(DidResolver resolver) {
+        return new Builder(resolver);
+    }
+
+    public static class Builder {
+
+        final DidResolver resolver;
+
+        int capacity;
+
+        Builder(final DidResolver resolver) {
+            this.resolver = Objects.requireNonNull(resolver);
+            this.capacity = 0;
+        }
+
+        /**
+         * Enables memoization of up to {@code capacity} documents and as many
+         * dereferenced resources, least recently used ones are evicted first.
+         * Disabled by default.
+         *
+         * @param capacity the maximum number of cached entries, {@code 0}
+         *                 disables caching
+         * @return this builder
+         */
+        public Builder cache(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("The cache capacity must be non-negative but got " + capacity + ".");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        public DidUrlDereferencer build() {
+            return capacity > 0
+                    ? new DidUrlDereferencer(
+                            resolver,
+                            LruCache.of(capacity),
+                            LruCache.of(capacity))
+                    : new DidUrlDereferencer(resolver, null, null);
+        }
+    }
+
+    /**
+     * A resolved document indexed by method ids and service fragments.
+     */
+    static final class Indexed {
+
+        final ResolvedDidDocument document;
+        final Map<DidUrl, DidVerificationMethod> methods;
+        final DidServiceIndex services;
+
+        Indexed(final ResolvedDidDocument resolved) {
+
+            final DidDocument document = resolved.document();
+
+            this.document = resolved;
+            this.methods = new HashMap<>();
+            this.services = DidServiceIndex.of(document);
+
+            index(document.verification());
+
+            // embedded methods, listed ones take precedence
+            for (final VerificationRelationship relationship : VerificationRelationship.values()) {
+                index(relationship.of(document));
+            }
+        }
+
+        void index(final Collection<DidVerificationMethod> methods) {
+            if (methods == null) {
+                return;
+            }
+            for (final DidVerificationMethod method : methods) {
+                if (method != null && method.id() != null) {
+                    this.methods.putIfAbsent(method.id(), method);
+                }
+            }
+        }
+    }
+}
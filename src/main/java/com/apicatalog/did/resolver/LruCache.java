@@ -0,0 +1,52 @@
+package com.apicatalog.did.resolver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe map evicting least recently accessed entries first,
+ * used by the dereferencer and the controller authorizer to memoize
+ * documents.
+ * <p>
+ * The map is synchronized on itself, compound actions must hold its lock.
+ * </p>
+ */
+final class LruCache {
+
+    LruCache() {
+        // static methods only
+    }
+
+    /**
+     * Creates a synchronized map holding at most {@code capacity} entries.
+     *
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @param capacity a positive maximum number of entries
+     * @return a new map
+     */
+    static <K, V> Map<K, V> of(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The cache capacity must be positive but got " + capacity + ".");
+        }
+        return Collections.synchronizedMap(new Lru<>(capacity));
+    }
+
+    static final class Lru<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        final int capacity;
+
+        Lru(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
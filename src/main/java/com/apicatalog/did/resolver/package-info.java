@@ -13,6 +13,10 @@
  * result</li>
  * <li>{@link com.apicatalog.did.resolver.DidResolutionException} — resolution
  * errors</li>
+ * <li>{@link com.apicatalog.did.resolver.DidUrlDereferencer} — DID URL
+ * dereferencing</li>
+ * <li>{@link com.apicatalog.did.resolver.DidControllerAuthorizer} — verification
+ * method authorization through controllers</li>
  * </ul>
  */
 package com.apicatalog.did.resolver;
\ No newline at end of file
@@ -0,0 +1,397 @@
+package com.apicatalog.did.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.io.DidDocumentFormats;
+import com.apicatalog.did.io.DidDocumentReader;
+import com.apicatalog.did.io.DidDocumentReaderException;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+import com.apicatalog.did.resolver.DidResolver;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+
+/**
+ * A <a href="https://w3c-ccg.github.io/did-method-web/">did:web</a> resolver.
+ * <p>
+ * The method-specific-id is mapped to a {@code did.json} URL, which is fetched
+ * through a pluggable {@link DidWebTransport} and read by a
+ * {@link DidDocumentReader} selected by the response {@code Content-Type}.
+ * Resolved documents are cached together with their {@code ETag} and
+ * {@code Last-Modified} validators, and subsequent resolutions revalidate them
+ * using a conditional request, so an unchanged document is neither transferred
+ * nor parsed again.
+ * </p>
+ *
+ * <pre>{@code
+ * DidResolver resolver = DidWebResolver
+ *         .with(DidDocumentFormats.with(jsonReader).build())
+ *         .cache(1000)
+ *         .build();
+ * }</pre>
+ */
+public final class DidWebResolver implements DidResolver {
+
+    /** The did:web method name. */
+    public static final String METHOD = "web";
+
+    static final String WELL_KNOWN = "/.well-known";
+
+    static final String DOCUMENT = "/did.json";
+
+    final DidWebTransport transport;
+    final DidDocumentFormats formats;
+    final boolean secure;
+    final Map<URI, Cached> cache;
+
+    DidWebResolver(
+            final DidWebTransport transport,
+            final DidDocumentFormats formats,
+            final boolean secure,
+            final Map<URI, Cached> cache) {
+        this.transport = transport;
+        this.formats = formats;
+        this.secure = secure;
+        this.cache = cache;
+    }
+
+    @Override
+    public ResolvedDidDocument resolve(final Did did) throws DidResolutionException {
+
+        Objects.requireNonNull(did);
+
+        if (!METHOD.equals(did.getMethod())) {
+            throw new DidResolutionException(did.toString(), Code.UnsupportedMethod, "Expected did:web but got did:" + did.getMethod() + ".");
+        }
+
+        final URI url;
+
+        try {
+            url = url(did, secure);
+
+        } catch (IllegalArgumentException e) {
+            throw new DidResolutionException(did.toString(), Code.InvalidDid, e.getMessage(), e);
+        }
+
+        final Cached cached = cache != null
+                ? cache.get(url)
+                : null;
+
+        final Map<String, String> headers = new HashMap<>(4);
+        headers.put("Accept", formats.accept());
+
+        if (cached != null) {
+            if (cached.etag != null) {
+                headers.put("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                headers.put("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        final DidWebResponse response;
+
+        try {
+            response = transport.get(url, headers);
+
+        } catch (IOException e) {
+            throw new DidResolutionException(did.toString(), "Failed to fetch " + url + ": " + e.getMessage(), e);
+        }
+
+        switch (response.status()) {
+        case 200:
+            break;
+
+        case 304:
+            if (cached != null) {
+                return cached.document;
+            }
+            throw new DidResolutionException(did.toString(), Code.Internal, "Unexpected HTTP status 304 for an unconditional request to " + url + ".");
+
+        case 404:
+        case 410:
+            throw new DidResolutionException(did.toString(), Code.NotFound);
+
+        default:
+            throw new DidResolutionException(did.toString(), Code.Internal, "Unexpected HTTP status " + response.status() + " from " + url + ".");
+        }
+
+        final ResolvedDidDocument document = ResolvedDidDocument.of(read(did, response));
+
+        if (cache != null) {
+            final String etag = response.header("ETag");
+            final String lastModified = response.header("Last-Modified");
+
+            if (etag != null || lastModified != null) {
+                cache.put(url, new Cached(document, etag, lastModified));
+
+            } else if (cached != null) {
+                cache.remove(url);
+            }
+        }
+
+        return document;
+    }
+
+    DidDocument read(final Did did, final DidWebResponse response) throws DidResolutionException {
+
+        final String contentType = response.header("Content-Type");
+
+        DidDocumentReader reader = formats.reader(contentType);
+
+        if (reader == null) {
+            // did.json is a JSON representation, often served as application/json
+            reader = formats.reader(DidDocumentFormats.JSON);
+        }
+        if (reader == null) {
+            throw new DidResolutionException(did.toString(), Code.Internal, "Unsupported content type [" + contentType + "].");
+        }
+
+        final DidDocument document;
+
+        try {
+            document = reader.read(new ByteArrayInputStream(response.body()));
+
+        } catch (IOException | DidDocumentReaderException e) {
+            throw new DidResolutionException(did.toString(), "Invalid DID document: " + e.getMessage(), e);
+        }
+
+        if (document.id() == null
+                || !did.getMethod().equals(document.id().getMethod())
+                || !did.getMethodSpecificId().equals(document.id().getMethodSpecificId())) {
+            throw new DidResolutionException(did.toString(), Code.Internal, "The DID document id [" + document.id() + "] does not match the resolved DID.");
+        }
+
+        return document;
+    }
+
+    /**
+     * Returns the {@code did.json} URL of the given did:web, e.g.
+     * {@code did:web:example.com%3A3000:user:alice} maps to
+     * {@code https://example.com:3000/user/alice/did.json}.
+     *
+     * @param did a did:web (must not be {@code null})
+     * @return the document URL
+     * @throws IllegalArgumentException if the method-specific-id does not denote a
+     *                                  valid URL
+     */
+    public static URI url(final Did did) {
+        Objects.requireNonNull(did);
+        return url(did, true);
+    }
+
+    static final URI url(final Did did, final boolean secure) {
+
+        final String msi = did.getMethodSpecificId();
+
+        int end = msi.indexOf(':');
+        if (end == -1) {
+            end = msi.length();
+        }
+
+        final String authority = decode(msi, 0, end);
+
+        if (authority.isEmpty() || authority.indexOf('/') != -1 || authority.indexOf('@') != -1) {
+            throw new IllegalArgumentException("Invalid did:web domain name [" + authority + "].");
+        }
+
+        final StringBuilder path = new StringBuilder(msi.length() - end + DOCUMENT.length() + WELL_KNOWN.length());
+
+        if (end == msi.length()) {
+            path.append(WELL_KNOWN);
+        }
+
+        while (end < msi.length()) {
+
+            final int start = end + 1;
+
+            end = msi.indexOf(':', start);
+            if (end == -1) {
+                end = msi.length();
+            }
+
+            final String segment = decode(msi, start, end);
+
+            if (segment.isEmpty() || segment.indexOf('/') != -1 || ".".equals(segment) || "..".equals(segment)) {
+                throw new IllegalArgumentException("Invalid did:web path segment [" + segment + "].");
+            }
+
+            path.append('/').append(segment);
+        }
+
+        path.append(DOCUMENT);
+
+        try {
+            final int colon = authority.lastIndexOf(':');
+
+            if (colon == -1) {
+                return new URI(secure ? "https" : "http", null, authority, -1, path.toString(), null, null);
+            }
+
+            final int port = Integer.parseInt(authority.substring(colon + 1));
+
+            if (port < 0 || port > 0xFFFF) {
+                throw new IllegalArgumentException("Invalid did:web port [" + port + "].");
+            }
+
+            return new URI(secure ? "https" : "http", null, authority.substring(0, colon), port, path.toString(), null, null);
+
+        } catch (URISyntaxException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid did:web domain name [" + authority + "].", e);
+        }
+    }
+
+    /**
+     * Percent-decodes {@code value[start, end)} as UTF-8.
+     */
+    static final String decode(final String value, final int start, final int end) {
+
+        final int percent = value.indexOf('%', start);
+
+        if (percent == -1 || percent >= end) {
+            return value.substring(start, end);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(end - start);
+
+        for (int i = start; i < end; i++) {
+
+            final char ch = value.charAt(i);
+
+            if (ch != '%') {
+                bytes.write(ch);
+                continue;
+            }
+
+            if (i + 2 >= end) {
+                throw new IllegalArgumentException("Invalid percent-encoding at position " + i + ".");
+            }
+
+            final int hi = Character.digit(value.charAt(i + 1), 16);
+            final int lo = Character.digit(value.charAt(i + 2), 16);
+
+            if (hi == -1 || lo == -1) {
+                throw new IllegalArgumentException("Invalid percent-encoding at position " + i + ".");
+            }
+
+            bytes.write((hi << 4) | lo);
+            i += 2;
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public static Builder with(DidDocumentFormats formats) {
+        return new Builder(formats);
+    }
+
+    public static Builder with(DidDocumentReader reader) {
+        return new Builder(DidDocumentFormats.with(reader).build());
+    }
+
+    public static class Builder {
+
+        final DidDocumentFormats formats;
+
+        DidWebTransport transport;
+        boolean secure;
+        int capacity;
+
+        Builder(final DidDocumentFormats formats) {
+            this.formats = Objects.requireNonNull(formats);
+            this.transport = HttpUrlConnectionTransport.getInstance();
+            this.secure = true;
+            this.capacity = 0;
+        }
+
+        /**
+         * Sets the transport, {@link HttpUrlConnectionTransport} by default.
+         *
+         * @param transport the transport (must not be {@code null})
+         * @return this builder
+         */
+        public Builder transport(DidWebTransport transport) {
+            this.transport = Objects.requireNonNull(transport);
+            return this;
+        }
+
+        /**
+         * Enables caching and revalidation of up to {@code capacity} documents,
+         * least recently used documents are evicted first. Disabled by default.
+         *
+         * @param capacity the maximum number of cached documents, {@code 0}
+         *                 disables caching
+         * @return this builder
+         */
+        public Builder cache(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("The cache capacity must be non-negative but got " + capacity + ".");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Fetches documents over {@code https}, enabled by default. Plain
+         * {@code http} is meant for testing against local servers only.
+         *
+         * @param secure {@code false} to use {@code http}
+         * @return this builder
+         */
+        public Builder secure(boolean secure) {
+            this.secure = secure;
+            return this;
+        }
+
+        public DidWebResolver build() {
+            return new DidWebResolver(
+                    transport,
+                    formats,
+                    secure,
+                    capacity > 0
+                            ? Collections.synchronizedMap(new Lru(capacity))
+                            : null);
+        }
+    }
+
+    static final class Cached {
+
+        final ResolvedDidDocument document;
+        final String etag;
+        final String lastModified;
+
+        Cached(final ResolvedDidDocument document, final String etag, final String lastModified) {
+            this.document = document;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    static final class Lru extends LinkedHashMap<URI, Cached> {
+
+        private static final long serialVersionUID = 1L;
+
+        final int capacity;
+
+        Lru(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<URI, Cached> eldest) {
+            return size() > capacity;
+        }
+    }
+}
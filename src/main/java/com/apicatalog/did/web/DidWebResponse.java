@@ -0,0 +1,53 @@
+package com.apicatalog.did.web;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * An HTTP response returned by a {@link DidWebTransport}.
+ */
+public interface DidWebResponse {
+
+    /**
+     * Returns the HTTP status code.
+     *
+     * @return status code, e.g. {@code 200}
+     */
+    int status();
+
+    /**
+     * Returns the value of the given response header.
+     *
+     * @param name header name, case-insensitive
+     * @return header value, or {@code null} if not present
+     */
+    String header(String name);
+
+    /**
+     * Returns the response body.
+     *
+     * @return body, empty if there is no body, never {@code null}
+     */
+    byte[] body();
+
+    /**
+     * Creates a response.
+     *
+     * @param status  HTTP status code
+     * @param headers response headers (must not be {@code null}), copied
+     * @param body    response body (must not be {@code null}), not copied
+     * @return a new {@code DidWebResponse}
+     */
+    static DidWebResponse of(final int status, final Map<String, String> headers, final byte[] body) {
+
+        Objects.requireNonNull(headers);
+        Objects.requireNonNull(body);
+
+        final Map<String, String> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copy.putAll(headers);
+
+        return new ImmutableWebResponse(status, Collections.unmodifiableMap(copy), body);
+    }
+}
@@ -0,0 +1,30 @@
+package com.apicatalog.did.web;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * An HTTP transport used by {@link DidWebResolver} to fetch {@code did.json}
+ * documents.
+ * <p>
+ * Implementations are expected to be thread-safe and to reuse connections
+ * between requests. The default, {@link HttpUrlConnectionTransport}, relies on
+ * the JDK keep-alive pool; a transport built on a client supporting HTTP/2 can
+ * be plugged in where multiplexing is needed.
+ * </p>
+ */
+@FunctionalInterface
+public interface DidWebTransport {
+
+    /**
+     * Performs an HTTP {@code GET} request.
+     *
+     * @param url     target URL (must not be {@code null})
+     * @param headers request headers, e.g. {@code Accept} or
+     *                {@code If-None-Match} (must not be {@code null})
+     * @return the response, including non-successful ones
+     * @throws IOException if the request could not be performed
+     */
+    DidWebResponse get(URI url, Map<String, String> headers) throws IOException;
+}
@@ -0,0 +1,141 @@
+package com.apicatalog.did.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link DidWebTransport} using {@link HttpURLConnection}.
+ * <p>
+ * Response bodies are always read to the end and closed, so the underlying
+ * connection is returned to the JDK keep-alive pool and reused by subsequent
+ * requests to the same host. The pool size is controlled by the
+ * {@code http.maxConnections} system property.
+ * </p>
+ */
+public final class HttpUrlConnectionTransport implements DidWebTransport {
+
+    /** The default maximum accepted body size, 1 MiB. */
+    public static final int MAX_LENGTH = 1 << 20;
+
+    static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    static final HttpUrlConnectionTransport INSTANCE = new HttpUrlConnectionTransport(TIMEOUT, TIMEOUT, MAX_LENGTH);
+
+    final int connectTimeout;
+    final int readTimeout;
+    final int maxLength;
+
+    HttpUrlConnectionTransport(final Duration connectTimeout, final Duration readTimeout, final int maxLength) {
+        this.connectTimeout = (int) connectTimeout.toMillis();
+        this.readTimeout = (int) readTimeout.toMillis();
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns a shared transport with 10 second timeouts and
+     * {@value #MAX_LENGTH} bytes body limit.
+     *
+     * @return the transport
+     */
+    public static HttpUrlConnectionTransport getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new transport.
+     *
+     * @param connectTimeout connection timeout (must not be {@code null})
+     * @param readTimeout    read timeout (must not be {@code null})
+     * @param maxLength      the maximum accepted body size in bytes
+     * @return a new transport
+     */
+    public static HttpUrlConnectionTransport of(final Duration connectTimeout, final Duration readTimeout, final int maxLength) {
+        Objects.requireNonNull(connectTimeout);
+        Objects.requireNonNull(readTimeout);
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("The maximum body length must be positive but got " + maxLength + ".");
+        }
+        return new HttpUrlConnectionTransport(connectTimeout, readTimeout, maxLength);
+    }
+
+    @Override
+    public DidWebResponse get(final URI url, final Map<String, String> headers) throws IOException {
+
+        Objects.requireNonNull(url);
+        Objects.requireNonNull(headers);
+
+        final URLConnection connection = url.toURL().openConnection();
+
+        if (!(connection instanceof HttpURLConnection)) {
+            throw new IOException("Unsupported URL [" + url + "], expected http or https.");
+        }
+
+        final HttpURLConnection http = (HttpURLConnection) connection;
+
+        try {
+            http.setRequestMethod("GET");
+            http.setConnectTimeout(connectTimeout);
+            http.setReadTimeout(readTimeout);
+            http.setUseCaches(false);
+            http.setInstanceFollowRedirects(true);
+
+            headers.forEach(http::setRequestProperty);
+
+            final int status = http.getResponseCode();
+
+            final byte[] body = read(status >= 400 ? http.getErrorStream() : http.getInputStream(), http.getContentLengthLong());
+
+            final Map<String, String> responseHeaders = new HashMap<>();
+
+            for (final Map.Entry<String, List<String>> header : http.getHeaderFields().entrySet()) {
+                // the status line has no name
+                if (header.getKey() != null && !header.getValue().isEmpty()) {
+                    responseHeaders.put(header.getKey(), header.getValue().get(0));
+                }
+            }
+
+            return DidWebResponse.of(status, responseHeaders, body);
+
+        } catch (IOException e) {
+            // the connection state is unknown, do not return it to the pool
+            http.disconnect();
+            throw e;
+        }
+    }
+
+    byte[] read(final InputStream is, final long contentLength) throws IOException {
+
+        if (is == null) {
+            return new byte[0];
+        }
+
+        if (contentLength > maxLength) {
+            is.close();
+            throw new IOException("The response body length " + contentLength + " exceeds " + maxLength + " bytes.");
+        }
+
+        try (InputStream in = is) {
+
+            final ByteArrayOutputStream os = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 4096);
+            final byte[] buffer = new byte[8192];
+
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (os.size() + n > maxLength) {
+                    throw new IOException("The response body exceeds " + maxLength + " bytes.");
+                }
+                os.write(buffer, 0, n);
+            }
+            return os.toByteArray();
+        }
+    }
+}
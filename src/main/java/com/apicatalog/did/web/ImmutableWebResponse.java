@@ -0,0 +1,31 @@
+package com.apicatalog.did.web;
+
+import java.util.Map;
+
+final class ImmutableWebResponse implements DidWebResponse {
+
+    final int status;
+    final Map<String, String> headers;
+    final byte[] body;
+
+    ImmutableWebResponse(final int status, final Map<String, String> headers, final byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public int status() {
+        return status;
+    }
+
+    @Override
+    public String header(final String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public byte[] body() {
+        return body;
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * A resolver of the
+ * <a href="https://w3c-ccg.github.io/did-method-web/">did:web</a> method.
+ * <ul>
+ * <li>{@link com.apicatalog.did.web.DidWebResolver} — fetches and revalidates
+ * {@code did.json} documents</li>
+ * <li>{@link com.apicatalog.did.web.DidWebTransport} — pluggable HTTP
+ * transport</li>
+ * <li>{@link com.apicatalog.did.web.HttpUrlConnectionTransport} — the default
+ * transport reusing JDK keep-alive connections</li>
+ * </ul>
+ */
+package com.apicatalog.did.web;
@@ -2,18 +2,35 @@ package com.apicatalog.did;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 @DisplayName("DID")
@@ -107,6 +124,162 @@ class DidTest {
         assertTrue(Did.isDid(URI.create(uri)));
     }
 
+    @DisplayName("writeTo(DataOutput)/readFrom(DataInput)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "positiveVectors" })
+    void binaryStream(String input) throws IOException {
+        final Did did = Did.of(input);
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        did.writeTo(new DataOutputStream(os));
+
+        assertEquals(did.binarySize(), os.size());
+
+        final Did read = Did.readFrom(new DataInputStream(new ByteArrayInputStream(os.toByteArray())));
+
+        assertEquals(did, read);
+        assertEquals(input, read.toString());
+    }
+
+    @DisplayName("writeTo(ByteBuffer)/readFrom(ByteBuffer)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "positiveVectors" })
+    void binaryBuffer(String input) {
+        final Did did = Did.of(input);
+
+        final ByteBuffer buffer = did.writeTo(ByteBuffer.allocate(did.binarySize()));
+
+        assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+
+        assertEquals(did, Did.readFrom(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @DisplayName("toNormalizedString()")
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "did:ex:a%3a, did:ex:a%3A",
+            "did:ex:a%3A, did:ex:a%3A",
+            "did:ex:a%41, did:ex:a%41",
+            "did:ex:abc, did:ex:abc",
+            "did:ex:a#%6b%65y-1, did:ex:a#key-1",
+            "did:ex:a%2f/p%2fq%7e?x=%2f%2d#f%3a, did:ex:a%2F/p%2Fq~?x=%2F-#f%3A",
+            "did:ex:a?x=100%, did:ex:a?x=100%",
+    })
+    void normalized(String input, String expected) {
+
+        final Did did = input.matches(".*[/?#].*")
+                ? DidUrl.of(input)
+                : Did.of(input);
+
+        assertEquals(expected, did.toNormalizedString());
+        assertEquals(expected, did.normalized().toString());
+        assertSame(did.toNormalizedString(), did.toNormalizedString());
+
+        if (input.equals(expected)) {
+            assertSame(did, did.normalized());
+            assertSame(did.toString(), did.toNormalizedString());
+        }
+    }
+
+    @DisplayName("equalsNormalized(Did)")
+    @Test
+    void equalsNormalized() {
+
+        final Did lower = Did.of("did:ex:a%3a");
+        final Did upper = Did.of("did:ex:a%3A");
+
+        assertNotEquals(lower, upper);
+        assertTrue(lower.equalsNormalized(upper));
+        assertEquals(lower.normalizedHash(), upper.normalizedHash());
+        assertEquals(lower.normalized(), upper.normalized());
+
+        assertTrue(DidUrl.of("did:ex:a%3a#%6b").equalsNormalized(DidUrl.of("did:ex:a%3A#k")));
+        assertFalse(lower.equalsNormalized(Did.of("did:ex:a%3B")));
+        assertFalse(lower.equalsNormalized(null));
+    }
+
+    @DisplayName("compareTo(Did) and toSortKey()")
+    @Test
+    void order() {
+
+        final List<Did> expected = Arrays.asList(
+                Did.of("did:a:1"),
+                DidUrl.of("did:a:1"),
+                DidUrl.of("did:a:1#"),
+                DidUrl.of("did:a:1#k"),
+                DidUrl.of("did:a:1?q"),
+                DidUrl.of("did:a:1/"),
+                DidUrl.of("did:a:1/p"),
+                DidUrl.of("did:a:1/p#\uFFFD"),
+                DidUrl.of("did:a:1/p#\uD83D\uDE00"),
+                Did.of("did:a:1%3A"),
+                Did.of("did:a:1.2"),
+                Did.of("did:a:10"),
+                Did.of("did:ab:1"),
+                Did.of("did:b:0"));
+
+        final List<Did> sorted = new ArrayList<>(expected);
+        Collections.shuffle(sorted, new Random(7));
+        Collections.sort(sorted);
+
+        assertEquals(expected, sorted);
+
+        final List<byte[]> keys = new ArrayList<>();
+        for (final Did did : expected) {
+            keys.add(did.toSortKey());
+            assertEquals(did, Did.fromSortKey(did.toSortKey()));
+            assertEquals(0, did.compareTo(Did.fromSortKey(did.toSortKey())));
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            for (int j = 0; j < keys.size(); j++) {
+                assertEquals(
+                        Integer.signum(expected.get(i).compareTo(expected.get(j))),
+                        Integer.signum(Did.compareSortKeys(keys.get(i), keys.get(j))),
+                        expected.get(i) + " <> " + expected.get(j));
+            }
+        }
+    }
+
+    @DisplayName("sortKeyPrefix(String, String)")
+    @Test
+    void sortKeyPrefix() {
+
+        final TreeMap<byte[], Did> index = new TreeMap<>(Did::compareSortKeys);
+
+        for (final String did : new String[] { "did:a:1", "did:ab:1", "did:a:12#k", "did:a:2", "did:a:13", "did:b:1" }) {
+            final Did id = did.indexOf('#') != -1 ? DidUrl.of(did) : Did.of(did);
+            index.put(id.toSortKey(), id);
+        }
+
+        assertEquals(
+                Arrays.asList("did:a:1", "did:a:12#k", "did:a:13", "did:a:2"),
+                scan(index, Did.sortKeyPrefix("a")));
+
+        assertEquals(
+                Arrays.asList("did:a:1", "did:a:12#k", "did:a:13"),
+                scan(index, Did.sortKeyPrefix("a", "1")));
+
+        assertEquals(
+                Arrays.asList("did:a:12#k"),
+                scan(index, Did.sortKeyPrefix("a", "12")));
+    }
+
+    static List<String> scan(TreeMap<byte[], Did> index, byte[] prefix) {
+        final List<String> result = new ArrayList<>();
+        for (final Map.Entry<byte[], Did> entry : index.tailMap(prefix).entrySet()) {
+            if (entry.getKey().length < prefix.length
+                    || Did.compareSortKeys(Arrays.copyOf(entry.getKey(), prefix.length), prefix) != 0) {
+                break;
+            }
+            result.add(entry.getValue().toString());
+        }
+        return result;
+    }
+
     static Stream<Arguments> positiveVectors() {
         return Stream.of(
                 Arguments.of(
@@ -0,0 +1,94 @@
+package com.apicatalog.did;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@DisplayName("DID URL parameters")
+class DidUrlParametersTest {
+
+    @DisplayName("standard parameters")
+    @Test
+    void standard() {
+
+        final DidUrlParameters parameters = DidUrl.of(
+                "did:example:123?service=files&relativeRef=%2Fresume.pdf&versionId=1&versionTime=2021-05-10T17%3A00%3A00Z&hl=zQm")
+                .getParameters();
+
+        assertEquals(5, parameters.size());
+        assertEquals("files", parameters.service());
+        assertEquals("/resume.pdf", parameters.relativeRef());
+        assertEquals("1", parameters.versionId());
+        assertEquals("2021-05-10T17:00:00Z", parameters.versionTime());
+        assertEquals("zQm", parameters.hl());
+        assertEquals("%2Fresume.pdf", parameters.getRaw(DidUrlParameters.RELATIVE_REF));
+    }
+
+    @DisplayName("absent parameters")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "did:example:123",
+            "did:example:123?",
+            "did:example:123?&&",
+            "did:example:123?services=a&Service=b#service",
+    })
+    void absent(String uri) {
+
+        final DidUrlParameters parameters = DidUrl.of(uri).getParameters();
+
+        assertNull(parameters.service());
+        assertNull(parameters.get(DidUrlParameters.SERVICE));
+        assertFalse(parameters.contains("service"));
+        assertEquals(Collections.emptyList(), parameters.getAll("service"));
+    }
+
+    @DisplayName("get(String)")
+    @ParameterizedTest(name = "{0} -> {1} = {2}")
+    @CsvSource({
+            "a=1&b=2, b, 2",
+            "a=1&a=2, a, 1",
+            "flag&a=1, flag, ''",
+            "a=&b=2, a, ''",
+            "a=x%3Dy, a, x=y",
+            "a=%C3%A9t%C3%A9, a, été",
+            "a=100%, a, 100%",
+            "a=%zz, a, %zz",
+            "a=b=c, a, b=c",
+    })
+    void get(String query, String name, String expected) {
+        assertEquals(expected, DidUrlParameters.of(query).get(name));
+    }
+
+    @DisplayName("getAll(String)")
+    @Test
+    void getAll() {
+
+        final DidUrlParameters parameters = DidUrlParameters.of("a=1&b=2&a=%33");
+
+        assertEquals(Arrays.asList("1", "3"), parameters.getAll("a"));
+        assertEquals("a", parameters.name(2));
+        assertEquals("%33", parameters.rawValue(2));
+        assertEquals("3", parameters.value(2));
+    }
+
+    @DisplayName("getParameters() is cached")
+    @Test
+    void cached() {
+
+        final DidUrl url = DidUrl.of("did:example:123?versionId=1");
+
+        assertSame(url.getParameters(), url.getParameters());
+        assertSame(url.getParameters().versionId(), url.getParameters().versionId());
+        assertTrue(DidUrl.of("did:example:123").getParameters().isEmpty());
+    }
+}
@@ -1,10 +1,19 @@
 package com.apicatalog.did;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +21,7 @@ import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 @DisplayName("DID URL")
@@ -82,6 +92,109 @@ class DidUrlTest {
         assertEquals(input, didUrl.toString());
     }
 
+    @DisplayName("writeTo(DataOutput)/readFrom(DataInput)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "positiveVectors" })
+    void binaryStream(String input) throws IOException {
+        final DidUrl didUrl = DidUrl.of(input);
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        didUrl.writeTo(new DataOutputStream(os));
+
+        assertEquals(didUrl.binarySize(), os.size());
+
+        final Did read = Did.readFrom(new DataInputStream(new ByteArrayInputStream(os.toByteArray())));
+
+        assertEquals(didUrl, read);
+        assertEquals(input, read.toString());
+    }
+
+    @DisplayName("writeTo(ByteBuffer)/readFrom(ByteBuffer)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "positiveVectors" })
+    void binaryBuffer(String input) {
+        final DidUrl didUrl = DidUrl.of(input);
+
+        final ByteBuffer buffer = didUrl.writeTo(ByteBuffer.allocate(didUrl.binarySize()));
+
+        assertFalse(buffer.hasRemaining());
+
+        buffer.flip();
+
+        assertEquals(didUrl, Did.readFrom(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @DisplayName("of(Did, ...) shares the base DID")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "positiveVectors" })
+    void sharedBase(String input) {
+        final DidUrl parsed = DidUrl.of(input);
+        final Did did = parsed.toDid();
+
+        assertSame(did, parsed.toDid());
+
+        final DidUrl shared = DidUrl.of(did, parsed.getPath(), parsed.getQuery(), parsed.getFragment());
+
+        assertSame(did, shared.toDid());
+        assertSame(did, DidUrl.of(shared, null, null, "key-1").toDid());
+        assertEquals(parsed, shared);
+        assertEquals(parsed.hashCode(), shared.hashCode());
+        assertEquals(input, shared.toString());
+    }
+
+    @DisplayName("resolveReference(Did, CharSequence)")
+    @ParameterizedTest(name = "{0} + {1}")
+    @CsvSource({
+            "did:ex:123, #key-1, did:ex:123#key-1",
+            "did:ex:123, #, did:ex:123#",
+            "did:ex:123, ?service=files, did:ex:123?service=files",
+            "did:ex:123, ?service=files&relativeRef=%2Fa#x, did:ex:123?service=files&relativeRef=%2Fa#x",
+            "did:ex:123, /p/q?x=1#f, did:ex:123/p/q?x=1#f",
+            "did:ex:123, did:other:456#k, did:other:456#k",
+            "did:ex:123/p?x=1#a, #b, did:ex:123/p?x=1#b",
+            "did:ex:123/p?x=1#a, ?y=2, did:ex:123/p?y=2",
+            "did:ex:123/p?x=1#a, /r, did:ex:123/r",
+            "did:ex:123/p?x=1#a, '', did:ex:123/p?x=1",
+            "did:ex:123, /a/../b, did:ex:123/b",
+            "did:ex:123, /a/b/c/./../../g, did:ex:123/a/g",
+            "did:ex:123, /a/./b/., did:ex:123/a/b/",
+            "did:ex:123, /a/b/.., did:ex:123/a/",
+            "did:ex:123, /../../a?x=/../#/.., did:ex:123/a?x=/../#/..",
+            "did:ex:123, /., did:ex:123/",
+            "did:ex:123, /a/.b/..c/%2E, did:ex:123/a/.b/..c/%2E",
+            "did:ex:123/p, did:other:456/a/../b#k, did:other:456/b#k",
+    })
+    void resolveReference(String base, String ref, String expected) {
+
+        final Did did = base.matches(".*[/?#].*") ? DidUrl.of(base) : Did.of(base);
+
+        final DidUrl resolved = DidUrl.resolveReference(did, ref);
+
+        assertEquals(expected, resolved.toString());
+        assertEquals(DidUrl.of(expected), resolved);
+        assertEquals(DidUrl.of(expected).hashCode(), resolved.hashCode());
+
+        if (!ref.startsWith("did:")) {
+            assertSame(did.isDidUrl() ? did.asDidUrl().toDid() : did, resolved.toDid());
+        }
+    }
+
+    @DisplayName("resolveReference(Did, CharSequence) negative")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "key-1",
+            "//authority/p",
+            "#a b",
+            "#a#b",
+            "?x=%zz",
+            "?x=%2",
+            "/p<q",
+    })
+    void resolveReferenceNegative(String ref) {
+        assertThrows(IllegalArgumentException.class, () -> DidUrl.resolveReference(Did.of("did:ex:123"), ref));
+    }
+
     static Stream<Arguments> positiveVectors() {
         return Stream.of(
                 Arguments.of(
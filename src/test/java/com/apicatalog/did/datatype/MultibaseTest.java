@@ -0,0 +1,192 @@
+package com.apicatalog.did.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayName("Multibase")
+class MultibaseTest {
+
+    static final byte[] TEXT = "yes mani !".getBytes(StandardCharsets.US_ASCII);
+
+    static final byte[] ZERO_TEXT = new byte[TEXT.length + 1];
+
+    static {
+        System.arraycopy(TEXT, 0, ZERO_TEXT, 1, TEXT.length);
+    }
+
+    @DisplayName("encode(byte[])")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void encode(Multibase base, String encoded, byte[] data) {
+        assertEquals(encoded, base.encode(data));
+    }
+
+    @DisplayName("decode(CharSequence)")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void decode(Multibase base, String encoded, byte[] data) {
+        assertSame(base, Multibase.of(encoded));
+        assertArrayEquals(data, base.decode(encoded));
+    }
+
+    @DisplayName("decode(CharSequence, byte[], int)")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void decodeArray(Multibase base, String encoded, byte[] data) {
+        final byte[] dst = new byte[data.length + 3];
+        final int length = base.decode(encoded, dst, 3);
+
+        assertEquals(data.length, length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], dst[3 + i]);
+        }
+    }
+
+    @DisplayName("decode(CharSequence, ByteBuffer)")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void decodeBuffer(Multibase base, String encoded, byte[] data) {
+        for (final ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+            buffer.position(2);
+            assertEquals(data.length, base.decode(encoded, buffer));
+            assertEquals(2 + data.length, buffer.position());
+
+            final byte[] bytes = new byte[data.length];
+            buffer.position(2);
+            buffer.get(bytes);
+            assertArrayEquals(data, bytes);
+        }
+    }
+
+    @DisplayName("decode(CharSequence, byte[], int) overflow")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void decodeOverflow(Multibase base, String encoded, byte[] data) {
+        assertThrows(IllegalArgumentException.class, () -> base.decode(encoded, new byte[data.length - 1], 0));
+    }
+
+    @DisplayName("MultibaseEncoded.of(String)")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void lazy(Multibase base, String encoded, byte[] data) {
+        final MultibaseEncoded value = MultibaseEncoded.of(encoded);
+
+        assertEquals(base.baseName(), value.baseName());
+        assertEquals(encoded, value.toString());
+        assertArrayEquals(data, value.debased());
+        assertSame(value.debased(), value.debased());
+
+        final MultibaseEncoded immutable = MultibaseEncoded.of(base.baseName(), data);
+        assertEquals(immutable, value);
+        assertEquals(value, immutable);
+        assertEquals(immutable.hashCode(), value.hashCode());
+    }
+
+    @DisplayName("MultibaseEncoded.of(Multibase, String, byte[])")
+    @ParameterizedTest(name = "{1}")
+    @MethodSource({ "vectors" })
+    void decoded(Multibase base, String encoded, byte[] data) {
+        final byte[] debased = data.clone();
+        final MultibaseEncoded value = MultibaseEncoded.of(base, encoded, debased);
+
+        assertEquals(encoded, value.toString());
+        assertSame(debased, value.debased());
+        assertEquals(MultibaseEncoded.of(encoded), value);
+        assertEquals(MultibaseEncoded.of(encoded).hashCode(), value.hashCode());
+    }
+
+    @DisplayName("Base58Btc.decode(encode(byte[])) zeros")
+    @ParameterizedTest(name = "{0} zeros + {1} bytes")
+    @CsvSource({
+            "32, 0",
+            "1, 0",
+            "3, 1",
+            "5, 32",
+            "31, 1",
+    })
+    void zeros(int zeros, int tail) {
+
+        final byte[] data = new byte[zeros + tail];
+        for (int i = zeros; i < data.length; i++) {
+            data[i] = (byte) (0xFF - i);
+        }
+
+        final String encoded = Multibase.Base58Btc.encode(data);
+
+        assertArrayEquals(data, Multibase.Base58Btc.decode(encoded));
+        assertEquals(data.length, Multibase.Base58Btc.decode(encoded, new byte[data.length], 0));
+    }
+
+    @DisplayName("decode(CharSequence) invalid")
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> Multibase.Base58Btc.decode("z0OIl"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.Base58Btc.decode("u7paNL19xttacUY"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.Base16.decode("f7"));
+        assertThrows(IllegalArgumentException.class, () -> Multibase.Base64Url.decode("uA"));
+        assertThrows(IllegalArgumentException.class, () -> MultibaseEncoded.of("Q123"));
+    }
+
+    @DisplayName("MultibaseEncoded.of(String) malformed equals/hashCode")
+    @Test
+    void malformed() {
+
+        final MultibaseEncoded malformed = MultibaseEncoded.of("z0OIl");
+        final MultibaseEncoded valid = MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+
+        assertThrows(IllegalArgumentException.class, malformed::debased);
+
+        assertEquals(MultibaseEncoded.of("z0OIl"), malformed);
+        assertEquals(MultibaseEncoded.of("z0OIl").hashCode(), malformed.hashCode());
+
+        assertNotEquals(valid, malformed);
+        assertNotEquals(malformed, valid);
+        assertNotEquals(malformed, MultibaseEncoded.of("z0OIO"));
+        assertNotEquals(malformed, MultibaseEncoded.of("base58btc", new byte[0]));
+
+        final Set<MultibaseEncoded> set = new HashSet<>(Arrays.asList(malformed, valid, MultibaseEncoded.of("z0OIl")));
+        assertEquals(2, set.size());
+    }
+
+    @DisplayName("did:key")
+    @Test
+    void didKey() {
+        final byte[] key = Multibase.Base58Btc.decode("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+
+        assertEquals(34, key.length);
+        assertEquals((byte) 0xed, key[0]);
+        assertEquals(0x01, key[1]);
+        assertEquals("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH", Multibase.Base58Btc.encode(key));
+    }
+
+    static Stream<Arguments> vectors() {
+        return Stream.of(
+                Arguments.of(Multibase.Base58Btc, "z7paNL19xttacUY", TEXT),
+                Arguments.of(Multibase.Base64Url, "ueWVzIG1hbmkgIQ", TEXT),
+                Arguments.of(Multibase.Base32, "bpfsxgidnmfxgsibb", TEXT),
+                Arguments.of(Multibase.Base16, "f796573206d616e692021", TEXT),
+                Arguments.of(Multibase.Base58Btc, "z17paNL19xttacUY", ZERO_TEXT),
+                Arguments.of(Multibase.Base64Url, "uAHllcyBtYW5pICE", ZERO_TEXT),
+                Arguments.of(Multibase.Base32, "bab4wk4zanvqw42jaee", ZERO_TEXT),
+                Arguments.of(Multibase.Base16, "f00796573206d616e692021", ZERO_TEXT),
+                Arguments.of(Multibase.Base58Btc, "z1111", new byte[4]),
+                Arguments.of(Multibase.Base58Btc, "z11111111112", new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1 }));
+    }
+}
@@ -0,0 +1,101 @@
+package com.apicatalog.did.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayName("Multicodec")
+class MulticodecTest {
+
+    @DisplayName("UnsignedVarint")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "varints" })
+    void varint(long value, byte[] encoded) {
+        final byte[] bytes = new byte[UnsignedVarint.MAX_LENGTH + 1];
+
+        assertEquals(encoded.length, UnsignedVarint.size(value));
+        assertEquals(encoded.length, UnsignedVarint.write(value, bytes, 1));
+        assertEquals(value, UnsignedVarint.read(bytes, 1));
+        assertEquals(value, UnsignedVarint.read(encoded, 0, encoded.length));
+
+        final ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        assertEquals(value, UnsignedVarint.read(buffer));
+        assertEquals(encoded.length, buffer.position());
+    }
+
+    @DisplayName("UnsignedVarint invalid")
+    @Test
+    void invalidVarint() {
+        // not minimal
+        assertThrows(IllegalArgumentException.class, () -> UnsignedVarint.read(new byte[] { (byte) 0x81, 0x00 }, 0));
+        // truncated
+        assertThrows(IllegalArgumentException.class, () -> UnsignedVarint.read(new byte[] { (byte) 0x81 }, 0));
+        // too long
+        final byte[] bytes = new byte[10];
+        Arrays.fill(bytes, (byte) 0xFF);
+        assertThrows(IllegalArgumentException.class, () -> UnsignedVarint.read(bytes, 0));
+    }
+
+    @DisplayName("MulticodecEncoded.of(byte[])")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "codecs" })
+    void encoded(Multicodec codec) {
+        final byte[] payload = new byte[codec.length() != -1 ? codec.length() : 270];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+
+        final MulticodecEncoded encoded = MulticodecEncoded.of(codec.encode(payload));
+
+        assertSame(codec, Multicodec.of(codec.code()));
+        assertSame(codec, Multicodec.ofName(codec.codecName()));
+        assertSame(codec, encoded.codec());
+        assertEquals(codec.code(), encoded.codecCode());
+        assertArrayEquals(payload, encoded.decoded());
+        assertEquals(ByteBuffer.wrap(payload), encoded.payload());
+    }
+
+    @DisplayName("MulticodecEncoded.of(MultibaseEncoded)")
+    @Test
+    void didKey() {
+        final MulticodecEncoded encoded = MulticodecEncoded.of(MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+
+        assertSame(Multicodec.Ed25519PublicKey, encoded.codec());
+        assertEquals(32, encoded.payload().remaining());
+    }
+
+    @DisplayName("MulticodecEncoded.of(byte[]) invalid length")
+    @Test
+    void invalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> MulticodecEncoded.of(new byte[] { (byte) 0xed, 0x01, 1, 2, 3 }));
+        assertNull(MulticodecEncoded.of(new byte[] { 0x01, 1, 2, 3 }).codec());
+    }
+
+    static Stream<Arguments> varints() {
+        return Stream.of(
+                Arguments.of(0L, new byte[] { 0x00 }),
+                Arguments.of(1L, new byte[] { 0x01 }),
+                Arguments.of(127L, new byte[] { 0x7F }),
+                Arguments.of(128L, new byte[] { (byte) 0x80, 0x01 }),
+                Arguments.of(0xedL, new byte[] { (byte) 0xed, 0x01 }),
+                Arguments.of(0x1200L, new byte[] { (byte) 0x80, 0x24 }),
+                Arguments.of(16384L, new byte[] { (byte) 0x80, (byte) 0x80, 0x01 }),
+                Arguments.of(Long.MAX_VALUE, new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F }));
+    }
+
+    static Stream<Multicodec> codecs() {
+        return Stream.of(Multicodec.values());
+    }
+}
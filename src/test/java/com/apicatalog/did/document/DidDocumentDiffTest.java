@@ -0,0 +1,186 @@
+package com.apicatalog.did.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+
+@DisplayName("DidDocumentDiff")
+class DidDocumentDiffTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    static final DidVerificationMethod KEY_1 = method("key-1", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+    static final DidVerificationMethod KEY_2 = method("key-2", "z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK");
+    static final DidVerificationMethod ROTATED_2 = method("key-2", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+    static final DidVerificationMethod KEY_3 = method("key-3", "z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK");
+
+    static final DidService FILES = service("files", "LinkedDomains", "https://example.com/files/");
+    static final DidService MOVED_FILES = service("files", "LinkedDomains", "https://example.org/files/");
+    static final DidService MESSAGING = service("messaging", "DIDCommMessaging", "https://example.com/didcomm");
+
+    @DisplayName("of(DidDocument, DidDocument) equivalent")
+    @Test
+    void empty() {
+
+        final DidDocument document = DidDocumentBuilder.with(DID)
+                .controller(DID)
+                .verification(KEY_1)
+                .relationship(VerificationRelationship.Authentication, KEY_1)
+                .relationship(VerificationRelationship.KeyAgreement, KEY_3)
+                .service(FILES)
+                .build();
+
+        final DidDocumentDiff diff = DidDocumentDiff.of(document, DidDocumentBuilder.copyOf(document).build());
+
+        assertTrue(diff.isEmpty());
+        assertFalse(diff.hasMethodChanges());
+        assertFalse(diff.hasServiceChanges());
+    }
+
+    @DisplayName("of(DidDocument, DidDocument)")
+    @Test
+    void diff() {
+
+        final DidDocument source = DidDocumentBuilder.with(DID)
+                .controller(DID)
+                .verification(KEY_1)
+                .verification(KEY_2)
+                .relationship(VerificationRelationship.Authentication, KEY_1)
+                .relationship(VerificationRelationship.AssertionMethod, KEY_2)
+                .service(FILES)
+                .service(MESSAGING)
+                .build();
+
+        final DidDocument target = DidDocumentBuilder.with(DID)
+                .controller(Did.of("did:example:controller"))
+                .verification(ROTATED_2)
+                .verification(KEY_3)
+                .relationship(VerificationRelationship.AssertionMethod, ROTATED_2)
+                .relationship(VerificationRelationship.CapabilityInvocation, KEY_3)
+                .service(MOVED_FILES)
+                .build();
+
+        final DidDocumentDiff diff = DidDocumentDiff.of(source, target);
+
+        assertEquals(Collections.singletonList(KEY_3), diff.addedMethods());
+        assertEquals(Collections.singletonList(KEY_1), diff.removedMethods());
+        assertEquals(Collections.singletonList(ROTATED_2), diff.changedMethods());
+
+        assertEquals(Collections.singleton(KEY_1.id()), diff.removedReferences(VerificationRelationship.Authentication));
+        assertEquals(Collections.singleton(KEY_3.id()), diff.addedReferences(VerificationRelationship.CapabilityInvocation));
+        assertEquals(Collections.singletonList(ROTATED_2), diff.changedReferences(VerificationRelationship.AssertionMethod));
+        assertTrue(diff.addedReferences(VerificationRelationship.KeyAgreement).isEmpty());
+
+        assertEquals(Collections.singletonList(MOVED_FILES), diff.changedServices());
+        assertEquals(Collections.singletonList(MESSAGING), diff.removedServices());
+        assertTrue(diff.addedServices().isEmpty());
+
+        assertEquals(Collections.singleton(Did.of("did:example:controller")), diff.addedControllers());
+        assertEquals(Collections.singleton(DID), diff.removedControllers());
+
+        assertTrue(diff.hasMethodChanges());
+        assertTrue(diff.hasServiceChanges());
+        assertFalse(diff.isEmpty());
+    }
+
+    @DisplayName("of(DidDocument, DidDocument) embedded key rotation")
+    @Test
+    void embedded() {
+
+        final DidDocument source = DidDocumentBuilder.with(DID)
+                .relationship(VerificationRelationship.KeyAgreement, KEY_2)
+                .build();
+
+        final DidDocument target = DidDocumentBuilder.with(DID)
+                .relationship(VerificationRelationship.KeyAgreement, ROTATED_2)
+                .build();
+
+        final DidDocumentDiff diff = DidDocumentDiff.of(source, target);
+
+        assertTrue(diff.hasMethodChanges());
+        assertTrue(diff.addedReferences(VerificationRelationship.KeyAgreement).isEmpty());
+        assertTrue(diff.removedReferences(VerificationRelationship.KeyAgreement).isEmpty());
+        assertEquals(Collections.singletonList(ROTATED_2), diff.changedReferences(VerificationRelationship.KeyAgreement));
+    }
+
+    @DisplayName("DidServiceIndex.patch(DidDocumentDiff, DidDocument)")
+    @Test
+    void patch() {
+
+        final DidDocument source = DidDocumentBuilder.with(DID).service(FILES).build();
+        final DidServiceIndex index = DidServiceIndex.of(source);
+
+        final DidDocument rotated = DidDocumentBuilder.copyOf(source).verification(KEY_1).build();
+
+        assertSame(index, index.patch(DidDocumentDiff.of(source, rotated), rotated));
+
+        final DidDocument moved = DidDocumentBuilder.with(DID).service(MOVED_FILES).build();
+        final DidServiceIndex patched = index.patch(DidDocumentDiff.of(source, moved), moved);
+
+        assertNotSame(index, patched);
+        assertSame(MOVED_FILES, patched.fragment("files"));
+        assertSame(FILES, index.fragment("files"));
+    }
+
+    @DisplayName("VerificationRelationship.of(String)")
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(VerificationRelationship.class)
+    void term(VerificationRelationship relationship) {
+
+        assertSame(relationship, VerificationRelationship.of(relationship.term()));
+
+        final DidDocument document = DidDocumentBuilder.with(DID)
+                .relationship(relationship, KEY_1)
+                .build();
+
+        assertEquals(Collections.singletonList(KEY_1), Arrays.asList(relationship.of(document).toArray()));
+
+        for (final VerificationRelationship other : VerificationRelationship.values()) {
+            if (other != relationship) {
+                assertTrue(other.of(document).isEmpty());
+            }
+        }
+    }
+
+    @DisplayName("VerificationRelationship.of(String) unknown")
+    @Test
+    void unknownTerm() {
+        assertNull(VerificationRelationship.of("verificationMethod"));
+        assertNull(VerificationRelationship.of("Authentication"));
+        assertEquals(
+                new LinkedHashSet<>(Arrays.asList("authentication", "assertionMethod", "keyAgreement", "capabilityInvocation", "capabilityDelegation")),
+                new LinkedHashSet<>(Arrays.asList(Arrays.stream(VerificationRelationship.values()).map(VerificationRelationship::term).toArray())));
+    }
+
+    static DidVerificationMethod method(String fragment, String key) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, fragment),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of(key));
+    }
+
+    static DidService service(String fragment, String type, String endpoint) {
+        return DidService.of(
+                URI.create(DID + "#" + fragment),
+                type,
+                DidServiceEndpoint.of(URI.create(endpoint)));
+    }
+}
@@ -0,0 +1,205 @@
+package com.apicatalog.did.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocumentViolation.Code;
+
+@DisplayName("DidDocumentValidator")
+class DidDocumentValidatorTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    @DisplayName("validate(DidDocument) valid")
+    @ParameterizedTest(name = "threshold {0}")
+    @MethodSource({ "thresholds" })
+    void valid(int threshold) {
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(DID).controller(DID);
+
+        for (int i = 0; i < 100; i++) {
+            final DidVerificationMethod method = method("key-" + i);
+            builder.verification(method).relationship(VerificationRelationship.Authentication, method);
+        }
+
+        builder.relationship(VerificationRelationship.KeyAgreement, method("embedded"));
+
+        assertTrue(validator(threshold).isValid(builder.build()));
+    }
+
+    @DisplayName("validate(DidDocument) report")
+    @ParameterizedTest(name = "threshold {0}")
+    @MethodSource({ "thresholds" })
+    void report(int threshold) {
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(DID);
+
+        for (int i = 0; i < 50; i++) {
+            builder.verification(method("key-" + i));
+        }
+
+        final DidDocument document = builder
+                .verification(method("key-7"))
+                .verification(incomplete("key-50"))
+                .relationship(VerificationRelationship.Authentication, method("key-3"))
+                .relationship(VerificationRelationship.Authentication, incomplete("unknown"))
+                .service(DidService.of(URI.create(DID + "#s"), "Example", DidServiceEndpoint.of(URI.create("https://example.com"))))
+                .service(DidService.of(URI.create(DID + "#s"), "Example", DidServiceEndpoint.of(URI.create("https://example.com"))))
+                .build();
+
+        final List<DidDocumentViolation> violations = validator(threshold).validate(document);
+
+        final Map<String, Code> codes = violations.stream().collect(Collectors.toMap(DidDocumentViolation::path, DidDocumentViolation::code));
+
+        assertEquals(4, violations.size(), violations::toString);
+        assertEquals(Code.DuplicateId, codes.get("verificationMethod[50]"));
+        assertEquals(Code.InvalidMethod, codes.get("verificationMethod[51]"));
+        assertEquals(Code.UnresolvedReference, codes.get("authentication[1]"));
+        assertEquals(Code.DuplicateId, codes.get("service[1]"));
+    }
+
+    @DisplayName("validate(DidDocument) conflicts")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "conflicts" })
+    void conflicts(String name, DidDocument document, String path, Code code) {
+
+        final List<DidDocumentViolation> violations = DidDocumentValidator.getInstance().validate(document);
+
+        if (path == null) {
+            assertTrue(violations.isEmpty(), violations::toString);
+            return;
+        }
+
+        assertEquals(1, violations.size(), violations::toString);
+        assertEquals(path, violations.get(0).path());
+        assertEquals(code, violations.get(0).code());
+    }
+
+    static Stream<Arguments> conflicts() {
+
+        final DidVerificationMethod key = method("key-1");
+        final DidVerificationMethod other = DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, "key-1"),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK"));
+
+        final DidService service = DidService.of(URI.create(DID + "#key-1"), "Example", DidServiceEndpoint.of(URI.create("https://example.com")));
+
+        return Stream.of(
+                Arguments.of("equal embedded method",
+                        DidDocumentBuilder.with(DID)
+                                .verification(key)
+                                .relationship(VerificationRelationship.Authentication, method("key-1"))
+                                .build(),
+                        null, null),
+                Arguments.of("reference by id",
+                        DidDocumentBuilder.with(DID)
+                                .verification(key)
+                                .relationship(VerificationRelationship.Authentication, incomplete("key-1"))
+                                .build(),
+                        null, null),
+                Arguments.of("embedded method reuses a listed id",
+                        DidDocumentBuilder.with(DID)
+                                .verification(key)
+                                .relationship(VerificationRelationship.Authentication, key)
+                                .relationship(VerificationRelationship.AssertionMethod, other)
+                                .build(),
+                        "assertionMethod[0]", Code.DuplicateId),
+                Arguments.of("embedded methods share an id",
+                        DidDocumentBuilder.with(DID)
+                                .relationship(VerificationRelationship.Authentication, key)
+                                .relationship(VerificationRelationship.KeyAgreement, other)
+                                .build(),
+                        "keyAgreement[0]", Code.DuplicateId),
+                Arguments.of("service reuses a method id",
+                        DidDocumentBuilder.with(DID)
+                                .verification(key)
+                                .service(service)
+                                .build(),
+                        "service[0]", Code.DuplicateId),
+                Arguments.of("service reuses an embedded method id",
+                        DidDocumentBuilder.with(DID)
+                                .relationship(VerificationRelationship.CapabilityInvocation, key)
+                                .service(service)
+                                .build(),
+                        "service[0]", Code.DuplicateId),
+                Arguments.of("DID URL controller",
+                        DidDocumentBuilder.with(DID)
+                                .controller(DidUrl.of("did:example:123#key-1"))
+                                .build(),
+                        "controller[0]", Code.InvalidController),
+                Arguments.of("DID URL method controller",
+                        DidDocumentBuilder.with(DID)
+                                .verification(DidVerificationMethod.multibase(
+                                        DidUrl.fragment(DID, "key-2"),
+                                        "Multikey",
+                                        DidUrl.of("did:example:123/path"),
+                                        MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH")))
+                                .build(),
+                        "verificationMethod[0]", Code.InvalidMethod));
+    }
+
+    static DidDocumentValidator validator(int threshold) {
+        return threshold > 0
+                ? DidDocumentValidator.of(ForkJoinPool.commonPool(), threshold)
+                : DidDocumentValidator.getInstance();
+    }
+
+    static DidVerificationMethod method(String fragment) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, fragment),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+    }
+
+    static DidVerificationMethod incomplete(String fragment) {
+        return new DidVerificationMethod() {
+
+            @Override
+            public DidUrl id() {
+                return DidUrl.fragment(DID, fragment);
+            }
+
+            @Override
+            public String type() {
+                return null;
+            }
+
+            @Override
+            public Did controller() {
+                return null;
+            }
+
+            @Override
+            public MultibaseEncoded publicKeyMultibase() {
+                return null;
+            }
+
+            @Override
+            public Map<String, Object> publicKeyJwk() {
+                return null;
+            }
+        };
+    }
+
+    static Stream<Integer> thresholds() {
+        return Stream.of(0, 1, 7);
+    }
+}
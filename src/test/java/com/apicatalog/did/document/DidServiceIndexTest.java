@@ -0,0 +1,166 @@
+package com.apicatalog.did.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+
+@DisplayName("DidServiceIndex")
+class DidServiceIndexTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    static final DidServiceEndpoint FILES_ENDPOINT = DidServiceEndpoint.of(URI.create("https://example.com/files/"));
+    static final DidServiceEndpoint MIRROR_ENDPOINT = DidServiceEndpoint.of(URI.create("https://mirror.example.com/files/"));
+    static final DidServiceEndpoint DIDCOMM_ENDPOINT = DidServiceEndpoint.of(URI.create("https://example.com/didcomm"));
+
+    static final DidService FILES = DidService.of(URI.create(DID + "#files"), "LinkedDomains", FILES_ENDPOINT);
+    static final DidService MIRROR = DidService.of(URI.create(DID + "#mirror"), "LinkedDomains", MIRROR_ENDPOINT);
+    static final DidService DIDCOMM = DidService.of(
+            URI.create(DID + "#didcomm"),
+            Arrays.asList("DIDCommMessaging", "ExampleService"),
+            Collections.singleton(DIDCOMM_ENDPOINT));
+    static final DidService SHADOW = DidService.of(URI.create(DID + "#files"), "ExampleService", DIDCOMM_ENDPOINT);
+
+    static final DidServiceIndex INDEX = DidServiceIndex.of(Arrays.asList(FILES, DIDCOMM, MIRROR, null, SHADOW));
+
+    @DisplayName("type(String)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "LinkedDomains, files mirror",
+            "DIDCommMessaging, didcomm",
+            "ExampleService, didcomm files",
+            "Unknown, ",
+    })
+    void type(String type, String fragments) {
+
+        final StringBuilder actual = new StringBuilder();
+
+        for (final DidService service : INDEX.type(type)) {
+            if (actual.length() > 0) {
+                actual.append(' ');
+            }
+            actual.append(service.id().getRawFragment());
+        }
+
+        assertEquals(fragments != null ? fragments : "", actual.toString());
+    }
+
+    @DisplayName("first(String)")
+    @Test
+    void first() {
+        assertSame(FILES, INDEX.first("LinkedDomains"));
+        assertSame(DIDCOMM, INDEX.first("ExampleService"));
+        assertNull(INDEX.first("Unknown"));
+    }
+
+    @DisplayName("endpoints(String)")
+    @Test
+    void endpoints() {
+        assertEquals(Arrays.asList(FILES_ENDPOINT, MIRROR_ENDPOINT), INDEX.endpoints("LinkedDomains"));
+        assertEquals(Collections.singletonList(DIDCOMM_ENDPOINT), Arrays.asList(INDEX.endpoints("DIDCommMessaging").toArray()));
+        assertTrue(INDEX.endpoints("Unknown").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> INDEX.endpoints("LinkedDomains").clear());
+    }
+
+    @DisplayName("fragment(String)")
+    @Test
+    void fragment() {
+        // the first service wins
+        assertSame(FILES, INDEX.fragment("files"));
+        assertSame(MIRROR, INDEX.fragment("mirror"));
+        assertNull(INDEX.fragment("unknown"));
+    }
+
+    @DisplayName("types()")
+    @Test
+    void types() {
+        assertEquals(new HashSet<>(Arrays.asList("LinkedDomains", "DIDCommMessaging", "ExampleService")), INDEX.types());
+    }
+
+    @DisplayName("of(Collection) canonical types")
+    @Test
+    void canonical() {
+
+        final String type = new String("LinkedDomains");
+        final String custom = new String("ExampleService");
+
+        final DidServiceIndex index = DidServiceIndex.of(Arrays.asList(
+                DidService.of(URI.create(DID + "#a"), type, FILES_ENDPOINT),
+                DidService.of(URI.create(DID + "#b"), custom, FILES_ENDPOINT)));
+
+        assertSame(DidServiceIndex.TYPES.get("LinkedDomains"), find(index, "LinkedDomains"));
+        assertNotSame(type, find(index, "LinkedDomains"));
+
+        // unknown types are neither interned nor remembered
+        assertSame(custom, find(index, "ExampleService"));
+        assertNull(DidServiceIndex.TYPES.get("ExampleService"));
+    }
+
+    @DisplayName("of(Collection) empty")
+    @Test
+    void empty() {
+        assertSame(DidServiceIndex.EMPTY, DidServiceIndex.of((Collection<DidService>) null));
+        assertSame(DidServiceIndex.EMPTY, DidServiceIndex.of(DidDocumentBuilder.with(DID).build()));
+        assertTrue(DidServiceIndex.EMPTY.isEmpty());
+        assertTrue(DidServiceIndex.EMPTY.type("LinkedDomains").isEmpty());
+    }
+
+    @DisplayName("patch(DidDocumentDiff, DidDocument) services without id")
+    @Test
+    void patchAnonymous() {
+
+        final DidDocument source = DidDocumentBuilder.with(DID)
+                .service(FILES)
+                .service(DidService.of(null, "ExampleService", FILES_ENDPOINT))
+                .build();
+
+        final DidDocument target = DidDocumentBuilder.with(DID)
+                .service(FILES)
+                .service(DidService.of(null, "ExampleService", MIRROR_ENDPOINT))
+                .build();
+
+        final DidServiceIndex index = DidServiceIndex.of(source);
+        final DidDocumentDiff diff = DidDocumentDiff.of(source, target);
+
+        // the diff does not see services without an id
+        assertFalse(diff.hasServiceChanges());
+
+        final DidServiceIndex patched = index.patch(diff, target);
+
+        assertNotSame(index, patched);
+        assertEquals(Collections.singletonList(MIRROR_ENDPOINT), Arrays.asList(patched.endpoints("ExampleService").toArray()));
+
+        // added to a document indexed without them
+        final DidDocument plain = DidDocumentBuilder.with(DID).service(FILES).build();
+        final DidServiceIndex plainIndex = DidServiceIndex.of(plain);
+
+        assertSame(plainIndex, plainIndex.patch(DidDocumentDiff.of(plain, plain), plain));
+        assertNotSame(plainIndex, plainIndex.patch(DidDocumentDiff.of(plain, target), target));
+    }
+
+    static String find(DidServiceIndex index, String type) {
+        for (final String key : index.types()) {
+            if (key.equals(type)) {
+                return key;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.apicatalog.did.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+
+@DisplayName("DidLongMap")
+class DidLongMapTest {
+
+    @DisplayName("random operations against HashMap")
+    @Test
+    void random() {
+
+        final Random random = new Random(11);
+
+        final DidLongMap map = new DidLongMap(0);
+        final DidIntMap ints = new DidIntMap();
+        final Map<Did, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+
+            final Did key = Did.of("did:ex:" + random.nextInt(2000));
+            final int operation = random.nextInt(4);
+
+            switch (operation) {
+            case 0:
+                assertEquals(!expected.containsKey(key), map.put(key, i));
+                ints.put(key, i);
+                expected.put(key, (long) i);
+                break;
+
+            case 1:
+                assertEquals(expected.merge(key, 3L, Long::sum).longValue(), map.addAndGet(key, 3));
+                ints.addAndGet(key, 3);
+                break;
+
+            case 2:
+                assertEquals(expected.remove(key) != null, map.remove(key));
+                ints.remove(key);
+                break;
+
+            default:
+                assertEquals(expected.getOrDefault(key, -1L).longValue(), map.getOrDefault(key, -1));
+                assertEquals(expected.getOrDefault(key, -1L).intValue(), ints.getOrDefault(key, -1));
+                break;
+            }
+
+            assertEquals(expected.size(), map.size());
+        }
+
+        final Map<Did, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), ints.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(Did.of("did:ex:1")));
+    }
+
+    @DisplayName("Did and DidUrl keys")
+    @Test
+    void didUrl() {
+
+        final DidLongMap map = new DidLongMap();
+
+        map.put(Did.of("did:ex:1"), 1);
+        map.put(DidUrl.of("did:ex:1"), 2);
+        map.put(DidUrl.of("did:ex:1#key-1"), 3);
+
+        assertEquals(3, map.size());
+        assertEquals(1, map.getOrDefault(Did.of("did:ex:1"), 0));
+        assertEquals(2, map.getOrDefault(DidUrl.of("did:ex:1"), 0));
+        assertEquals(3, map.getOrDefault(DidUrl.of("did:ex:1#key-1"), 0));
+    }
+
+    @DisplayName("ConcurrentDidLongMap.addAndGet(Did, long)")
+    @Test
+    void concurrent() throws Exception {
+
+        final ConcurrentDidLongMap map = new ConcurrentDidLongMap(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final Future<?>[] futures = new Future<?>[4];
+
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        map.addAndGet(Did.of("did:ex:" + (i % 100)), 1);
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(100, map.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(400, map.getOrDefault(Did.of("did:ex:" + i), 0));
+        }
+
+        assertTrue(map.remove(Did.of("did:ex:0")));
+        assertEquals(99, map.size());
+    }
+}
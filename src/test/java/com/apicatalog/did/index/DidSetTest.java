@@ -0,0 +1,160 @@
+package com.apicatalog.did.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.resolver.DidDocumentMetadata;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+
+@DisplayName("DidSet")
+class DidSetTest {
+
+    @DisplayName("contains(Did)")
+    @Test
+    void contains() {
+
+        final List<Did> members = dids("did:ex:", 10_000);
+
+        final DidSet set = DidSet.of(members);
+
+        assertEquals(members.size(), set.size());
+
+        for (final Did did : members) {
+            assertTrue(set.contains(did), did::toString);
+        }
+
+        for (final Did did : dids("did:other:", 10_000)) {
+            assertFalse(set.contains(did), did::toString);
+        }
+
+        assertFalse(set.contains(DidUrl.of("did:ex:0#key-1")));
+        assertFalse(set.contains(DidUrl.of("did:ex:0")));
+    }
+
+    @DisplayName("of(Iterable) duplicates")
+    @Test
+    void duplicates() {
+
+        final DidSet set = DidSet.of(Arrays.asList(
+                Did.of("did:ex:a"),
+                Did.of("did:ex:b"),
+                Did.of("did:ex:a"),
+                DidUrl.of("did:ex:a#k")));
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(Did.of("did:ex:a")));
+        assertTrue(set.contains(DidUrl.of("did:ex:a#k")));
+        assertEquals(set.sizeInBytes(), DidSet.wrap(copy(set)).sizeInBytes());
+    }
+
+    @DisplayName("empty")
+    @Test
+    void empty() {
+
+        final DidSet set = DidSet.of(Collections.emptyList());
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(Did.of("did:ex:a")));
+    }
+
+    @DisplayName("writeTo(Path)/load(Path)")
+    @Test
+    void load(@TempDir Path dir) throws IOException {
+
+        final List<Did> members = dids("did:web:example.com:users:", 1000);
+
+        final Path file = dir.resolve("deactivated.dids");
+
+        DidSet.of(members, 16).writeTo(file);
+
+        final DidSet loaded = DidSet.load(file);
+
+        assertEquals(members.size(), loaded.size());
+        assertEquals(Files.size(file), loaded.sizeInBytes());
+
+        for (final Did did : members) {
+            assertTrue(loaded.contains(did));
+        }
+        assertFalse(loaded.contains(Did.of("did:web:example.com")));
+    }
+
+    @DisplayName("wrap(ByteBuffer) invalid")
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> DidSet.wrap(ByteBuffer.allocate(64)));
+
+        final ByteBuffer truncated = copy(DidSet.of(dids("did:ex:", 10)));
+        truncated.limit(truncated.capacity() - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> DidSet.wrap(truncated.slice()));
+    }
+
+    @DisplayName("DidDenyList")
+    @Test
+    void denyList() {
+
+        final DidDenyList denied = DidDenyList.empty();
+
+        assertFalse(denied.contains(Did.of("did:ex:1")));
+
+        final DidSet next = DidSet.of(dids("did:ex:", 10));
+        denied.replace(next);
+
+        assertSame(next, denied.set());
+        assertTrue(denied.contains(Did.of("did:ex:1")));
+        assertTrue(denied.contains(DidUrl.of("did:ex:1#key-1")));
+
+        final Did active = Did.of("did:ex:active");
+
+        assertFalse(denied.isDenied(ResolvedDidDocument.of(DidDocumentBuilder.with(active).build())));
+        assertTrue(denied.isDenied(ResolvedDidDocument.of(DidDocumentBuilder.with(Did.of("did:ex:2")).build())));
+        assertTrue(denied.isDenied(ResolvedDidDocument.of(
+                DidDocumentBuilder.with(active).build(),
+                new DidDocumentMetadata() {
+                    @Override
+                    public boolean deactivated() {
+                        return true;
+                    }
+                })));
+    }
+
+    static List<Did> dids(String prefix, int count) {
+        final List<Did> dids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dids.add(Did.of(prefix + i));
+        }
+        return dids;
+    }
+
+    static ByteBuffer copy(DidSet set) {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            set.writeTo(Channels.newChannel(os));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(os.toByteArray());
+    }
+}
@@ -0,0 +1,247 @@
+package com.apicatalog.did.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+
+@DisplayName("DidTrie")
+class DidTrieTest {
+
+    static final String[] DIDS = {
+            "did:web:example.com",
+            "did:web:example.com:users:alice",
+            "did:web:example.com:users:bob",
+            "did:web:example.com%3A8080",
+            "did:web:example.org:users",
+            "did:ex::a",
+            "did:ex:::a",
+            "did:key:z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH",
+    };
+
+    @DisplayName("segments(String)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "a, a",
+            "a:b:c, a|b|c",
+            ":a, |a",
+            "a::b, a||b",
+            "a%3Ab, a%3Ab",
+    })
+    void segments(String id, String expected) {
+        assertEquals(Arrays.asList(expected.split("\\|", -1)), DidTrie.segments(id));
+    }
+
+    @DisplayName("put/get/remove")
+    @Test
+    void putGetRemove() {
+
+        final DidTrie<String> trie = trie();
+
+        assertEquals(DIDS.length, trie.size());
+
+        for (final String did : DIDS) {
+            assertEquals(did, trie.get(Did.of(did)));
+        }
+
+        assertNull(trie.get(Did.of("did:web:example.com:users")));
+        assertNull(trie.get(Did.of("did:ex:a")));
+        assertEquals("did:web:example.com", trie.get(DidUrl.of("did:web:example.com#key-1")));
+
+        assertEquals("did:web:example.com", trie.put(Did.of("did:web:example.com"), "x"));
+        assertEquals(DIDS.length, trie.size());
+
+        assertEquals("x", trie.remove(Did.of("did:web:example.com")));
+        assertNull(trie.remove(Did.of("did:web:example.com")));
+        assertFalse(trie.contains(Did.of("did:web:example.com")));
+        assertTrue(trie.contains(Did.of("did:web:example.com:users:alice")));
+        assertEquals(DIDS.length - 1, trie.size());
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertNull(trie.get(Did.of("did:web:example.com:users:alice")));
+    }
+
+    @DisplayName("longestPrefix(Did)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "did:web:example.com:users:alice, did:web:example.com:users:alice",
+            "did:web:example.com:users:carol, did:web:example.com",
+            "did:web:example.com:users, did:web:example.com",
+            "did:web:example.org:users:alice, did:web:example.org:users",
+            "did:web:example.org, ",
+            "did:web:example.com%3A8080:a, did:web:example.com%3A8080",
+            "did:ex::a:b, did:ex::a",
+            "did:other:example.com, ",
+    })
+    void longestPrefix(String did, String expected) {
+
+        final Map.Entry<Did, String> match = trie().longestPrefix(Did.of(did));
+
+        if (expected == null) {
+            assertNull(match);
+
+        } else {
+            assertEquals(expected, match.getValue());
+            assertEquals(Did.of(expected), match.getKey());
+        }
+    }
+
+    @DisplayName("prefix(String, String...)")
+    @Test
+    void prefix() {
+
+        final DidTrie<String> trie = trie();
+
+        assertEquals(
+                set("did:web:example.com", "did:web:example.com:users:alice", "did:web:example.com:users:bob"),
+                values(trie.prefix("web", "example.com")));
+
+        assertEquals(
+                set("did:web:example.com:users:alice", "did:web:example.com:users:bob"),
+                values(trie.prefix("web", "example.com", "users")));
+
+        assertEquals(
+                set("did:ex::a", "did:ex:::a"),
+                values(trie.prefix("ex", "")));
+
+        assertEquals(5, values(trie.prefix("web")).size());
+        assertEquals(set(), values(trie.prefix("web", "example.net")));
+        assertEquals(set("did:web:example.org:users"), values(trie.prefix(Did.of("did:web:example.org:users"))));
+    }
+
+    @DisplayName("concurrent put")
+    @Test
+    void concurrent() throws Exception {
+
+        final DidTrie<Integer> trie = new DidTrie<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final Future<?>[] futures = new Future<?>[4];
+
+            for (int t = 0; t < futures.length; t++) {
+                final int thread = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        trie.put(Did.of("did:web:host" + (i % 10) + ":users:u" + i + ":t" + thread), i);
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8000, trie.size());
+        assertEquals(800, values(trie.prefix("web", "host3")).size());
+        assertEquals(Integer.valueOf(33), trie.get(Did.of("did:web:host3:users:u33:t2")));
+    }
+
+    @DisplayName("remove(Did) prunes empty nodes")
+    @Test
+    void prune() {
+
+        final DidTrie<String> trie = trie();
+
+        assertEquals("did:web:example.com:users:alice", trie.remove(Did.of("did:web:example.com:users:alice")));
+
+        // bob keeps the shared users node
+        final DidTrie.Node<String> users = trie.node(Did.of("did:web:example.com:users"));
+        assertEquals(set("bob"), users.children.keySet());
+
+        trie.remove(Did.of("did:web:example.com:users:bob"));
+        assertNull(trie.node(Did.of("did:web:example.com:users")));
+        assertTrue(users.pruned);
+
+        // example.com keeps its own entry
+        assertEquals("did:web:example.com", trie.get(Did.of("did:web:example.com")));
+
+        for (final String did : DIDS) {
+            trie.remove(Did.of(did));
+        }
+
+        assertTrue(trie.isEmpty());
+        assertTrue(trie.methods.isEmpty());
+
+        assertNull(trie.put(Did.of("did:web:example.com:users:alice"), "alice"));
+        assertEquals("alice", trie.get(Did.of("did:web:example.com:users:alice")));
+    }
+
+    @DisplayName("concurrent put and remove")
+    @Test
+    void concurrentRemove() throws Exception {
+
+        final DidTrie<Integer> trie = new DidTrie<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final Future<?>[] futures = new Future<?>[4];
+
+            // two threads churn a subtree while two others keep their DIDs in it
+            for (int t = 0; t < futures.length; t++) {
+                final int thread = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        final Did did = Did.of("did:web:host" + (i % 4) + ":users:u" + (i % 50) + ":t" + thread);
+                        trie.put(did, i);
+                        if (thread < 2) {
+                            trie.remove(did);
+                        }
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, trie.size());
+        assertEquals(200, values(trie.prefix("web")).size());
+        assertEquals(Integer.valueOf(1999), trie.get(Did.of("did:web:host3:users:u49:t3")));
+        assertNull(trie.get(Did.of("did:web:host3:users:u49:t1")));
+    }
+
+    static DidTrie<String> trie() {
+        final DidTrie<String> trie = new DidTrie<>();
+        for (final String did : DIDS) {
+            assertNull(trie.put(Did.of(did), did));
+        }
+        return trie;
+    }
+
+    static <V> Set<String> values(Iterable<Map.Entry<Did, V>> entries) {
+        final Set<String> values = new TreeSet<>();
+        for (final Map.Entry<Did, V> entry : entries) {
+            values.add(entry.getKey().toString());
+        }
+        return values;
+    }
+
+    static Set<String> set(String... values) {
+        return new TreeSet<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,127 @@
+package com.apicatalog.did.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.apicatalog.did.document.DidDocument;
+
+@DisplayName("DidDocumentFormats")
+class DidDocumentFormatsTest {
+
+    static final Format JSON = new Format(DidDocumentFormats.JSON);
+    static final Format JSON_LD = new Format(DidDocumentFormats.JSON_LD);
+    static final Format CBOR = new Format(DidDocumentFormats.CBOR);
+
+    static final DidDocumentFormats FORMATS = DidDocumentFormats
+            .with((DidDocumentWriter) JSON)
+            .with((DidDocumentWriter) JSON_LD)
+            .with((DidDocumentWriter) CBOR)
+            .with((DidDocumentReader) JSON)
+            .with((DidDocumentReader) CBOR)
+            .build();
+
+    @DisplayName("writer(String)")
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource({ "negotiation" })
+    void writer(String accept, Format expected) {
+        assertSame(expected, FORMATS.writer(accept));
+    }
+
+    @DisplayName("reader(String)")
+    @ParameterizedTest(name = "[{index}] {0}")
+    @MethodSource({ "contentTypes" })
+    void reader(String contentType, Format expected) {
+        assertSame(expected, FORMATS.reader(contentType));
+    }
+
+    @DisplayName("accept()")
+    @Test
+    void accept() {
+        assertEquals("application/did+json, application/did+cbor", FORMATS.accept());
+        assertNull(DidDocumentFormats.with((DidDocumentReader) JSON).build().writer("*/*"));
+    }
+
+    static Stream<Arguments> negotiation() {
+        return Stream.of(
+                Arguments.of(null, JSON),
+                Arguments.of(" ", JSON),
+                Arguments.of("application/did+cbor", CBOR),
+                Arguments.of("Application/DID+CBOR; charset=utf-8", CBOR),
+                Arguments.of("*/*", JSON),
+                Arguments.of("application/*", JSON),
+                Arguments.of("application/did+json;q=0, */*", JSON_LD),
+                Arguments.of("application/did+json;q=0, application/*", JSON_LD),
+                Arguments.of("*/*, application/did+json;q=0, application/did+ld+json; q=0", CBOR),
+                Arguments.of("application/*;q=0, application/did+cbor", CBOR),
+                Arguments.of("*/*;q=0.1, application/did+cbor", CBOR),
+                Arguments.of("application/*;q=0.5, application/did+ld+json;q=0.8", JSON_LD),
+                Arguments.of("application/did+json;q=0.2, */*;q=0.9", JSON_LD),
+                Arguments.of("application/did+cbor;q=0.5, application/did+json;q=0.5", CBOR),
+                Arguments.of("application/did+cbor;q=0.4, application/did+json;q=0.5", JSON),
+                Arguments.of("text/html, application/json", null),
+                Arguments.of("text/*", null),
+                Arguments.of("*/*;q=0", null),
+                Arguments.of("application/did+cbor;q=0", null),
+                Arguments.of("application/did+cbor;q=1.000, application/did+json;q=0.999", CBOR),
+                Arguments.of("application/did+cbor;q=0.001", CBOR),
+                Arguments.of("application/did+cbor;q=1., application/did+json;q=0.5", CBOR),
+                Arguments.of("application/did+cbor;q=NaN, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=Infinity, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=0x1p-1, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=1.5, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=0.1234, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=5e-1, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=, application/did+json;q=0.1", JSON),
+                Arguments.of("application/did+cbor;q=-1", null));
+    }
+
+    static Stream<Arguments> contentTypes() {
+        return Stream.of(
+                Arguments.of("application/did+json", JSON),
+                Arguments.of("application/did+cbor; charset=utf-8", CBOR),
+                Arguments.of(" Application/Did+Json ", JSON),
+                Arguments.of("application/did+ld+json", null),
+                Arguments.of("text/plain", null),
+                Arguments.of(null, null));
+    }
+
+    static class Format implements DidDocumentReader, DidDocumentWriter {
+
+        final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        @Override
+        public String contentType() {
+            return contentType;
+        }
+
+        @Override
+        public DidDocument read(InputStream is) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(DidDocument document, OutputStream os) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return contentType;
+        }
+    }
+}
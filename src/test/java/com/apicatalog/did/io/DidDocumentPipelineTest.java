@@ -0,0 +1,208 @@
+package com.apicatalog.did.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+
+@DisplayName("DidDocumentPipeline")
+class DidDocumentPipelineTest {
+
+    static final int RECORDS = 2000;
+
+    static ExecutorService executor;
+
+    /** Reads a document from a single line DID, slowly. */
+    static final DidDocumentReader READER = new DidDocumentReader() {
+
+        @Override
+        public String contentType() {
+            return "text/plain";
+        }
+
+        @Override
+        public DidDocument read(InputStream is) throws IOException, DidDocumentReaderException {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            int b;
+            while ((b = is.read()) != -1) {
+                os.write(b);
+            }
+            final String line = new String(os.toByteArray(), StandardCharsets.UTF_8).trim();
+            if (!Did.isDid(line)) {
+                throw new DidDocumentReaderException("Not a DID [" + line + "].");
+            }
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                Thread.yield();
+            }
+            return DidDocumentBuilder.with(Did.of(line)).build();
+        }
+    };
+
+    @BeforeAll
+    static void start() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void stop() {
+        executor.shutdownNow();
+    }
+
+    static byte[] input(int records) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            builder.append("did:example:").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 100 == 0) {
+                builder.append("  \n");
+            }
+        }
+        // no trailing new line
+        builder.setLength(builder.length() - 1);
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @DisplayName("run(InputStream, DidDocumentSink)")
+    @ParameterizedTest(name = "ordered {0}")
+    @ValueSource(booleans = { true, false })
+    void run(boolean ordered) throws IOException, DidDocumentReaderException {
+
+        final DidDocumentPipeline pipeline = DidDocumentPipeline.with(READER)
+                .executor(executor)
+                .maxInFlight(8)
+                .ordered(ordered)
+                .build();
+
+        final List<Long> records = new ArrayList<>();
+        final List<String> ids = new ArrayList<>();
+
+        pipeline.run(new ByteArrayInputStream(input(RECORDS)), (record, document) -> {
+            records.add(record);
+            ids.add(document.id().getMethodSpecificId());
+        });
+
+        assertEquals(RECORDS, records.size());
+        assertEquals(RECORDS, pipeline.records());
+        assertEquals(RECORDS, pipeline.documents());
+        assertEquals(0, pipeline.inFlight());
+
+        if (ordered) {
+            for (int i = 0; i < RECORDS; i++) {
+                assertEquals(i, records.get(i));
+                assertEquals(Integer.toString(i), ids.get(i));
+            }
+        } else {
+            Collections.sort(records);
+            for (int i = 0; i < RECORDS; i++) {
+                assertEquals(i, records.get(i));
+            }
+        }
+    }
+
+    @DisplayName("run(InputStream, DidDocumentSink) reject")
+    @Test
+    void reject() throws IOException, DidDocumentReaderException {
+
+        final DidDocumentPipeline pipeline = DidDocumentPipeline.with(READER).executor(executor).maxInFlight(2).build();
+
+        final AtomicInteger rejected = new AtomicInteger();
+
+        pipeline.run(new ByteArrayInputStream("did:example:1\ninvalid\ndid:example:2\n".getBytes(StandardCharsets.UTF_8)),
+                new DidDocumentSink() {
+
+                    @Override
+                    public void accept(long record, DidDocument document) {
+                        assertTrue(record == 0 || record == 2);
+                    }
+
+                    @Override
+                    public void reject(long record, DidDocumentReaderException e) {
+                        assertEquals(1, record);
+                        rejected.incrementAndGet();
+                    }
+                });
+
+        assertEquals(1, rejected.get());
+        assertEquals(1, pipeline.rejected());
+        assertEquals(2, pipeline.documents());
+    }
+
+    @DisplayName("run(InputStream, DidDocumentSink) failure")
+    @Test
+    void failure() {
+
+        final DidDocumentPipeline pipeline = DidDocumentPipeline.with(READER).executor(executor).maxInFlight(4).build();
+
+        final byte[] input = ("invalid\n" + new String(input(RECORDS), StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(DidDocumentReaderException.class, () -> pipeline.run(new ByteArrayInputStream(input), (record, document) -> {
+        }));
+
+        assertEquals(0, pipeline.inFlight());
+        assertTrue(pipeline.records() < RECORDS);
+    }
+
+    @DisplayName("run(InputStream, DidDocumentSink) reader error")
+    @ParameterizedTest(name = "ordered {0}")
+    @ValueSource(booleans = { true, false })
+    void error(boolean ordered) {
+
+        final DidDocumentReader reader = new DidDocumentReader() {
+
+            @Override
+            public String contentType() {
+                return "text/plain";
+            }
+
+            @Override
+            public DidDocument read(InputStream is) throws IOException, DidDocumentReaderException {
+                throw new StackOverflowError();
+            }
+        };
+
+        final DidDocumentPipeline pipeline = DidDocumentPipeline.with(reader)
+                .executor(executor)
+                .maxInFlight(2)
+                .ordered(ordered)
+                .build();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(StackOverflowError.class, () -> pipeline.run(new ByteArrayInputStream(input(100)), (record, document) -> {
+        })));
+
+        assertEquals(0, pipeline.inFlight());
+    }
+
+    @DisplayName("run(InputStream, DidDocumentSink) record too long")
+    @Test
+    void tooLong() {
+
+        final DidDocumentPipeline pipeline = DidDocumentPipeline.with(READER).executor(executor).maxRecordLength(10).build();
+
+        assertThrows(IOException.class, () -> pipeline.run(new ByteArrayInputStream(input(10)), (record, document) -> {
+        }));
+    }
+}
@@ -0,0 +1,185 @@
+package com.apicatalog.did.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidDocumentDiff;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.io.cbor.CborDidDocumentReader;
+import com.apicatalog.did.io.cbor.CborDidDocumentWriter;
+
+@DisplayName("DidDocumentReader")
+class DidDocumentReaderTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    static final DidVerificationMethod KEY_1 = method(DidUrl.fragment(DID, "key-1"));
+    static final DidVerificationMethod KEY_2 = method(DidUrl.fragment(DID, "key-2"));
+    static final DidVerificationMethod EMBEDDED = method(DidUrl.fragment(DID, "key-3"));
+
+    static final DidDocument DOCUMENT = DidDocumentBuilder.with(DID)
+            .controller(Did.of("did:example:controller"))
+            .verification(KEY_1)
+            .verification(KEY_2)
+            .alsoKnownAs(URI.create("https://example.com/alice"))
+            .relationship(VerificationRelationship.Authentication, KEY_1)
+            .relationship(VerificationRelationship.AssertionMethod, KEY_1)
+            .relationship(VerificationRelationship.AssertionMethod, KEY_2)
+            .relationship(VerificationRelationship.KeyAgreement, EMBEDDED)
+            .service(DidService.of(
+                    URI.create("did:example:123#files"),
+                    "LinkedDomains",
+                    DidServiceEndpoint.of(URI.create("https://example.com/files/"))))
+            .build();
+
+    @DisplayName("select(DidDocument, Predicate)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "key-1, 1, 1, 1, 0",
+            "key-2, 1, 0, 1, 0",
+            "key-3, 0, 0, 0, 1",
+            "unknown, 0, 0, 0, 0",
+    })
+    void select(String fragment, int listed, int authentication, int assertion, int keyAgreement) {
+
+        final DidUrl target = DidUrl.fragment(DID, fragment);
+
+        final DidDocument selected = DidDocumentReader.select(DOCUMENT, target::equals);
+
+        assertEquals(DID, selected.id());
+        assertEquals(new ArrayList<>(DOCUMENT.controller()), new ArrayList<>(selected.controller()));
+        assertEquals(listed, selected.verification().size());
+        assertEquals(authentication, selected.authentication().size());
+        assertEquals(assertion, selected.assertion().size());
+        assertEquals(keyAgreement, selected.keyAgreement().size());
+        assertTrue(selected.alsoKnownAs().isEmpty());
+        assertTrue(selected.service().isEmpty());
+
+        final List<DidVerificationMethod> methods = new ArrayList<>(selected.verification());
+        methods.addAll(selected.keyAgreement());
+
+        for (final DidVerificationMethod method : methods) {
+            assertEquals(target, method.id());
+        }
+    }
+
+    @DisplayName("read(ByteBuffer)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({ "heap", "direct", "read-only", "sliced", "sliced-direct" })
+    void buffer(String kind) throws IOException, DidDocumentReaderException, DidDocumentWriterException {
+
+        final byte[] bytes = cbor(DOCUMENT);
+
+        // the document is surrounded by 3 bytes of garbage on each side
+        final ByteBuffer source = kind.endsWith("direct")
+                ? ByteBuffer.allocateDirect(bytes.length + 6)
+                : ByteBuffer.allocate(bytes.length + 6);
+
+        source.put(new byte[] { 1, 2, 3 }).put(bytes).put(new byte[] { 4, 5, 6 });
+        source.position(3).limit(3 + bytes.length);
+
+        final ByteBuffer buffer;
+
+        switch (kind) {
+        case "read-only":
+            buffer = source.asReadOnlyBuffer();
+            break;
+
+        case "sliced":
+        case "sliced-direct":
+            buffer = source.slice();
+            break;
+
+        default:
+            buffer = source;
+            break;
+        }
+
+        final int position = buffer.position();
+
+        final DidDocument read = CborDidDocumentReader.getInstance().read(buffer);
+
+        assertTrue(DidDocumentDiff.of(DOCUMENT, read).isEmpty());
+        assertEquals(position, buffer.position());
+    }
+
+    @DisplayName("write(DidDocument, WritableByteChannel)/read(ReadableByteChannel)")
+    @Test
+    void channel() throws IOException, DidDocumentReaderException, DidDocumentWriterException {
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        CborDidDocumentWriter.getInstance().write(DOCUMENT, Channels.newChannel(os));
+
+        assertArrayEquals(cbor(DOCUMENT), os.toByteArray());
+
+        final DidDocument read = CborDidDocumentReader.getInstance().read(Channels.newChannel(new ByteArrayInputStream(os.toByteArray())));
+
+        assertTrue(DidDocumentDiff.of(DOCUMENT, read).isEmpty());
+    }
+
+    @DisplayName("ByteBufferInputStream")
+    @Test
+    void inputStream() {
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put(new byte[] { 1, 2, (byte) 0xFF, 4, 5, 6, 7, 8 }).flip();
+        buffer.position(1);
+
+        final ByteBufferInputStream is = new ByteBufferInputStream(buffer.duplicate());
+
+        assertEquals(7, is.available());
+        assertEquals(2, is.read());
+        assertEquals(0xFF, is.read());
+        assertEquals(2, is.skip(2));
+
+        final byte[] bytes = new byte[4];
+        assertEquals(0, is.read(bytes, 0, 0));
+        assertEquals(3, is.read(bytes, 1, 3));
+        assertArrayEquals(new byte[] { 0, 6, 7, 8 }, bytes);
+
+        assertEquals(-1, is.read());
+        assertEquals(-1, is.read(bytes, 0, 4));
+        assertEquals(0, is.skip(10));
+        assertEquals(0, is.available());
+
+        assertEquals(1, buffer.position());
+    }
+
+    static byte[] cbor(DidDocument document) throws IOException, DidDocumentWriterException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(document, os);
+        return os.toByteArray();
+    }
+
+    static DidVerificationMethod method(DidUrl id) {
+        return DidVerificationMethod.multibase(
+                id,
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+    }
+}
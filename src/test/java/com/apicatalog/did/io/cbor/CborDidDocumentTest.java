@@ -0,0 +1,338 @@
+package com.apicatalog.did.io.cbor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidDocumentDiff;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.io.DidDocumentReader;
+import com.apicatalog.did.io.DidDocumentReaderException;
+import com.apicatalog.did.io.DidDocumentWriterException;
+
+@DisplayName("CBOR DID Document")
+class CborDidDocumentTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    @DisplayName("write/read round trip")
+    @Test
+    void roundTrip() throws IOException, DidDocumentReaderException, DidDocumentWriterException {
+
+        final Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "OKP");
+        jwk.put("crv", "Ed25519");
+        jwk.put("x", "11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo");
+        jwk.put("ops", Arrays.asList("verify", 1L, true));
+
+        final DidVerificationMethod key1 = DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, "key-1"),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("base58btc", new byte[] { (byte) 0xed, 0x01, 1, 2, 3 }));
+
+        final DidVerificationMethod key2 = DidVerificationMethod.jwk(
+                DidUrl.fragment(DID, "key-2"),
+                "JsonWebKey",
+                Did.of("did:example:controller"),
+                jwk);
+
+        final DidVerificationMethod embedded = DidVerificationMethod.multibase(
+                DidUrl.of("did:example:other#key-3"),
+                "Multikey",
+                Did.of("did:example:other"),
+                MultibaseEncoded.of("base64url", new byte[] { 4, 5, 6 }));
+
+        final DidDocument document = DidDocumentBuilder.with(DID)
+                .controller(DID)
+                .controller(Did.of("did:example:controller"))
+                .verification(key1)
+                .verification(key2)
+                .alsoKnownAs(URI.create("https://example.com/alice"))
+                .relationship(VerificationRelationship.Authentication, key1)
+                .relationship(VerificationRelationship.AssertionMethod, key1)
+                .relationship(VerificationRelationship.AssertionMethod, key2)
+                .relationship(VerificationRelationship.KeyAgreement, embedded)
+                .service(DidService.of(
+                        URI.create("did:example:123#messaging"),
+                        "DIDCommMessaging",
+                        DidServiceEndpoint.of(URI.create("https://example.com/didcomm"))))
+                .build();
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(document, os);
+
+        final DidDocument read = CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(os.toByteArray()));
+
+        assertNotNull(read);
+        assertEquals(DID, read.id());
+        assertTrue(DidDocumentDiff.of(document, read).isEmpty());
+        assertEquals(new ArrayList<>(document.alsoKnownAs()), new ArrayList<>(read.alsoKnownAs()));
+
+        final List<DidVerificationMethod> methods = new ArrayList<>(read.verification());
+        assertEquals(2, methods.size());
+        assertArrayEquals(key1.publicKeyMultibase().debased(), methods.get(0).publicKeyMultibase().debased());
+        assertEquals(jwk, methods.get(1).publicKeyJwk());
+
+        // relationship references resolve to the listed methods
+        assertSame(methods.get(0), read.authentication().iterator().next());
+        assertTrue(DidVerificationMethod.equals(embedded, read.keyAgreement().iterator().next()));
+    }
+
+    @DisplayName("write/read duplicate and shadowed method ids")
+    @Test
+    void sharedIds() throws IOException, DidDocumentReaderException, DidDocumentWriterException {
+
+        final DidVerificationMethod first = multikey("key-1", 1);
+        final DidVerificationMethod duplicate = multikey("key-1", 2);
+        final DidVerificationMethod key2 = multikey("key-2", 3);
+
+        // embeds other key material under a listed id
+        final DidVerificationMethod shadow = multikey("key-2", 4);
+
+        final DidDocument document = DidDocumentBuilder.with(DID)
+                .verification(first)
+                .verification(duplicate)
+                .verification(key2)
+                .relationship(VerificationRelationship.Authentication, key2)
+                .relationship(VerificationRelationship.Authentication, first)
+                .relationship(VerificationRelationship.KeyAgreement, shadow)
+                .build();
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(document, os);
+
+        final DidDocument read = CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(os.toByteArray()));
+
+        final List<DidVerificationMethod> methods = new ArrayList<>(read.verification());
+        assertEquals(3, methods.size());
+        assertTrue(DidVerificationMethod.equals(duplicate, methods.get(1)));
+
+        final List<DidVerificationMethod> authentication = new ArrayList<>(read.authentication());
+        assertSame(methods.get(2), authentication.get(0));
+        assertSame(methods.get(0), authentication.get(1));
+
+        assertTrue(DidVerificationMethod.equals(shadow, read.keyAgreement().iterator().next()));
+        assertTrue(DidDocumentDiff.of(document, read).isEmpty());
+    }
+
+    @DisplayName("read(InputStream, Predicate)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({ "key-1", "key-2", "key-3", "unknown" })
+    void select(String fragment) throws IOException, DidDocumentReaderException, DidDocumentWriterException {
+
+        final DidVerificationMethod key1 = multikey("key-1", 1);
+        final DidVerificationMethod key2 = multikey("key-2", 2);
+
+        final DidDocumentBuilder builder = DidDocumentBuilder.with(DID)
+                .controller(Did.of("did:example:controller"))
+                .verification(key1)
+                .verification(key2)
+                .alsoKnownAs(URI.create("https://example.com/alice"))
+                .relationship(VerificationRelationship.Authentication, key1)
+                .relationship(VerificationRelationship.AssertionMethod, key2)
+                .relationship(VerificationRelationship.KeyAgreement, multikey("key-3", 3));
+
+        final DidDocument document = builder.build();
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(document, os);
+
+        final DidUrl target = DidUrl.fragment(DID, fragment);
+
+        final DidDocument selected = CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(os.toByteArray()), target);
+
+        assertTrue(DidDocumentDiff.of(DidDocumentReader.select(document, target::equals), selected).isEmpty());
+
+        // services follow the relationships and are never read
+        final ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(builder
+                .service(DidService.of(
+                        URI.create("did:example:123#files"),
+                        "LinkedDomains",
+                        DidServiceEndpoint.of(URI.create("https://example.com/files/"))))
+                .build(), prefix);
+
+        final byte[] truncated = Arrays.copyOf(os.toByteArray(), os.size() - 1);
+
+        assertTrue(DidDocumentDiff.of(selected, CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(truncated), target)).isEmpty());
+        assertTrue(DidDocumentDiff.of(selected, CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(prefix.toByteArray()), target)).isEmpty());
+        assertThrows(IOException.class, () -> CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(truncated)));
+    }
+
+    @DisplayName("negative: truncated input")
+    @Test
+    void truncated() throws IOException, DidDocumentWriterException {
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(DidDocumentBuilder.with(DID).build(), os);
+
+        final byte[] bytes = Arrays.copyOf(os.toByteArray(), os.size() - 1);
+
+        assertThrows(IOException.class, () -> CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(bytes)));
+    }
+
+    @DisplayName("negative: invalid DID")
+    @Test
+    void invalidDid() {
+        // [1, ["EX", "1"], ...]
+        final byte[] bytes = new byte[] { (byte) 0x8B, 0x01, (byte) 0x82, 0x62, 'E', 'X', 0x61, '1' };
+        assertThrows(DidDocumentReaderException.class, () -> CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(bytes)));
+    }
+
+    @DisplayName("negative: null required text")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "none",
+            "id method",
+            "id method-specific-id",
+            "controller",
+            "method controller",
+            "multibase",
+            "alsoKnownAs",
+            "service type",
+            "service endpoint",
+    })
+    void nullText(String field) throws IOException, DidDocumentReaderException {
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final CborEncoder encoder = new CborEncoder(os);
+
+        encoder.writeArray(6 + VerificationRelationship.values().length)
+                .writeLong(CborDidDocumentWriter.VERSION)
+                .writeArray(2);
+
+        text(encoder, field, "id method", "example");
+        text(encoder, field, "id method-specific-id", "123");
+
+        // controllers
+        encoder.writeArray(1).writeArray(2);
+        text(encoder, field, "controller", "example");
+        encoder.writeText("456");
+
+        // [[null, null, "key-1"], "Multikey", [...], [base, key]]
+        encoder.writeArray(1)
+                .writeArray(4)
+                .writeArray(3).writeNull().writeNull().writeText("key-1")
+                .writeText("Multikey")
+                .writeArray(2);
+        text(encoder, field, "method controller", "example");
+        encoder.writeText("123").writeArray(2);
+        text(encoder, field, "multibase", "base58btc");
+        encoder.writeBytes(new byte[] { (byte) 0xed, 0x01, 0x01 });
+
+        encoder.writeArray(1);
+        text(encoder, field, "alsoKnownAs", "https://example.com");
+
+        for (int i = 0; i < VerificationRelationship.values().length; i++) {
+            encoder.writeArray(0);
+        }
+
+        encoder.writeArray(1).writeArray(3).writeText(DID + "#s").writeArray(1);
+        text(encoder, field, "service type", "LinkedDomains");
+        encoder.writeArray(1);
+        text(encoder, field, "service endpoint", "https://example.com");
+
+        encoder.flush();
+
+        if ("none".equals(field)) {
+            final DidDocument document = CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(os.toByteArray()));
+            assertEquals(1, document.verification().size());
+            assertEquals(1, document.service().size());
+            return;
+        }
+
+        final DidDocumentReaderException e = assertThrows(DidDocumentReaderException.class,
+                () -> CborDidDocumentReader.getInstance().read(new ByteArrayInputStream(os.toByteArray())));
+
+        assertTrue(e.getMessage().contains("null"), e::getMessage);
+    }
+
+    @DisplayName("negative: method without a controller")
+    @Test
+    void noController() {
+
+        final DidVerificationMethod method = DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, "key-1"),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("base58btc", new byte[] { (byte) 0xed, 0x01, 0x01 }));
+
+        final DidDocument document = DidDocumentBuilder.with(DID)
+                .verification(new DidVerificationMethod() {
+
+                    @Override
+                    public DidUrl id() {
+                        return method.id();
+                    }
+
+                    @Override
+                    public String type() {
+                        return method.type();
+                    }
+
+                    @Override
+                    public Did controller() {
+                        return null;
+                    }
+
+                    @Override
+                    public MultibaseEncoded publicKeyMultibase() {
+                        return method.publicKeyMultibase();
+                    }
+
+                    @Override
+                    public Map<String, Object> publicKeyJwk() {
+                        return null;
+                    }
+                })
+                .build();
+
+        assertThrows(DidDocumentWriterException.class, () -> CborDidDocumentWriter.getInstance().write(document, new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Writes the value, or {@code null} if the field is the one under test.
+     */
+    static void text(CborEncoder encoder, String field, String name, String value) throws IOException {
+        if (field.equals(name)) {
+            encoder.writeNull();
+        } else {
+            encoder.writeText(value);
+        }
+    }
+
+    static DidVerificationMethod multikey(String fragment, int key) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, fragment),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("base58btc", new byte[] { (byte) 0xed, 0x01, (byte) key }));
+    }
+}
@@ -0,0 +1,89 @@
+package com.apicatalog.did.key;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.datatype.Multicodec;
+import com.apicatalog.did.datatype.MulticodecEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+@DisplayName("DidKeyResolver")
+class DidKeyResolverTest {
+
+    @DisplayName("resolve(Did)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "vectors" })
+    void resolve(String uri, Multicodec codec, boolean signature) throws DidResolutionException {
+
+        final Did did = Did.of(uri);
+        final DidDocument document = DidKeyResolver.getInstance().resolve(did).document();
+
+        assertEquals(did, document.id());
+        assertEquals(1, document.verification().size());
+
+        final DidVerificationMethod method = document.verification().iterator().next();
+
+        assertEquals(uri + "#" + did.getMethodSpecificId(), method.id().toString());
+        assertEquals(DidKeyResolver.MULTIKEY, method.type());
+        assertEquals(did, method.controller());
+        assertEquals(did.getMethodSpecificId(), method.publicKeyMultibase().toString());
+        assertSame(codec, MulticodecEncoded.of(method.publicKeyMultibase()).codec());
+        assertEquals(MultibaseEncoded.of(did.getMethodSpecificId()), method.publicKeyMultibase());
+
+        if (signature) {
+            assertSame(document.verification(), document.authentication());
+            assertSame(document.verification(), document.assertion());
+            assertSame(document.verification(), document.capabilityInvocation());
+            assertSame(document.verification(), document.capabilityDelegation());
+            assertTrue(document.keyAgreement().isEmpty());
+        } else {
+            assertSame(document.verification(), document.keyAgreement());
+            assertTrue(document.authentication().isEmpty());
+        }
+    }
+
+    @DisplayName("resolve(Did) invalid")
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "did:key:6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH",
+            "did:key:z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvkt",
+            "did:key:z0MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH",
+            "did:key:z3",
+            "did:key:z",
+    })
+    void invalid(String uri) {
+        final DidResolutionException e = assertThrows(DidResolutionException.class, () -> DidKeyResolver.getInstance().resolve(Did.of(uri)));
+        assertEquals(Code.InvalidDid, e.getCode());
+    }
+
+    @DisplayName("resolve(Did) unsupported method")
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = { "did:web:example.com" })
+    void unsupported(String uri) {
+        final DidResolutionException e = assertThrows(DidResolutionException.class, () -> DidKeyResolver.getInstance().resolve(Did.of(uri)));
+        assertEquals(Code.UnsupportedMethod, e.getCode());
+    }
+
+    static Stream<Arguments> vectors() {
+        return Stream.of(
+                Arguments.of("did:key:z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH", Multicodec.Ed25519PublicKey, true),
+                Arguments.of("did:key:z6LSeu9HkTHSfLLeUs2nnzUSNedgDUevfNQgQjQC23ZCit6F", Multicodec.X25519PublicKey, false),
+                Arguments.of("did:key:zQ3shokFTS3brHcDQrn82RUDfCZESWL1ZdCEJwekUDPQiYBme", Multicodec.Secp256k1PublicKey, true),
+                Arguments.of("did:key:zDnaerDaTF5BXEavCrfRZEk316dpbLsfPDZ3WJ5hRTPFU2169", Multicodec.P256PublicKey, true));
+    }
+}
@@ -0,0 +1,143 @@
+package com.apicatalog.did.peer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.io.DidDocumentReader;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+@DisplayName("DidPeerResolver")
+class DidPeerResolverTest {
+
+    static final String ED25519 = "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH";
+    static final String X25519 = "z6LSeu9HkTHSfLLeUs2nnzUSNedgDUevfNQgQjQC23ZCit6F";
+
+    static final String NUMALGO_4 = "did:peer:4zQmQq99siBJna5RLgoTat1yVW1rjWMEvDVzPpZE43WAuYeA:zJJXWrCF8kHNT9JhHfLYVKqCQwq2WP6AobdsYp";
+
+    @DisplayName("numalgo 0")
+    @Test
+    void numalgo0() throws DidResolutionException {
+
+        final Did did = Did.of("did:peer:0" + ED25519);
+        final DidDocument document = DidPeerResolver.getInstance().resolve(did).document();
+
+        assertEquals(did, document.id());
+        assertEquals(1, document.verification().size());
+
+        final DidVerificationMethod method = document.authentication().iterator().next();
+        assertEquals("did:peer:0" + ED25519 + "#" + ED25519, method.id().toString());
+        assertEquals(ED25519, method.publicKeyMultibase().toString());
+        assertTrue(document.keyAgreement().isEmpty());
+    }
+
+    @DisplayName("numalgo 2")
+    @Test
+    void numalgo2() throws DidResolutionException {
+
+        final Did did = Did.of("did:peer:2.E" + X25519 + ".V" + ED25519
+                + ".SeyJ0IjoiZG0iLCJzIjp7InVyaSI6Imh0dHBzOi8vZXhhbXBsZS5jb20vZW5kcG9pbnQiLCJhIjpbImRpZGNvbW0vdjIiXX19");
+
+        final DidDocument document = DidPeerResolver.getInstance().resolve(did).document();
+
+        assertEquals(2, document.verification().size());
+        assertEquals(did + "#key-1", document.keyAgreement().iterator().next().id().toString());
+        assertEquals(X25519, document.keyAgreement().iterator().next().publicKeyMultibase().toString());
+        assertEquals(did + "#key-2", document.authentication().iterator().next().id().toString());
+
+        assertEquals(1, document.service().size());
+
+        final DidService service = document.service().iterator().next();
+        assertEquals(URI.create(did + "#service"), service.id());
+        assertEquals("DIDCommMessaging", service.type().iterator().next());
+        assertEquals(URI.create("https://example.com/endpoint"), service.endpoint().iterator().next().id());
+    }
+
+    @DisplayName("numalgo 4")
+    @Test
+    void numalgo4() throws DidResolutionException {
+
+        final AtomicInteger reads = new AtomicInteger();
+
+        final DidPeerResolver resolver = DidPeerResolver.with(new DidDocumentReader() {
+
+            @Override
+            public String contentType() {
+                return "application/did+json";
+            }
+
+            @Override
+            public DidDocument read(InputStream is) throws IOException {
+                final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                int b;
+                while ((b = is.read()) != -1) {
+                    os.write(b);
+                }
+                assertEquals("{\"verificationMethod\":[]}", new String(os.toByteArray(), StandardCharsets.UTF_8));
+                reads.incrementAndGet();
+                return DidDocumentBuilder.with(Did.of("did:example:123")).build();
+            }
+        }).build();
+
+        final Did shortForm = Did.of(NUMALGO_4.substring(0, NUMALGO_4.lastIndexOf(':')));
+
+        assertEquals(Code.NotFound, assertThrows(DidResolutionException.class, () -> resolver.resolve(shortForm)).getCode());
+
+        final DidDocument longDocument = resolver.resolve(Did.of(NUMALGO_4)).document();
+
+        assertEquals(Did.of(NUMALGO_4), longDocument.id());
+        assertEquals(shortForm.toUri(), longDocument.alsoKnownAs().iterator().next());
+
+        final DidDocument shortDocument = resolver.resolve(shortForm).document();
+
+        assertEquals(shortForm, shortDocument.id());
+        assertEquals(URI.create(NUMALGO_4), shortDocument.alsoKnownAs().iterator().next());
+
+        resolver.resolve(Did.of(NUMALGO_4));
+        assertEquals(1, reads.get());
+    }
+
+    @DisplayName("invalid")
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {
+            "did:peer:0z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvkt",
+            "did:peer:2.X" + ED25519,
+            "did:peer:2.V" + ED25519 + "..S",
+            "did:peer:2.SeyJ0IjoiZG0i",
+            "did:peer:4zQmQq99siBJna5RLgoTat1yVW1rjWMEvDVzPpZE43WAuYeA:zJJXWrCF8kHNT9JhHfLYVKqCQwq2WP6AobdsYq",
+    })
+    void invalid(String did) {
+        final DidPeerResolver resolver = DidPeerResolver.with(new DidDocumentReader() {
+
+            @Override
+            public String contentType() {
+                return "application/did+json";
+            }
+
+            @Override
+            public DidDocument read(InputStream is) {
+                return DidDocumentBuilder.with(Did.of("did:example:123")).build();
+            }
+        }).build();
+
+        assertEquals(Code.InvalidDid, assertThrows(DidResolutionException.class, () -> resolver.resolve(Did.of(did))).getCode());
+    }
+}
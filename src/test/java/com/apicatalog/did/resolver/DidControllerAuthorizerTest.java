@@ -0,0 +1,187 @@
+package com.apicatalog.did.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+@DisplayName("DidControllerAuthorizer")
+class DidControllerAuthorizerTest {
+
+    /**
+     * <pre>
+     * did:ex:subject -> did:ex:a -> did:ex:c (root-key)
+     *                -> did:ex:b -> did:ex:a (cycle)
+     * did:ex:loop    -> did:ex:loop
+     * did:ex:orphan  -> did:ex:missing (unresolvable)
+     *                -> did:ex:c
+     * </pre>
+     */
+    static final Map<Did, DidDocument> DOCUMENTS = new HashMap<>();
+
+    static {
+        add(DidDocumentBuilder.with(Did.of("did:ex:subject"))
+                .controller(Did.of("did:ex:a"))
+                .controller(Did.of("did:ex:b"))
+                .relationship(VerificationRelationship.Authentication, method("did:ex:subject", "key-1")));
+
+        add(DidDocumentBuilder.with(Did.of("did:ex:a"))
+                .controller(Did.of("did:ex:c"))
+                .relationship(VerificationRelationship.CapabilityInvocation, method("did:ex:a", "key-1")));
+
+        add(DidDocumentBuilder.with(Did.of("did:ex:b"))
+                .controller(Did.of("did:ex:a")));
+
+        add(DidDocumentBuilder.with(Did.of("did:ex:c"))
+                .relationship(VerificationRelationship.CapabilityInvocation, method("did:ex:c", "root-key")));
+
+        add(DidDocumentBuilder.with(Did.of("did:ex:loop"))
+                .controller(Did.of("did:ex:loop")));
+
+        add(DidDocumentBuilder.with(Did.of("did:ex:orphan"))
+                .controller(Did.of("did:ex:missing"))
+                .controller(Did.of("did:ex:c")));
+    }
+
+    @DisplayName("authorizedBy(Did, DidVerificationMethod, VerificationRelationship)")
+    @ParameterizedTest(name = "{0} {1} {2}")
+    @CsvSource({
+            "did:ex:subject, did:ex:subject#key-1, Authentication, 8, did:ex:subject",
+            "did:ex:subject#key-1, did:ex:subject#key-1, Authentication, 0, did:ex:subject",
+            "did:ex:subject, did:ex:subject#key-1, CapabilityInvocation, 8, ",
+            "did:ex:subject, did:ex:a#key-1, CapabilityInvocation, 8, did:ex:a",
+            "did:ex:subject, did:ex:a#key-1, CapabilityInvocation, 0, ",
+            "did:ex:subject, did:ex:c#root-key, CapabilityInvocation, 8, did:ex:c",
+            "did:ex:subject, did:ex:c#root-key, CapabilityInvocation, 1, ",
+            "did:ex:b, did:ex:c#root-key, CapabilityInvocation, 2, did:ex:c",
+            "did:ex:subject, did:ex:c#root-key, Authentication, 8, ",
+            "did:ex:loop, did:ex:c#root-key, CapabilityInvocation, 8, ",
+    })
+    void authorizedBy(String subject, String method, VerificationRelationship relationship, int maxDepth, String expected) throws DidResolutionException {
+
+        final DidControllerAuthorizer authorizer = DidControllerAuthorizer.with(DidControllerAuthorizerTest::resolve)
+                .maxDepth(maxDepth)
+                .build();
+
+        final Did subjectDid = subject.contains("#") ? DidUrl.of(subject) : Did.of(subject);
+        final DidVerificationMethod verificationMethod = method(DidUrl.of(method));
+
+        assertEquals(expected != null ? Did.of(expected) : null, authorizer.authorizedBy(subjectDid, verificationMethod, relationship));
+        assertEquals(expected != null, authorizer.isAuthorized(subjectDid, verificationMethod, relationship));
+    }
+
+    @DisplayName("cache(int)")
+    @Test
+    void cache() throws DidResolutionException {
+
+        final AtomicInteger resolved = new AtomicInteger();
+
+        final DidControllerAuthorizer authorizer = DidControllerAuthorizer.with(did -> {
+            resolved.incrementAndGet();
+            return resolve(did);
+        }).cache(10).build();
+
+        final DidVerificationMethod root = method(DidUrl.of("did:ex:c#root-key"));
+
+        assertTrue(authorizer.isAuthorized(Did.of("did:ex:subject"), root, VerificationRelationship.CapabilityInvocation));
+        assertEquals(4, resolved.get());
+
+        assertTrue(authorizer.isAuthorized(Did.of("did:ex:subject"), root, VerificationRelationship.CapabilityInvocation));
+        assertFalse(authorizer.isAuthorized(Did.of("did:ex:b"), root, VerificationRelationship.Authentication));
+        assertEquals(4, resolved.get());
+
+        authorizer.invalidate(Did.of("did:ex:c"));
+
+        assertTrue(authorizer.isAuthorized(Did.of("did:ex:subject"), root, VerificationRelationship.CapabilityInvocation));
+        assertEquals(5, resolved.get());
+    }
+
+    @DisplayName("authorizedBy(Did, DidVerificationMethod, VerificationRelationship) unresolvable controller")
+    @Test
+    void notFound() throws DidResolutionException {
+
+        final DidControllerAuthorizer authorizer = DidControllerAuthorizer.with(DidControllerAuthorizerTest::resolve)
+                .cache(10)
+                .build();
+
+        final DidResolutionException e = assertThrows(DidResolutionException.class,
+                () -> authorizer.authorizedBy(
+                        Did.of("did:ex:orphan"),
+                        method(DidUrl.of("did:ex:missing#key-1")),
+                        VerificationRelationship.Authentication));
+
+        assertEquals(Code.NotFound, e.getCode());
+        assertNull(authorizer.documents.get(Did.of("did:ex:missing")));
+
+        // a sibling controller authorizes regardless of the missing one
+        assertEquals(Did.of("did:ex:c"), authorizer.authorizedBy(
+                Did.of("did:ex:orphan"),
+                method(DidUrl.of("did:ex:c#root-key")),
+                VerificationRelationship.CapabilityInvocation));
+    }
+
+    @DisplayName("authorizedBy(Did, DidVerificationMethod, VerificationRelationship) other key material")
+    @Test
+    void keyMaterial() throws DidResolutionException {
+
+        final DidControllerAuthorizer authorizer = DidControllerAuthorizer.with(DidControllerAuthorizerTest::resolve)
+                .cache(10)
+                .build();
+
+        final DidVerificationMethod forged = DidVerificationMethod.multibase(
+                DidUrl.of("did:ex:c#root-key"),
+                "Multikey",
+                Did.of("did:ex:c"),
+                MultibaseEncoded.of("z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK"));
+
+        assertNull(authorizer.authorizedBy(Did.of("did:ex:subject"), forged, VerificationRelationship.CapabilityInvocation));
+        assertEquals(Did.of("did:ex:c"), authorizer.authorizedBy(
+                Did.of("did:ex:subject"),
+                method(DidUrl.of("did:ex:c#root-key")),
+                VerificationRelationship.CapabilityInvocation));
+    }
+
+    static ResolvedDidDocument resolve(Did did) throws DidResolutionException {
+        final DidDocument document = DOCUMENTS.get(did);
+        if (document == null) {
+            throw new DidResolutionException(did.toString(), Code.NotFound);
+        }
+        return ResolvedDidDocument.of(document);
+    }
+
+    static void add(DidDocumentBuilder builder) {
+        final DidDocument document = builder.build();
+        DOCUMENTS.put(document.id(), document);
+    }
+
+    static DidVerificationMethod method(String did, String fragment) {
+        return method(DidUrl.fragment(Did.of(did), fragment));
+    }
+
+    static DidVerificationMethod method(DidUrl id) {
+        return DidVerificationMethod.multibase(
+                id,
+                "Multikey",
+                id.toDid(),
+                MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+    }
+}
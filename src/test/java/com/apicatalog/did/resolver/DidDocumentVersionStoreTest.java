@@ -0,0 +1,226 @@
+package com.apicatalog.did.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+
+@DisplayName("DidDocumentVersionStore")
+class DidDocumentVersionStoreTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    @DisplayName("version(Did, Instant)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "1999-12-31T00:00:00Z, ",
+            "2000-01-01T00:00:00Z, 1",
+            "2000-06-01T00:00:00Z, 1",
+            "2001-01-01T00:00:00Z, 3",
+            "2002-01-01T00:00:00Z, 4",
+            "2003-01-01T00:00:00Z, 5",
+            "2099-01-01T00:00:00Z, 5",
+    })
+    void at(Instant time, String expected) {
+
+        final DidDocumentVersionStore store = new DidDocumentVersionStore();
+
+        // out of order, version 4 has no timestamp and inherits 2002
+        store.put(DID, version("0", null));
+        store.put(DID, version("2", "2002-01-01T00:00:00Z"));
+        store.put(DID, version("4", null));
+        store.put(DID, version("1", "2000-01-01T00:00:00Z"));
+        store.put(DID, version("3", "2001-01-01T00:00:00Z"));
+        store.put(DID, version("5", "2003-01-01T00:00:00Z"));
+
+        final ResolvedDidDocument version = store.version(DID, time);
+
+        assertEquals(expected, version != null ? version.metadata().versionId() : null);
+    }
+
+    @DisplayName("versions(Did)")
+    @Test
+    void versions() {
+
+        final DidDocumentVersionStore store = new DidDocumentVersionStore();
+
+        for (int i = 0; i < 100; i++) {
+            store.put(DID, version(Integer.toString(i), Instant.ofEpochSecond(i * 2).toString()));
+        }
+
+        // replaces version 50 and moves it after 99
+        store.put(DID, version("50", Instant.ofEpochSecond(500).toString()));
+        store.put(DID, version("odd", Instant.ofEpochSecond(31).toString()));
+
+        final List<String> ids = new ArrayList<>();
+        for (final ResolvedDidDocument version : store.versions(DID)) {
+            ids.add(version.metadata().versionId());
+        }
+
+        assertEquals(101, ids.size());
+        assertEquals("odd", ids.get(16));
+        assertEquals("50", ids.get(100));
+        assertEquals("99", store.versions(DID).get(99).metadata().versionId());
+
+        assertEquals(Instant.ofEpochSecond(500), store.version(DID, "50").metadata().updated());
+        assertSame(store.version(DID, "50"), store.latest(DID));
+        assertEquals("49", store.version(DID, Instant.ofEpochSecond(101)).metadata().versionId());
+        assertEquals("odd", store.version(DID, Instant.ofEpochSecond(31)).metadata().versionId());
+    }
+
+    @DisplayName("put(Did, ResolvedDidDocument) shares methods")
+    @Test
+    void share() {
+
+        final DidDocumentVersionStore store = new DidDocumentVersionStore();
+
+        final DidVerificationMethod key1 = method("key-1", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+
+        final ResolvedDidDocument v1 = store.put(DID, ResolvedDidDocument.of(
+                DidDocumentBuilder.with(DID)
+                        .verification(key1)
+                        .relationship(VerificationRelationship.Authentication, key1)
+                        .build(),
+                metadata("1", "2000-01-01T00:00:00Z")));
+
+        final DidVerificationMethod copy = method("key-1", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+        final DidVerificationMethod key2 = method("key-2", "z6MkhaXgBZDvotDkL5257faiztiGiC2QtKLGpbnnEGta2doK");
+
+        final ResolvedDidDocument v2 = store.put(DID, ResolvedDidDocument.of(
+                DidDocumentBuilder.with(DID)
+                        .verification(copy)
+                        .verification(key2)
+                        .relationship(VerificationRelationship.Authentication, copy)
+                        .build(),
+                metadata("2", "2001-01-01T00:00:00Z")));
+
+        assertSame(key1, v2.document().verification().iterator().next());
+        assertSame(key1, v2.document().authentication().iterator().next());
+        assertEquals(2, v2.document().verification().size());
+        assertSame(v1, store.version(DID, "1"));
+    }
+
+    @DisplayName("put(Did, ResolvedDidDocument) keeps other document implementations")
+    @Test
+    void custom() {
+
+        final DidDocumentVersionStore store = new DidDocumentVersionStore();
+
+        final DidVerificationMethod key1 = method("key-1", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH");
+
+        store.put(DID, ResolvedDidDocument.of(DidDocumentBuilder.with(DID).verification(key1).build(), metadata("1", "2000-01-01T00:00:00Z")));
+
+        final DidDocument custom = new DidDocument() {
+
+            @Override
+            public Did id() {
+                return DID;
+            }
+
+            @Override
+            public Collection<DidVerificationMethod> verification() {
+                return Collections.singleton(method("key-1", "z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+            }
+        };
+
+        final ResolvedDidDocument resolved = ResolvedDidDocument.of(custom, metadata("2", "2001-01-01T00:00:00Z"));
+
+        assertSame(resolved, store.put(DID, resolved));
+        assertSame(custom, store.latest(DID).document());
+    }
+
+    @DisplayName("put(Did, ResolvedDidDocument) without versionId")
+    @Test
+    void noVersionId() {
+        assertThrows(IllegalArgumentException.class, () -> new DidDocumentVersionStore().put(DID, ResolvedDidDocument.of(DidDocumentBuilder.with(DID).build())));
+    }
+
+    @DisplayName("remove(Did) concurrent with put(Did, ResolvedDidDocument)")
+    @Test
+    void remove() throws Exception {
+
+        final DidDocumentVersionStore store = new DidDocumentVersionStore();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < 200; round++) {
+
+                store.put(DID, version("0", null));
+
+                final String versionId = Integer.toString(round + 1);
+
+                final Future<?> put = executor.submit(() -> store.put(DID, version(versionId, null)));
+                final Future<Boolean> remove = executor.submit(() -> store.remove(DID));
+
+                put.get(10, TimeUnit.SECONDS);
+                assertTrue(remove.get(10, TimeUnit.SECONDS));
+
+                // a put is either removed or visible in the store
+                final ResolvedDidDocument latest = store.latest(DID);
+                if (latest != null) {
+                    assertEquals(versionId, latest.metadata().versionId());
+                    assertTrue(store.dids().contains(DID));
+                }
+                store.remove(DID);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(store.remove(DID));
+        assertNull(store.latest(DID));
+    }
+
+    static ResolvedDidDocument version(String versionId, String updated) {
+        return ResolvedDidDocument.of(DidDocumentBuilder.with(DID).build(), metadata(versionId, updated));
+    }
+
+    static DidDocumentMetadata metadata(String versionId, String updated) {
+        return new DidDocumentMetadata() {
+
+            @Override
+            public String versionId() {
+                return versionId;
+            }
+
+            @Override
+            public Instant updated() {
+                return updated != null ? Instant.parse(updated) : null;
+            }
+        };
+    }
+
+    static DidVerificationMethod method(String fragment, String key) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, fragment),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of(key));
+    }
+}
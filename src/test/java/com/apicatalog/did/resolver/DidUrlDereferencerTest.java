@@ -0,0 +1,141 @@
+package com.apicatalog.did.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidService;
+import com.apicatalog.did.document.DidServiceEndpoint;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.document.VerificationRelationship;
+import com.apicatalog.did.resolver.DereferencedResource.Type;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+
+@DisplayName("DidUrlDereferencer")
+class DidUrlDereferencerTest {
+
+    static final Did DID = Did.of("did:example:123");
+
+    static final DidVerificationMethod KEY = method("key-1");
+    static final DidVerificationMethod EMBEDDED = method("key-2");
+
+    static final DidService FILES = DidService.of(
+            URI.create("did:example:123#files"),
+            "LinkedDomains",
+            DidServiceEndpoint.of(URI.create("https://example.com/files/")));
+
+    static final DidDocument DOCUMENT = DidDocumentBuilder.with(DID)
+            .verification(KEY)
+            .relationship(VerificationRelationship.KeyAgreement, EMBEDDED)
+            .service(FILES)
+            .build();
+
+    @DisplayName("dereference(DidUrl)")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "did:example:123, Document, ",
+            "did:example:123#key-1, VerificationMethod, ",
+            "did:example:123#key-2, VerificationMethod, ",
+            "did:example:123#files, Service, ",
+            "did:example:123?service=files, ServiceEndpoint, https://example.com/files/",
+            "did:example:123?service=files&relativeRef=%2Fresume.pdf, ServiceEndpoint, https://example.com/resume.pdf",
+            "did:example:123?relativeRef=a.pdf&service=files, ServiceEndpoint, https://example.com/files/a.pdf",
+    })
+    void dereference(String url, Type type, String endpoint) throws DidResolutionException {
+
+        final DereferencedResource resource = DidUrlDereferencer.with(did -> ResolvedDidDocument.of(DOCUMENT))
+                .build()
+                .dereference(DidUrl.of(url));
+
+        assertEquals(type, resource.type());
+        assertSame(DOCUMENT, resource.document().document());
+
+        switch (type) {
+        case VerificationMethod:
+            assertEquals(DidUrl.of(url), resource.method().id());
+            break;
+
+        case Service:
+            assertSame(FILES, resource.service());
+            break;
+
+        case ServiceEndpoint:
+            assertSame(FILES, resource.service());
+            assertEquals(URI.create(endpoint), resource.endpoint());
+            break;
+
+        default:
+            break;
+        }
+    }
+
+    @DisplayName("dereference(DidUrl) not found")
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "did:example:123#unknown",
+            "did:example:123?service=unknown",
+            "did:example:123/path",
+            "did:example:123?versionId=3#key-1",
+            "did:example:123?versionTime=2020-01-01T00:00:00Z",
+            "did:example:123?service=files&hl=zQmWvQxTqbG2Z9HPJgG57jjwR154cKhbtJenbyYTWkjgF3e",
+    })
+    void notFound(String url) {
+
+        final DidResolutionException e = assertThrows(DidResolutionException.class,
+                () -> DidUrlDereferencer.with(did -> ResolvedDidDocument.of(DOCUMENT))
+                        .build()
+                        .dereference(DidUrl.of(url)));
+
+        assertEquals(Code.NotFound, e.getCode());
+    }
+
+    @DisplayName("cache(int)")
+    @Test
+    void cache() throws DidResolutionException {
+
+        final AtomicInteger resolved = new AtomicInteger();
+
+        final DidUrlDereferencer dereferencer = DidUrlDereferencer.with(did -> {
+            resolved.incrementAndGet();
+            return ResolvedDidDocument.of(DOCUMENT);
+        }).cache(10).build();
+
+        final DereferencedResource resource = dereferencer.dereference(DidUrl.of("did:example:123#key-1"));
+
+        assertSame(resource, dereferencer.dereference(DidUrl.of("did:example:123#key-1")));
+        dereferencer.dereference(DidUrl.of("did:example:123?service=files"));
+        assertEquals(1, resolved.get());
+
+        // neither resolved nor cached
+        assertThrows(DidResolutionException.class, () -> dereferencer.dereference(DidUrl.of("did:example:123?versionId=3#key-1")));
+        assertFalse(dereferencer.resources.containsKey(DidUrl.of("did:example:123?versionId=3#key-1")));
+        assertEquals(1, resolved.get());
+
+        dereferencer.invalidate(DID);
+
+        dereferencer.dereference(DidUrl.of("did:example:123#key-1"));
+        assertEquals(2, resolved.get());
+    }
+
+    static DidVerificationMethod method(String fragment) {
+        return DidVerificationMethod.multibase(
+                DidUrl.fragment(DID, fragment),
+                "Multikey",
+                DID,
+                MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.apicatalog.did.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.apicatalog.did.Did;
+import com.apicatalog.did.DidUrl;
+import com.apicatalog.did.datatype.MultibaseEncoded;
+import com.apicatalog.did.document.DidDocument;
+import com.apicatalog.did.document.DidDocumentBuilder;
+import com.apicatalog.did.document.DidVerificationMethod;
+import com.apicatalog.did.io.DidDocumentFormats;
+import com.apicatalog.did.io.cbor.CborDidDocumentReader;
+import com.apicatalog.did.io.cbor.CborDidDocumentWriter;
+import com.apicatalog.did.resolver.DidResolutionException;
+import com.apicatalog.did.resolver.DidResolutionException.Code;
+import com.apicatalog.did.resolver.ResolvedDidDocument;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+@DisplayName("DidWebResolver")
+class DidWebResolverTest {
+
+    static final String ETAG = "\"v1\"";
+
+    static HttpServer server;
+    static Did did;
+    static byte[] document;
+
+    static final AtomicInteger requests = new AtomicInteger();
+    static final AtomicInteger transferred = new AtomicInteger();
+
+    @BeforeAll
+    static void start() throws Exception {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        did = Did.of("did:web:localhost%3A" + server.getAddress().getPort() + ":user:alice");
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CborDidDocumentWriter.getInstance().write(document(did), os);
+        document = os.toByteArray();
+
+        server.createContext("/user/alice/did.json", DidWebResolverTest::serve);
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop(0);
+    }
+
+    static void serve(final HttpExchange exchange) throws IOException {
+
+        requests.incrementAndGet();
+
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        transferred.incrementAndGet();
+
+        exchange.getResponseHeaders().add("Content-Type", DidDocumentFormats.CBOR);
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.sendResponseHeaders(200, document.length);
+
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(document);
+        }
+    }
+
+    static DidDocument document(final Did id) {
+        return DidDocumentBuilder.with(id)
+                .verification(DidVerificationMethod.multibase(
+                        DidUrl.fragment(id, "key-1"),
+                        "Multikey",
+                        id,
+                        MultibaseEncoded.of("z6MkpTHR8VNsBxYAAWHut2Geadd9jSwuBV8xRoAnwWsdvktH")))
+                .build();
+    }
+
+    @DisplayName("url(Did)")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource({ "urls" })
+    void url(String did, String url) {
+        assertEquals(URI.create(url), DidWebResolver.url(Did.of(did)));
+    }
+
+    @DisplayName("resolve(Did) with revalidation")
+    @Test
+    void resolve() throws DidResolutionException {
+
+        final DidWebResolver resolver = DidWebResolver
+                .with(CborDidDocumentReader.getInstance())
+                .secure(false)
+                .cache(10)
+                .build();
+
+        requests.set(0);
+        transferred.set(0);
+
+        final ResolvedDidDocument first = resolver.resolve(did);
+
+        assertEquals(did, first.document().id());
+        assertEquals(1, first.document().verification().size());
+
+        final ResolvedDidDocument second = resolver.resolve(did);
+
+        assertSame(first, second);
+        assertEquals(2, requests.get());
+        assertEquals(1, transferred.get());
+    }
+
+    @DisplayName("resolve(Did) not found")
+    @Test
+    void notFound() {
+
+        final DidWebResolver resolver = DidWebResolver
+                .with(CborDidDocumentReader.getInstance())
+                .secure(false)
+                .build();
+
+        final DidResolutionException e = assertThrows(DidResolutionException.class,
+                () -> resolver.resolve(Did.of("did:web:localhost%3A" + server.getAddress().getPort() + ":user:bob")));
+
+        assertEquals(Code.NotFound, e.getCode());
+    }
+
+    @DisplayName("resolve(Did) invalid")
+    @Test
+    void invalid() {
+
+        final DidWebResolver resolver = DidWebResolver
+                .with(CborDidDocumentReader.getInstance())
+                .transport((url, headers) -> {
+                    throw new IllegalStateException();
+                })
+                .build();
+
+        final DidResolutionException e = assertThrows(DidResolutionException.class,
+                () -> resolver.resolve(Did.of("did:web:example.com:..")));
+
+        assertEquals(Code.InvalidDid, e.getCode());
+    }
+
+    static Stream<Arguments> urls() {
+        return Stream.of(
+                Arguments.of("did:web:w3c-ccg.github.io", "https://w3c-ccg.github.io/.well-known/did.json"),
+                Arguments.of("did:web:w3c-ccg.github.io:user:alice", "https://w3c-ccg.github.io/user/alice/did.json"),
+                Arguments.of("did:web:example.com%3A3000:user:alice", "https://example.com:3000/user/alice/did.json"),
+                Arguments.of("did:web:example.com:a%20b", "https://example.com/a%20b/did.json"));
+    }
+}